@@ -0,0 +1,51 @@
+package Benchmarks;
+
+import Enums.OpCode;
+import Models.ALU;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * ALU.operate por operación. Los operandos son campos no finales para que el JIT
+ * no pliegue el resultado.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class AluBenchmark {
+    private final ALU alu = new ALU();
+    private int a = 123_456;
+    private int b = 789;
+
+    @Benchmark
+    public int add() {
+        return alu.operate(OpCode.ADD, a, b);
+    }
+
+    @Benchmark
+    public int sub() {
+        return alu.operate(OpCode.SUB, a, b);
+    }
+
+    @Benchmark
+    public int mul() {
+        return alu.operate(OpCode.MUL, a, b);
+    }
+
+    @Benchmark
+    public int div() {
+        return alu.operate(OpCode.DIV, a, b);
+    }
+}
@@ -0,0 +1,77 @@
+package Benchmarks;
+
+import Controller.BatchJob;
+import Controller.BatchReport;
+import Controller.BatchRunner;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * Ejecución por lotes de JOBS copias del bucle contado con distinto número de hilos.
+ * Con CPUs independientes, los ciclos/s deberían crecer casi linealmente hasta el
+ * número de núcleos de la máquina.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class BatchBenchmark {
+    private static final int JOBS = 64;
+
+    @Param({"1", "2", "4", "8"})
+    public int threads;
+
+    private Path directory;
+    private BatchRunner runner;
+    private List<BatchJob> jobs;
+
+    @Setup(Level.Trial)
+    public void setup() throws IOException {
+        directory = Files.createTempDirectory("batch-bench");
+        Path program = Files.write(directory.resolve("loop.txt"), Programs.COUNTED_LOOP);
+        jobs = new ArrayList<>();
+        for (int i = 0; i < JOBS; i++) {
+            jobs.add(new BatchJob(program.toString(), null));
+        }
+        runner = new BatchRunner(Programs.MEMORY_SIZE, 10_000_000L, BatchRunner.DEFAULT_TIMEOUT_MILLIS, threads);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        try (Stream<Path> files = Files.walk(directory)) {
+            for (Path p : (Iterable<Path>) files.sorted(Comparator.reverseOrder())::iterator) {
+                Files.delete(p);
+            }
+        }
+    }
+
+    @Benchmark
+    public long batch(Counters counters) {
+        BatchReport report = runner.run(jobs);
+        counters.microOps += report.getTotalCycles();
+        counters.instructions += report.getTotalInstructions();
+        return report.getTotalCycles();
+    }
+}
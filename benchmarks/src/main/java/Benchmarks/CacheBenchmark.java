@@ -0,0 +1,72 @@
+package Benchmarks;
+
+import Models.Cache;
+import Models.CacheConfig;
+import Models.Memory;
+import Models.MemoryPort;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Coste por acceso de la jerarquía de cachés frente a la memoria directa, recorriendo
+ * la memoria secuencialmente (casi todo aciertos) o a saltos de 64 celdas (casi todo fallos).
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CacheBenchmark {
+    @Param({"none", "L1:size=256,line=4,ways=2,replace=lru",
+            "L1:size=256,line=4,ways=4,replace=plru;L2:size=1024,line=8,ways=8,replace=lru"})
+    public String caches;
+
+    @Param({"1", "64"})
+    public int stride;
+
+    private MemoryPort port;
+    private int addr = 0;
+
+    @Setup
+    public void setup() {
+        Memory memory = new Memory(Programs.MEMORY_SIZE);
+        List<CacheConfig> levels = new ArrayList<>();
+        if (!"none".equals(caches)) {
+            for (String spec : caches.split(";")) {
+                levels.add(CacheConfig.parse(spec));
+            }
+        }
+        port = Cache.hierarchy(levels, memory);
+    }
+
+    private int nextAddress() {
+        int a = addr;
+        addr = (a + stride) & (Programs.MEMORY_SIZE - 1);
+        return a;
+    }
+
+    @Benchmark
+    public int read() {
+        return port.read(nextAddress());
+    }
+
+    @Benchmark
+    public void write() {
+        int a = nextAddress();
+        port.write(a, a);
+    }
+}
@@ -0,0 +1,57 @@
+package Benchmarks;
+
+import Models.ControlUnit;
+import Models.DecodedInstruction;
+import Models.IR;
+import Models.RegisterFile;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * ControlUnit.decode sobre el texto del IR frente a la instrucción pre-decodificada,
+ * y el coste de pre-decodificar un programa completo.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ControlUnitBenchmark {
+    private ControlUnit controlUnit;
+    private final IR ir = new IR();
+    private DecodedInstruction decoded;
+
+    @Setup
+    public void setup() {
+        // La CPU carga el microprograma estándar en su ControlWiredOrMicro.
+        controlUnit = new ControlUnit(Programs.newCpu(Programs.ENDLESS_LOOP).getControlType());
+        ir.load("LOAD_REG_IMM R3 100");
+        decoded = controlUnit.predecode(Programs.ENDLESS_LOOP, new RegisterFile())[4];
+    }
+
+    @Benchmark
+    public String decodeText() {
+        return controlUnit.decode(ir);
+    }
+
+    @Benchmark
+    public String decodePredecoded() {
+        return controlUnit.decode(decoded);
+    }
+
+    @Benchmark
+    public DecodedInstruction[] predecodeProgram() {
+        return controlUnit.predecode(Programs.COUNTED_LOOP, new RegisterFile());
+    }
+}
@@ -0,0 +1,24 @@
+package Benchmarks;
+
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * Contadores auxiliares: JMH los reporta como tasas junto al resultado principal,
+ * es decir, micro-operaciones por segundo e instrucciones por segundo.
+ */
+@State(Scope.Thread)
+@AuxCounters(AuxCounters.Type.OPERATIONS)
+public class Counters {
+    public long microOps;
+    public long instructions;
+
+    @Setup(Level.Iteration)
+    public void reset() {
+        microOps = 0;
+        instructions = 0;
+    }
+}
@@ -0,0 +1,49 @@
+package Benchmarks;
+
+import Models.CPU;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * CPU.executeCycle en régimen estable, sobre un bucle que nunca se detiene.
+ * En MICRO cada operación es un micro-ciclo y en WIRED una instrucción completa;
+ * los contadores dan micro-operaciones/s (equivalentes en WIRED) e instrucciones/s.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CpuBenchmark {
+    @Param({"MICRO", "WIRED"})
+    public String mode;
+
+    private CPU cpu;
+
+    @Setup
+    public void setup() {
+        cpu = Programs.newCpu(Programs.ENDLESS_LOOP);
+        cpu.getControlType().switchMode(mode);
+    }
+
+    @Benchmark
+    public void executeCycle(Counters counters) {
+        long cycles = cpu.getCycleCount();
+        long instructions = cpu.getInstructionCount();
+        cpu.executeCycle();
+        counters.microOps += cpu.getCycleCount() - cycles;
+        counters.instructions += cpu.getInstructionCount() - instructions;
+    }
+}
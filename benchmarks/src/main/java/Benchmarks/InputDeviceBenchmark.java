@@ -0,0 +1,83 @@
+package Benchmarks;
+
+import Models.IODevice;
+import Models.MappedInputDevice;
+import Models.TextInputDevice;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Coste por carácter de INPUT_CHAR leyendo un archivo de 4 MB: con {@link TextInputDevice}
+ * (lector con búfer que decodifica cada carácter) o con {@link MappedInputDevice} (bytes
+ * servidos desde la proyección). Al llegar al final, el primero se reabre y el segundo se rebobina.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class InputDeviceBenchmark {
+    private static final int FILE_SIZE = 4 << 20;
+
+    @Param({"text", "mapped"})
+    public String device;
+
+    private Path file;
+    private IODevice input;
+
+    @Setup(Level.Trial)
+    public void setup() throws IOException {
+        file = Files.createTempFile("input-bench", ".txt");
+        byte[] data = new byte[FILE_SIZE];
+        for (int i = 0; i < data.length; i++) {
+            data[i] = (byte) ('A' + i % 26);
+        }
+        Files.write(file, data);
+        input = open();
+    }
+
+    private IODevice open() throws IOException {
+        return "mapped".equals(device)
+                ? new MappedInputDevice("Input_0", file.toString())
+                : new TextInputDevice("Input_0", file.toString());
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        if (input instanceof MappedInputDevice) {
+            ((MappedInputDevice) input).close();
+        }
+        Files.delete(file);
+    }
+
+    @Benchmark
+    public int read() throws IOException {
+        int c = input.read();
+        if (c < 0) {
+            if (input instanceof MappedInputDevice) {
+                ((MappedInputDevice) input).rewind();
+            } else {
+                input = open();
+            }
+            c = input.read();
+        }
+        return c;
+    }
+}
@@ -0,0 +1,57 @@
+package Benchmarks;
+
+import Models.Memory;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Memory.read/write recorriendo la memoria completa, más las operaciones de bloque.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MemoryBenchmark {
+    private final Memory memory = new Memory(Programs.MEMORY_SIZE);
+    private final int[] block = new int[64];
+    private int addr = 0;
+
+    private int nextAddress() {
+        int a = addr;
+        addr = (a + 1) & (Programs.MEMORY_SIZE - 1);
+        return a;
+    }
+
+    @Benchmark
+    public int read() {
+        return memory.read(nextAddress());
+    }
+
+    @Benchmark
+    public void write() {
+        int a = nextAddress();
+        memory.write(a, a);
+    }
+
+    @Benchmark
+    public int[] readBlock() {
+        memory.readBlock(nextAddress() & ~63, block, 0, block.length);
+        return block;
+    }
+
+    @Benchmark
+    public void writeBlock() {
+        memory.writeBlock(nextAddress() & ~63, block, 0, block.length);
+    }
+}
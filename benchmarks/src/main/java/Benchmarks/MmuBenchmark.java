@@ -0,0 +1,80 @@
+package Benchmarks;
+
+import Models.FrameAllocator;
+import Models.InterruptManager;
+import Models.Memory;
+import Models.MemoryPort;
+import Models.Mmu;
+import Models.PageTable;
+import Models.Tlb;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Coste por acceso de la traducción de direcciones frente a la memoria directa. Con saltos
+ * de una celda casi todo son aciertos de TLB; con saltos de una página, cada acceso toca una
+ * página distinta y, con más páginas que entradas, casi todo son fallos con recorrido de tabla.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MmuBenchmark {
+    @Param({"0", "16", "64"})
+    public int pageSize; // 0 = sin MMU
+
+    @Param({"16:4", "64:64"})
+    public String tlb;
+
+    @Param({"1", "page"})
+    public String stride;
+
+    private MemoryPort port;
+    private int step;
+    private int addr = 0;
+
+    @Setup
+    public void setup() {
+        Memory memory = new Memory(Programs.MEMORY_SIZE);
+        port = memory;
+        step = "page".equals(stride) ? Math.max(pageSize, 1) : 1;
+        if (pageSize > 0) {
+            String[] geometry = tlb.split(":");
+            int pages = Programs.MEMORY_SIZE / pageSize;
+            Mmu mmu = new Mmu(memory, new InterruptManager(),
+                    new Tlb(Integer.parseInt(geometry[0]), Integer.parseInt(geometry[1])), pageSize, new PageTable(pages), 0);
+            mmu.setDemandPaging(new FrameAllocator(pages));
+            port = mmu;
+        }
+    }
+
+    private int nextAddress() {
+        int a = addr;
+        addr = (a + step) & (Programs.MEMORY_SIZE - 1);
+        return a;
+    }
+
+    @Benchmark
+    public int read() {
+        return port.read(nextAddress());
+    }
+
+    @Benchmark
+    public void write() {
+        int a = nextAddress();
+        port.write(a, a);
+    }
+}
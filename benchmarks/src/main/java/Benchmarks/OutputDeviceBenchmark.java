@@ -0,0 +1,59 @@
+package Benchmarks;
+
+import Models.TextOutputDevice;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Coste por carácter de OUTPUT_CHAR hacia un archivo real: en modo estricto (búfer 0)
+ * cada carácter es una llamada al sistema; con búfer, una por lote.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class OutputDeviceBenchmark {
+    @Param({"0", "64", "8192"})
+    public int bufferSize;
+
+    private Path file;
+    private TextOutputDevice device;
+    private int next = 0;
+
+    @Setup(Level.Trial)
+    public void setup() throws IOException {
+        file = Files.createTempFile("output-bench", ".txt");
+        device = new TextOutputDevice(file.toString(), "Output_1");
+        device.setBuffering(bufferSize, TextOutputDevice.DEFAULT_FLUSH_INTERVAL_MS);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        device.close();
+        Files.delete(file);
+    }
+
+    @Benchmark
+    public void write() {
+        device.write('A' + next);
+        next = (next + 1) % 26;
+    }
+}
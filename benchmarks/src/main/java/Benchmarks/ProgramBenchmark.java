@@ -0,0 +1,63 @@
+package Benchmarks;
+
+import Models.CPU;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Ejecución completa (hasta HLT) de los programas de ejemplo de Files/, con una
+ * CPU nueva por operación. Los contadores dan micro-operaciones/s e instrucciones/s.
+ * Modos: MICRO (micro-operación por ciclo), WIRED (instrucción por ciclo), BLOCKS
+ * (WIRED ejecutando bloques básicos traducidos) y JIT (bloques calientes compilados a bytecode).
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ProgramBenchmark {
+    /** Guarda contra programas que no terminan. */
+    private static final long MAX_CYCLES = 10_000_000L;
+
+    @Param({"aritmetic.txt", "advanced_Aritmetic.txt", "create_memory.txt", "load_memory.txt",
+            "program.txt", "loop"})
+    public String program;
+
+    @Param({"MICRO", "WIRED", "BLOCKS", "JIT"})
+    public String mode;
+
+    private List<String> instructions;
+    private String input;
+
+    @Setup
+    public void setup() throws IOException {
+        instructions = Programs.load(program);
+        input = Programs.loadInput();
+    }
+
+    @Benchmark
+    public CPU run(Counters counters) {
+        CPU cpu = Programs.newCpu(instructions, input);
+        cpu.getControlType().switchMode("MICRO".equals(mode) ? "MICRO" : "WIRED");
+        cpu.setBlockTranslation("BLOCKS".equals(mode) || "JIT".equals(mode));
+        cpu.setJitEnabled("JIT".equals(mode));
+        cpu.run(MAX_CYCLES);
+        counters.microOps += cpu.getCycleCount();
+        counters.instructions += cpu.getInstructionCount();
+        return cpu;
+    }
+}
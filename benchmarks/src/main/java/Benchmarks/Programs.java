@@ -0,0 +1,85 @@
+package Benchmarks;
+
+import Controller.ProgramLoader;
+import Models.CPU;
+import Models.IODevice;
+import Models.Memory;
+import Models.TextInputDevice;
+import Models.TextOutputDevice;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.StringReader;
+import java.io.Writer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Programas y utilidades compartidos por los benchmarks.
+ */
+final class Programs {
+    static final int MEMORY_SIZE = 2048;
+
+    /** Directorio de los programas de ejemplo; se puede cambiar con -Dfiles.dir=... */
+    static final String FILES_DIR = System.getProperty("files.dir", "../Files");
+
+    /** Bucle infinito con aritmética, STORE, LOAD y salto: régimen estable de executeCycle. */
+    static final List<String> ENDLESS_LOOP = Arrays.asList(
+            "MOV_IMM R1 0",
+            "MOV_IMM R2 1",
+            "ADD R1 R2 R1",
+            "STORE R1 100",
+            "LOAD_REG_IMM R3 100",
+            "MUL R3 R2 R4",
+            "JMP 2");
+
+    /** Bucle de 1000 vueltas que termina en HLT (programa "loop" de ProgramBenchmark). */
+    static final List<String> COUNTED_LOOP = Arrays.asList(
+            "MOV_IMM R1 0",
+            "MOV_IMM R2 1",
+            "MOV_IMM R3 1000",
+            "ADD R1 R2 R1",
+            "STORE R1 7",
+            "LOAD_REG_IMM R4 7",
+            "MUL R4 R2 R5",
+            "CMP R1 R3",
+            "JNE 3",
+            "HLT");
+
+    private Programs() {
+    }
+
+    /**
+     * @param name "loop" o el nombre de un archivo de FILES_DIR.
+     * @return las líneas del programa.
+     */
+    static List<String> load(String name) throws IOException {
+        if ("loop".equals(name)) {
+            return COUNTED_LOOP;
+        }
+        return ProgramLoader.readProgram(new File(FILES_DIR, name).getPath());
+    }
+
+    /** @return el contenido de Files/input.txt, la entrada que esperan los programas de ejemplo. */
+    static String loadInput() throws IOException {
+        return Files.readString(Path.of(FILES_DIR, "input.txt"));
+    }
+
+    /** Dispositivos sin efectos en disco: entrada desde un String y salida descartada. */
+    static List<IODevice> devices(String input) {
+        return Arrays.asList(
+                new TextInputDevice("Input_0", new StringReader(input)),
+                new TextOutputDevice(Writer.nullWriter(), "Output_1"));
+    }
+
+    static CPU newCpu(List<String> program) {
+        return newCpu(program, "");
+    }
+
+    static CPU newCpu(List<String> program, String input) {
+        Memory memory = new Memory(MEMORY_SIZE);
+        return new CPU(memory, memory, devices(input), program);
+    }
+}
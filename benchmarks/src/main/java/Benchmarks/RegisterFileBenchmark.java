@@ -0,0 +1,62 @@
+package Benchmarks;
+
+import Models.DecodedInstruction;
+import Models.RegisterFile;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * RegisterFile.write por nombre, por id y con procedencia diferida, y las lecturas.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RegisterFileBenchmark {
+    private final RegisterFile registers = new RegisterFile();
+    private final DecodedInstruction add = DecodedInstruction.parse("ADD R1 R2 R3");
+    private int r3;
+    private int value = 0;
+
+    @Setup
+    public void setup() {
+        r3 = registers.idOf("R3");
+    }
+
+    @Benchmark
+    public void writeByName() {
+        registers.write("R3", value++, "(ADD R1, R2)");
+    }
+
+    @Benchmark
+    public void writeById() {
+        registers.write(r3, value++, "(ADD R1, R2)");
+    }
+
+    @Benchmark
+    public void writeFromInstruction() {
+        registers.writeFromInstruction(r3, value++, add);
+    }
+
+    @Benchmark
+    public int readByName() {
+        return registers.read("R3");
+    }
+
+    @Benchmark
+    public int readById() {
+        return registers.read(r3);
+    }
+}
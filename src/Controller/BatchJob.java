@@ -0,0 +1,25 @@
+package Controller;
+
+/**
+ * Un trabajo de ejecución por lotes: un programa y, opcionalmente, el archivo que
+ * alimenta su dispositivo de entrada.
+ */
+public final class BatchJob {
+    private final String programPath;
+    private final String inputPath;
+
+    /**
+     * @param programPath Ruta del archivo de programa.
+     * @param inputPath   Ruta del archivo de entrada; null para una entrada vacía.
+     */
+    public BatchJob(String programPath, String inputPath) {
+        if (programPath == null) {
+            throw new IllegalArgumentException("El trabajo necesita un programa.");
+        }
+        this.programPath = programPath;
+        this.inputPath = inputPath;
+    }
+
+    public String getProgramPath() { return programPath; }
+    public String getInputPath() { return inputPath; }
+}
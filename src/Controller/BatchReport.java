@@ -0,0 +1,132 @@
+package Controller;
+
+import Enums.BatchStatus;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Informe agregado de una ejecución por lotes: resultado de cada trabajo, totales por
+ * estado y rendimiento global (ciclos por segundo y paralelismo efectivo).
+ */
+public class BatchReport {
+    private static final int OUTPUT_PREVIEW = 32; // Caracteres de salida que se muestran por trabajo
+
+    private final List<BatchResult> results;
+    private final long wallNanos;
+    private final int parallelism;
+
+    BatchReport(List<BatchResult> results, long wallNanos, int parallelism) {
+        this.results = Collections.unmodifiableList(results);
+        this.wallNanos = wallNanos;
+        this.parallelism = parallelism;
+    }
+
+    public List<BatchResult> getResults() { return results; }
+    public long getWallNanos() { return wallNanos; }
+    public int getParallelism() { return parallelism; }
+
+    /** @return número de trabajos que terminaron con el estado dado. */
+    public int count(BatchStatus status) {
+        int n = 0;
+        for (BatchResult r : results) {
+            if (r.getStatus() == status) {
+                n++;
+            }
+        }
+        return n;
+    }
+
+    public long getTotalCycles() {
+        long total = 0;
+        for (BatchResult r : results) {
+            total += r.getCycles();
+        }
+        return total;
+    }
+
+    public long getTotalInstructions() {
+        long total = 0;
+        for (BatchResult r : results) {
+            total += r.getInstructions();
+        }
+        return total;
+    }
+
+    /** @return suma de los tiempos de todos los trabajos (tiempo de hilo ocupado). */
+    public long getBusyNanos() {
+        long total = 0;
+        for (BatchResult r : results) {
+            total += r.getElapsedNanos();
+        }
+        return total;
+    }
+
+    /** @return trabajos ejecutándose a la vez en promedio (tiempo ocupado / tiempo real). */
+    public double getEffectiveParallelism() {
+        return (wallNanos > 0) ? (double) getBusyNanos() / wallNanos : 0.0;
+    }
+
+    /** @return ciclos por segundo del lote completo, medidos en tiempo real. */
+    public double getCyclesPerSecond() {
+        return (wallNanos > 0) ? getTotalCycles() * 1e9 / wallNanos : 0.0;
+    }
+
+    /**
+     * Imprime una línea por trabajo y el resumen del lote.
+     * @param out Destino del informe.
+     */
+    public void print(PrintStream out) {
+        out.printf("=== Lote: %d programas, %d hilos ===%n", results.size(), parallelism);
+        for (int i = 0; i < results.size(); i++) {
+            BatchResult r = results.get(i);
+            out.printf("%4d %-11s %12d ciclos %10d instr. %9.3f ms  %s%n", i + 1, r.getStatus(),
+                    r.getCycles(), r.getInstructions(), r.getElapsedNanos() / 1e6, r.getProgramPath());
+            if (r.getStatus() != BatchStatus.HALTED) {
+                out.println("       " + r.getMessage());
+            }
+            if (!r.getOutput().isEmpty()) {
+                out.println("       Salida: " + preview(r));
+            }
+        }
+        StringBuilder byStatus = new StringBuilder();
+        for (BatchStatus status : BatchStatus.values()) {
+            byStatus.append(byStatus.length() > 0 ? ", " : "").append(status).append(' ').append(count(status));
+        }
+        out.println("Estados: " + byStatus);
+        out.printf("Ciclos: %d | Instrucciones: %d | Tiempo real: %.3f ms | Tiempo ocupado: %.3f ms%n",
+                getTotalCycles(), getTotalInstructions(), wallNanos / 1e6, getBusyNanos() / 1e6);
+        out.printf("Paralelismo efectivo: %.2f | Ciclos/s: %.0f%n", getEffectiveParallelism(), getCyclesPerSecond());
+    }
+
+    private static String preview(BatchResult r) {
+        String text = r.getOutput();
+        boolean cut = text.length() > OUTPUT_PREVIEW;
+        if (cut) {
+            text = text.substring(0, OUTPUT_PREVIEW);
+        }
+        text = text.replace("\\", "\\\\").replace("\n", "\\n").replace("\r", "\\r").replace("\t", "\\t");
+        return "\"" + text + "\"" + (cut || r.isOutputTruncated() ? " ..." : "");
+    }
+
+    /**
+     * Guarda la salida capturada de cada trabajo en un archivo del directorio dado,
+     * llamado "NNN_programa.out" (NNN = posición del trabajo en el lote).
+     * @param directory Directorio destino; se crea si no existe.
+     * @throws IOException si no se puede escribir algún archivo.
+     */
+    public void writeOutputs(Path directory) throws IOException {
+        Files.createDirectories(directory);
+        for (int i = 0; i < results.size(); i++) {
+            BatchResult r = results.get(i);
+            String name = Path.of(r.getProgramPath()).getFileName().toString();
+            Files.writeString(directory.resolve(String.format("%03d_%s.out", i + 1, name)),
+                    r.getOutput(), StandardCharsets.UTF_8);
+        }
+    }
+}
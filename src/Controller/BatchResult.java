@@ -0,0 +1,40 @@
+package Controller;
+
+import Enums.BatchStatus;
+
+/**
+ * Resultado de un trabajo de ejecución por lotes. No guarda la CPU: solo los datos
+ * del informe, para que un lote grande no retenga la memoria de todas sus ejecuciones.
+ */
+public final class BatchResult {
+    private final BatchJob job;
+    private final BatchStatus status;
+    private final String message;     // Motivo de parada de la CPU, o error si el trabajo falló
+    private final long cycles;
+    private final long instructions;
+    private final long elapsedNanos;
+    private final String output;      // Contenido del dispositivo de salida
+    private final boolean outputTruncated;
+
+    BatchResult(BatchJob job, BatchStatus status, String message, long cycles, long instructions,
+                long elapsedNanos, String output, boolean outputTruncated) {
+        this.job = job;
+        this.status = status;
+        this.message = message;
+        this.cycles = cycles;
+        this.instructions = instructions;
+        this.elapsedNanos = elapsedNanos;
+        this.output = output;
+        this.outputTruncated = outputTruncated;
+    }
+
+    public BatchJob getJob() { return job; }
+    public String getProgramPath() { return job.getProgramPath(); }
+    public BatchStatus getStatus() { return status; }
+    public String getMessage() { return message; }
+    public long getCycles() { return cycles; }
+    public long getInstructions() { return instructions; }
+    public long getElapsedNanos() { return elapsedNanos; }
+    public String getOutput() { return output; }
+    public boolean isOutputTruncated() { return outputTruncated; }
+}
@@ -0,0 +1,168 @@
+package Controller;
+
+import Enums.BatchStatus;
+import Models.CPU;
+import Models.CaptureOutputDevice;
+import Models.IODevice;
+import Models.Memory;
+import Models.TextInputDevice;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+
+/**
+ * Ejecución por lotes: corre muchos programas independientes en paralelo, cada uno
+ * con su propia CPU, memoria y dispositivos, sobre un ForkJoinPool (con robo de trabajo)
+ * del tamaño de la máquina. Las CPUs no comparten estado mutable, así que el rendimiento
+ * crece con el número de núcleos.
+ * Cada trabajo tiene un presupuesto de ciclos y un tiempo máximo; su salida se captura en memoria.
+ */
+public class BatchRunner {
+    public static final long DEFAULT_TIMEOUT_MILLIS = 60_000L;
+    public static final int DEFAULT_MAX_OUTPUT_CHARS = 1 << 20;
+    private static final long SLICE_CYCLES = 100_000L; // Ciclos entre comprobaciones del tiempo máximo
+
+    private final int memorySize;
+    private final long maxCycles;
+    private final long timeoutMillis;
+    private final int parallelism;
+    private String controlMode = "WIRED";
+    private boolean blockTranslation = true;
+    private boolean jit = true;
+    private boolean fusion = true;
+    private int maxOutputChars = DEFAULT_MAX_OUTPUT_CHARS;
+
+    /**
+     * Crea un ejecutor con un hilo por procesador disponible.
+     * @see #BatchRunner(int, long, long, int)
+     */
+    public BatchRunner(int memorySize, long maxCycles, long timeoutMillis) {
+        this(memorySize, maxCycles, timeoutMillis, Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     * @param memorySize    Tamaño de la memoria de datos de cada trabajo.
+     * @param maxCycles     Máximo de micro-ciclos por trabajo.
+     * @param timeoutMillis Tiempo máximo de cada trabajo, en milisegundos.
+     * @param parallelism   Hilos del pool.
+     */
+    public BatchRunner(int memorySize, long maxCycles, long timeoutMillis, int parallelism) {
+        if (memorySize <= 0 || maxCycles <= 0 || timeoutMillis <= 0 || parallelism <= 0) {
+            throw new IllegalArgumentException("El tamaño de memoria, el límite de ciclos, el tiempo máximo "
+                    + "y el número de hilos deben ser positivos.");
+        }
+        this.memorySize = memorySize;
+        this.maxCycles = maxCycles;
+        this.timeoutMillis = timeoutMillis;
+        this.parallelism = parallelism;
+    }
+
+    /**
+     * @param mode "WIRED" o "MICRO".
+     * @throws IllegalArgumentException si el modo no es válido.
+     */
+    public void setControlMode(String mode) {
+        if (!"WIRED".equals(mode) && !"MICRO".equals(mode)) {
+            throw new IllegalArgumentException("Modo inválido: " + mode);
+        }
+        this.controlMode = mode;
+    }
+
+    public void setBlockTranslation(boolean enabled) { this.blockTranslation = enabled; }
+    public void setJitEnabled(boolean enabled) { this.jit = enabled; }
+    public void setFusionEnabled(boolean enabled) { this.fusion = enabled; }
+
+    /**
+     * @param maxChars Caracteres de salida que se guardan por trabajo; el resto se descarta.
+     */
+    public void setMaxOutputChars(int maxChars) {
+        if (maxChars < 0) {
+            throw new IllegalArgumentException("Capacidad de salida inválida: " + maxChars);
+        }
+        this.maxOutputChars = maxChars;
+    }
+
+    public int getParallelism() { return parallelism; }
+
+    /**
+     * Ejecuta todos los trabajos y espera a que terminen.
+     * @param jobs Trabajos a ejecutar.
+     * @return el informe, con los resultados en el mismo orden que los trabajos.
+     */
+    public BatchReport run(List<BatchJob> jobs) {
+        ForkJoinPool pool = new ForkJoinPool(parallelism);
+        long start = System.nanoTime();
+        try {
+            List<ForkJoinTask<BatchResult>> tasks = new ArrayList<>(jobs.size());
+            for (BatchJob job : jobs) {
+                tasks.add(pool.submit(() -> runJob(job)));
+            }
+            List<BatchResult> results = new ArrayList<>(jobs.size());
+            for (ForkJoinTask<BatchResult> task : tasks) {
+                results.add(task.join());
+            }
+            return new BatchReport(results, System.nanoTime() - start, parallelism);
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    /**
+     * Ejecuta un trabajo en el hilo actual. Nunca lanza: los errores quedan en el resultado.
+     */
+    BatchResult runJob(BatchJob job) {
+        long start = System.nanoTime();
+        CaptureOutputDevice output = new CaptureOutputDevice("Output_1", maxOutputChars);
+        CPU cpu = null;
+        try {
+            List<String> instructions = ProgramLoader.readProgram(job.getProgramPath());
+            String input = (job.getInputPath() != null)
+                    ? Files.readString(Path.of(job.getInputPath()), StandardCharsets.UTF_8)
+                    : "";
+            List<IODevice> devices = Arrays.asList(new TextInputDevice("Input_0", new StringReader(input)), output);
+            Memory memory = new Memory(memorySize);
+            cpu = new CPU(memory, memory, devices, instructions);
+            cpu.getControlType().switchMode(controlMode);
+            cpu.setBlockTranslation(blockTranslation);
+            cpu.setJitEnabled(jit);
+            cpu.setFusionEnabled(fusion);
+
+            BatchStatus status = execute(cpu, start + timeoutMillis * 1_000_000L);
+            String message = (status == BatchStatus.TIMEOUT)
+                    ? "Tiempo máximo de " + timeoutMillis + " ms agotado."
+                    : (status == BatchStatus.CYCLE_LIMIT) ? "Límite de ciclos alcanzado sin HLT." : cpu.getHaltReason();
+            return new BatchResult(job, status, message, cpu.getCycleCount(), cpu.getInstructionCount(),
+                    System.nanoTime() - start, output.getContents(), output.isTruncated());
+        } catch (IOException | RuntimeException e) {
+            long cycles = (cpu != null) ? cpu.getCycleCount() : 0;
+            long instructions = (cpu != null) ? cpu.getInstructionCount() : 0;
+            return new BatchResult(job, BatchStatus.FAILED, e.getClass().getSimpleName() + ": " + e.getMessage(),
+                    cycles, instructions, System.nanoTime() - start, output.getContents(), output.isTruncated());
+        }
+    }
+
+    /**
+     * Ejecuta la CPU por tramos hasta que se detenga, agote el presupuesto o pase el plazo.
+     */
+    private BatchStatus execute(CPU cpu, long deadline) {
+        long used = 0;
+        while (!cpu.isHalted() && used < maxCycles) {
+            if (System.nanoTime() - deadline > 0) {
+                return BatchStatus.TIMEOUT;
+            }
+            used += cpu.run(Math.min(SLICE_CYCLES, maxCycles - used));
+        }
+        if (!cpu.isHalted()) {
+            return BatchStatus.CYCLE_LIMIT;
+        }
+        return cpu.isHaltedByError() ? BatchStatus.ERROR : BatchStatus.HALTED;
+    }
+}
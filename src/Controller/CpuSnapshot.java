@@ -0,0 +1,158 @@
+package Controller;
+
+import Models.CPU;
+import Models.Memory;
+import Models.RegisterFile;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Copia inmutable del estado de la CPU que muestra la vista. La toma el hilo que ejecuta la CPU
+ * entre dos ciclos, así que es coherente aunque la vista la pinte mientras la CPU sigue avanzando.
+ * De la memoria solo se copia una ventana (las filas visibles en la vista), no la memoria entera.
+ */
+public final class CpuSnapshot {
+    /** Celdas de memoria, desde la dirección 0, que se copian si no se indica otra ventana. */
+    public static final int MEMORY_CELLS = 128;
+
+    private final int pc;
+    private final String ir;
+    private final boolean halted;
+    private final boolean zero;
+    private final boolean carry;
+    private final boolean sign;
+    private final boolean overflow;
+    private final int mbr;
+    private final int mar;
+    private final int acc;
+    private final String[] registerNames;        // Ordenados, sin ACC
+    private final int[] registerValues;
+    private final String[] registerDescriptions;
+    private final int[] memory;                  // Celdas [memoryStart, memoryStart + memory.length)
+    private final int memoryStart;
+    private final int memorySize;                // Tamaño total de la memoria copiada
+    private final long cycles;
+    private final long instructions;
+
+    /**
+     * Copia el estado dado y las primeras MEMORY_CELLS celdas de memoria.
+     * registers y memory pueden ser null si no están disponibles.
+     */
+    public CpuSnapshot(int pc, String ir, RegisterFile registers, Memory memory, boolean halted,
+                       boolean zero, boolean carry, boolean sign, boolean overflow, int mbr, int mar,
+                       long cycles, long instructions) {
+        this(pc, ir, registers, memory, 0, MEMORY_CELLS, halted, zero, carry, sign, overflow, mbr, mar,
+                cycles, instructions);
+    }
+
+    /**
+     * Copia el estado dado y la ventana de memoria [memoryStart, memoryStart + memoryLength),
+     * recortada al tamaño de la memoria. registers y memory pueden ser null si no están disponibles.
+     * @throws IllegalArgumentException si memoryStart o memoryLength son negativos.
+     */
+    public CpuSnapshot(int pc, String ir, RegisterFile registers, Memory memory, int memoryStart, int memoryLength,
+                       boolean halted, boolean zero, boolean carry, boolean sign, boolean overflow, int mbr, int mar,
+                       long cycles, long instructions) {
+        if (memoryStart < 0 || memoryLength < 0) {
+            throw new IllegalArgumentException("Ventana de memoria inválida: " + memoryStart + ", " + memoryLength);
+        }
+        this.pc = pc;
+        this.ir = ir;
+        this.halted = halted;
+        this.zero = zero;
+        this.carry = carry;
+        this.sign = sign;
+        this.overflow = overflow;
+        this.mbr = mbr;
+        this.mar = mar;
+        this.cycles = cycles;
+        this.instructions = instructions;
+        if (registers != null) {
+            List<String> names = new ArrayList<>(registers.getRegisterNames());
+            names.remove("ACC"); // La vista lo muestra aparte
+            Collections.sort(names);
+            this.acc = registers.read("ACC");
+            this.registerNames = names.toArray(new String[0]);
+            this.registerValues = new int[registerNames.length];
+            this.registerDescriptions = new String[registerNames.length];
+            for (int i = 0; i < registerNames.length; i++) {
+                RegisterFile.RegisterInfo info = registers.getRegisterInfo(registerNames[i]);
+                registerValues[i] = (info != null) ? info.value : 0;
+                registerDescriptions[i] = (info != null && info.description != null) ? info.description : "";
+            }
+        } else {
+            this.acc = 0;
+            this.registerNames = null;
+            this.registerValues = null;
+            this.registerDescriptions = null;
+        }
+        if (memory != null) {
+            this.memorySize = memory.getSize();
+            this.memoryStart = Math.min(memoryStart, memorySize);
+            this.memory = new int[Math.min(memoryLength, memorySize - this.memoryStart)];
+            memory.readBlock(this.memoryStart, this.memory, 0, this.memory.length);
+        } else {
+            this.memorySize = 0;
+            this.memoryStart = 0;
+            this.memory = null;
+        }
+    }
+
+    /**
+     * Toma una copia del estado de la CPU. Debe llamarse desde el hilo que la ejecuta
+     * (o con la CPU detenida).
+     */
+    public static CpuSnapshot capture(CPU cpu) {
+        return capture(cpu, 0, MEMORY_CELLS);
+    }
+
+    /**
+     * Como {@link #capture(CPU)}, copiando la ventana de memoria dada en lugar de las primeras celdas.
+     */
+    public static CpuSnapshot capture(CPU cpu, int memoryStart, int memoryLength) {
+        return new CpuSnapshot(cpu.getPCValue(), cpu.getIRValue(), cpu.getRegisterFile(), cpu.getMemory(),
+                memoryStart, memoryLength, cpu.isHalted(),
+                // Las banderas que consultan los saltos: las de la última CMP, no las de la última operación de la ALU
+                cpu.getFlags().isZero(), cpu.getFlags().isCarry(), cpu.getFlags().isSign(), cpu.getFlags().isOverflow(),
+                cpu.getMBR().get(), cpu.getMAR().get(),
+                cpu.getCycleCount(), cpu.getInstructionCount());
+    }
+
+    public int getPc() { return pc; }
+    public String getIr() { return ir; }
+    public boolean isHalted() { return halted; }
+    public boolean isZero() { return zero; }
+    public boolean isCarry() { return carry; }
+    public boolean isSign() { return sign; }
+    public boolean isOverflow() { return overflow; }
+    public int getMbr() { return mbr; }
+    public int getMar() { return mar; }
+    public long getCycles() { return cycles; }
+    public long getInstructions() { return instructions; }
+
+    /** @return true si la copia incluye el banco de registros. */
+    public boolean hasRegisters() { return registerNames != null; }
+    public int getAcc() { return acc; }
+    /** @return número de registros copiados, sin contar ACC. */
+    public int getRegisterCount() { return (registerNames != null) ? registerNames.length : 0; }
+    public String getRegisterName(int i) { return registerNames[i]; }
+    public int getRegisterValue(int i) { return registerValues[i]; }
+    public String getRegisterDescription(int i) { return registerDescriptions[i]; }
+
+    /** @return true si la copia incluye memoria. */
+    public boolean hasMemory() { return memory != null; }
+    /** @return tamaño total de la memoria (no solo de la ventana copiada). */
+    public int getMemorySize() { return memorySize; }
+    /** @return primera dirección copiada. */
+    public int getMemoryStart() { return memoryStart; }
+    /** @return número de celdas copiadas. */
+    public int getMemoryCells() { return (memory != null) ? memory.length : 0; }
+    /** @return true si la dirección está dentro de la ventana copiada. */
+    public boolean hasMemoryAt(int addr) {
+        return memory != null && addr >= memoryStart && addr - memoryStart < memory.length;
+    }
+    /** @return valor de la celda addr; debe estar dentro de la ventana copiada. */
+    public int getMemory(int addr) { return memory[addr - memoryStart]; }
+}
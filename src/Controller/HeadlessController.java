@@ -0,0 +1,334 @@
+package Controller;
+
+import Models.CPU;
+import Enums.PredictorType;
+import Enums.SmpModel;
+import Models.BranchPredictor;
+import Models.Cache;
+import Models.CacheConfig;
+import Models.IODevice;
+import Models.FrameAllocator;
+import Models.Memory;
+import Models.MemoryPort;
+import Models.Mmu;
+import Models.Multiprocessor;
+import Models.OutOfOrderConfig;
+import Models.OutOfOrderCpu;
+import Models.PageTable;
+import Models.PipelinedCpu;
+import Models.ProcessHost;
+import Models.Tlb;
+import Models.Tracer;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Controlador sin interfaz gráfica: carga programas desde archivo y los ejecuta
+ * hasta HLT a máxima velocidad, sin pausas entre ciclos.
+ * Cada programa se ejecuta en una CPU y una memoria nuevas.
+ */
+public class HeadlessController {
+    public static final int DEFAULT_MEMORY_SIZE = 2048;
+    public static final long DEFAULT_MAX_CYCLES = 100_000_000L;
+
+    private final int memorySize;
+    private final long maxCycles;
+    private final List<IODevice> ioDevices;
+    private Tracer tracer = Tracer.OFF; // Sin traza: ningún trabajo de formateo por ciclo
+    private String executionTracePath = null; // Archivo de traza binaria de la próxima ejecución
+    private String controlMode = "WIRED";     // Una instrucción por ciclo: máxima velocidad
+    private boolean blockTranslation = true;  // En WIRED, ejecutar bloques básicos traducidos
+    private boolean jit = true;               // Compilar a bytecode los bloques más ejecutados
+    private boolean fusion = true;            // Despachar pares de instrucciones como superinstrucciones
+    private List<CacheConfig> caches = Collections.emptyList(); // Jerarquía de cachés de datos (L1 primero)
+    private int pageSize = 0;                 // Memoria virtual con páginas de este tamaño (0 = direcciones físicas)
+    private int tlbEntries = Tlb.DEFAULT_ENTRIES;
+    private int tlbWays = Tlb.DEFAULT_WAYS;
+    private boolean pipelined = false;        // Ejecutar en el núcleo segmentado de cinco etapas
+    private boolean forwarding = true;        // Anticipación de operandos en el núcleo segmentado
+    private PredictorType predictorType = null; // Predictor de saltos; null usa el de cada núcleo
+    private int predictorBits = BranchPredictor.DEFAULT_TABLE_BITS;
+    private int btbEntries = 0;
+    private OutOfOrderConfig outOfOrder = null; // Núcleo fuera de orden; null si no se usa
+
+    /**
+     * @param memorySize Tamaño de la memoria de datos de cada ejecución.
+     * @param maxCycles  Máximo de micro-ciclos por programa (protege contra bucles infinitos).
+     * @param ioDevices  Dispositivos de E/S (0 = entrada, 1 = salida), compartidos por todas las ejecuciones.
+     */
+    public HeadlessController(int memorySize, long maxCycles, List<IODevice> ioDevices) {
+        if (memorySize <= 0 || maxCycles <= 0) {
+            throw new IllegalArgumentException("El tamaño de memoria y el límite de ciclos deben ser positivos.");
+        }
+        this.memorySize = memorySize;
+        this.maxCycles = maxCycles;
+        this.ioDevices = new ArrayList<>(ioDevices);
+    }
+
+    /**
+     * Define la traza que usarán las CPUs de las próximas ejecuciones.
+     * @param tracer Filtro de traza; null equivale a traza desactivada.
+     */
+    public void setTracer(Tracer tracer) {
+        this.tracer = (tracer != null) ? tracer : Tracer.OFF;
+    }
+
+    /**
+     * Define el modo de control de las CPUs de las próximas ejecuciones.
+     * @param mode "WIRED" (una instrucción por ciclo) o "MICRO" (una micro-operación por ciclo).
+     * @throws IllegalArgumentException si el modo no es válido.
+     */
+    public void setControlMode(String mode) {
+        if (!"WIRED".equals(mode) && !"MICRO".equals(mode)) {
+            throw new IllegalArgumentException("Modo inválido: " + mode);
+        }
+        this.controlMode = mode;
+    }
+
+    /**
+     * Activa o desactiva la traducción a bloques básicos en modo WIRED.
+     */
+    public void setBlockTranslation(boolean enabled) {
+        this.blockTranslation = enabled;
+    }
+
+    /**
+     * Activa o desactiva la compilación a bytecode de los bloques calientes.
+     * Solo tiene efecto con la traducción a bloques activada.
+     */
+    public void setJitEnabled(boolean enabled) {
+        this.jit = enabled;
+    }
+
+    /**
+     * Activa o desactiva la ejecución fusionada de superinstrucciones en los bloques traducidos.
+     */
+    public void setFusionEnabled(boolean enabled) {
+        this.fusion = enabled;
+    }
+
+    /**
+     * Define la jerarquía de cachés entre la CPU y la memoria de las próximas ejecuciones.
+     * @param levels Configuración de cada nivel, de L1 hacia la memoria; vacía para acceso directo.
+     */
+    public void setCaches(List<CacheConfig> levels) {
+        this.caches = new ArrayList<>(levels);
+    }
+
+    /**
+     * Activa la memoria virtual en las próximas ejecuciones: una {@link Mmu} con paginación
+     * bajo demanda traduce las direcciones de datos antes de la jerarquía de cachés.
+     * @param pageSize   Celdas por página (potencia de dos que divida el tamaño de memoria); 0 la desactiva.
+     * @param tlbEntries Entradas de la TLB.
+     * @param tlbWays    Vías por conjunto de la TLB.
+     * @throws IllegalArgumentException si la geometría de páginas o de TLB no es válida.
+     */
+    public void setVirtualMemory(int pageSize, int tlbEntries, int tlbWays) {
+        if (pageSize != 0) {
+            if (pageSize < 0 || (pageSize & (pageSize - 1)) != 0 || memorySize % pageSize != 0) {
+                throw new IllegalArgumentException("El tamaño de página " + pageSize
+                        + " debe ser potencia de dos y dividir el tamaño de memoria (" + memorySize + ").");
+            }
+            new Tlb(tlbEntries, tlbWays); // Valida la geometría antes de la primera ejecución
+        }
+        this.pageSize = pageSize;
+        this.tlbEntries = tlbEntries;
+        this.tlbWays = tlbWays;
+    }
+
+    /**
+     * Ejecuta los próximos programas en el núcleo segmentado ({@link PipelinedCpu}) en lugar del
+     * secuencial. El modo de control, los bloques, el JIT y la fusión no se aplican en ese núcleo.
+     * @param enabled    true para usar el núcleo segmentado.
+     * @param forwarding true para anticipar operandos entre etapas.
+     */
+    public void setPipeline(boolean enabled, boolean forwarding) {
+        this.pipelined = enabled;
+        this.forwarding = forwarding;
+    }
+
+    /**
+     * Ejecuta los próximos programas en el núcleo fuera de orden ({@link OutOfOrderCpu}).
+     * Tiene prioridad sobre {@link #setPipeline}.
+     * @param config Configuración del núcleo; null vuelve al núcleo secuencial o segmentado.
+     */
+    public void setOutOfOrder(OutOfOrderConfig config) {
+        this.outOfOrder = config;
+    }
+
+    /**
+     * Define el predictor de saltos de los núcleos segmentado y fuera de orden en las próximas ejecuciones.
+     * @param type       Algoritmo de predicción.
+     * @param tableBits  Bits de índice de la tabla de contadores.
+     * @param btbEntries Entradas de la BTB (0 sin BTB).
+     * @throws IllegalArgumentException si la configuración no es válida.
+     */
+    public void setBranchPredictor(PredictorType type, int tableBits, int btbEntries) {
+        new BranchPredictor(type, tableBits, btbEntries); // Valida antes de la primera ejecución
+        this.predictorType = type;
+        this.predictorBits = tableBits;
+        this.btbEntries = btbEntries;
+    }
+
+    /**
+     * Define el archivo de traza binaria de ejecución para la próxima llamada a {@link #runProgram}.
+     * @param filePath Ruta del archivo; null desactiva la traza binaria.
+     */
+    public void setExecutionTracePath(String filePath) {
+        this.executionTracePath = filePath;
+    }
+
+    /**
+     * Carga y ejecuta un programa hasta que la CPU se detenga o se agote el límite de ciclos.
+     * @param filePath Ruta del archivo de programa.
+     * @return El resultado de la ejecución.
+     * @throws IOException si no se puede leer el programa.
+     */
+    public RunResult runProgram(String filePath) throws IOException {
+        List<String> instructions = ProgramLoader.readProgram(filePath);
+        Memory memory = new Memory(memorySize);
+        PipelinedCpu pipeline = null;
+        OutOfOrderCpu ooo = null;
+        CPU cpu;
+        if (outOfOrder != null) {
+            ooo = new OutOfOrderCpu(memory, memory, ioDevices, instructions, outOfOrder);
+            if (predictorType != null) {
+                ooo.setBranchPredictor(new BranchPredictor(predictorType, predictorBits, btbEntries));
+            }
+            cpu = ooo.getCpu();
+        } else if (pipelined) {
+            pipeline = new PipelinedCpu(memory, memory, ioDevices, instructions);
+            pipeline.setForwarding(forwarding);
+            if (predictorType != null) {
+                pipeline.setBranchPredictor(new BranchPredictor(predictorType, predictorBits, btbEntries));
+            }
+            cpu = pipeline.getCpu();
+        } else {
+            cpu = new CPU(memory, memory, ioDevices, instructions);
+            cpu.getControlType().switchMode(controlMode);
+            cpu.setBlockTranslation(blockTranslation);
+            cpu.setJitEnabled(jit);
+            cpu.setFusionEnabled(fusion);
+        }
+        cpu.setTracer(tracer);
+        MemoryPort port = Cache.hierarchy(caches, memory);
+        if (pageSize > 0) {
+            int pages = memorySize / pageSize;
+            Mmu mmu = new Mmu(port, cpu.getInterruptManager(), new Tlb(tlbEntries, tlbWays), pageSize, new PageTable(pages), 0);
+            mmu.setDemandPaging(new FrameAllocator(pages));
+            port = mmu;
+        }
+        cpu.setMemoryPort(port);
+        if (executionTracePath != null) {
+            cpu.startExecutionTrace(executionTracePath);
+        }
+
+        long start = System.nanoTime();
+        try {
+            if (ooo != null) {
+                ooo.run(maxCycles);
+            } else if (pipeline != null) {
+                pipeline.run(maxCycles);
+            } else {
+                cpu.run(maxCycles);
+            }
+        } finally {
+            cpu.stopExecutionTrace();
+            flushDevices();
+        }
+        long elapsed = System.nanoTime() - start;
+        MemoryPort first = cpu.getMemoryPort();
+        if (first instanceof Mmu) {
+            first = ((Mmu) first).getNext();
+        }
+        if (first instanceof Cache) {
+            ((Cache) first).flush(); // El informe muestra la memoria con todas las escrituras
+        }
+        return new RunResult(filePath, cpu, pipeline, ooo, elapsed);
+    }
+
+    /**
+     * Entrega la salida retenida en los dispositivos: HLT ya la vuelca, pero no un programa
+     * que se detiene por error o por el límite de ciclos.
+     */
+    private void flushDevices() {
+        for (IODevice device : ioDevices) {
+            if (device != null) {
+                device.flush();
+            }
+        }
+    }
+
+    /**
+     * Ejecuta varios programas como procesos aislados en una sola memoria física de
+     * memorySize celdas: cada uno ve un espacio virtual propio del mismo tamaño y recibe
+     * marcos bajo demanda, con las páginas de {@link #setVirtualMemory} (o
+     * {@link Mmu#DEFAULT_PAGE_SIZE} si no está activada) y una TLB compartida.
+     * @param filePaths Rutas de los programas, uno por proceso.
+     * @return El resultado de cada proceso, en el mismo orden; el tiempo es el de toda la ejecución.
+     * @throws IOException si no se puede leer algún programa.
+     */
+    public List<RunResult> runProcesses(List<String> filePaths) throws IOException {
+        List<List<String>> programs = new ArrayList<>();
+        for (String filePath : filePaths) {
+            programs.add(ProgramLoader.readProgram(filePath));
+        }
+        int size = (pageSize > 0) ? pageSize : Math.min(Mmu.DEFAULT_PAGE_SIZE, memorySize);
+        ProcessHost host = new ProcessHost(new Memory(memorySize), programs, ioDevices,
+                size, memorySize / size, new Tlb(tlbEntries, tlbWays));
+        for (int i = 0; i < host.getProcessCount(); i++) {
+            host.getProcess(i).setTracer(tracer);
+            host.getProcess(i).getControlType().switchMode(controlMode);
+        }
+
+        long start = System.nanoTime();
+        host.run(maxCycles);
+        flushDevices();
+        long elapsed = System.nanoTime() - start;
+        List<RunResult> results = new ArrayList<>();
+        for (int i = 0; i < host.getProcessCount(); i++) {
+            results.add(new RunResult(filePaths.get(i), host.getProcess(i), elapsed));
+        }
+        return results;
+    }
+
+    /**
+     * Ejecuta un programa en un multiprocesador de varios núcleos con memoria compartida.
+     * Todos los núcleos ejecutan el mismo programa; cada uno encuentra su id en el registro CORE.
+     * @param filePath   Ruta del archivo de programa.
+     * @param cores      Número de núcleos.
+     * @param cacheLines Líneas de la caché privada de cada núcleo.
+     * @param lineSize   Celdas por línea de caché.
+     * @param model      Modelo de temporización: intercalado round-robin o por épocas (ver {@link SmpModel}).
+     * @param epoch      Instrucciones por núcleo y época (solo con {@link SmpModel#EPOCH}).
+     * @param threads    Hilos del anfitrión (solo con {@link SmpModel#EPOCH}).
+     * @return El resultado de la ejecución.
+     * @throws IOException si no se puede leer el programa.
+     */
+    public SmpResult runSmp(String filePath, int cores, int cacheLines, int lineSize,
+                            SmpModel model, int epoch, int threads) throws IOException {
+        if (cores <= 0 || (model == SmpModel.EPOCH && threads <= 0)) {
+            throw new IllegalArgumentException("Número de núcleos o de hilos inválido.");
+        }
+        List<String> instructions = ProgramLoader.readProgram(filePath);
+        Multiprocessor smp = new Multiprocessor(new Memory(memorySize), Collections.nCopies(cores, instructions),
+                ioDevices, cacheLines, lineSize);
+        for (int i = 0; i < cores; i++) {
+            smp.getCore(i).setTracer(tracer);
+            smp.getCore(i).getControlType().switchMode(controlMode);
+        }
+
+        long start = System.nanoTime();
+        if (model == SmpModel.EPOCH) {
+            smp.setEpoch(epoch);
+            smp.runEpochs(maxCycles, threads);
+        } else {
+            smp.run(maxCycles);
+        }
+        flushDevices();
+        return new SmpResult(filePath, smp, System.nanoTime() - start);
+    }
+}
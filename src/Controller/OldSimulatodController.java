@@ -147,10 +147,10 @@ public class OldSimulatodController {
                 cpuModel.getRegisterFile(),       // RegisterFile (la vista puede usar sus métodos)
                 cpuModel.getMemory(),             // Memory (la vista puede usar sus métodos)
                 cpuModel.isHalted(),              // boolean
-                cpuModel.getAlu().isZero(),       // boolean
-                cpuModel.getAlu().isCarry(),      // boolean
-                cpuModel.getAlu().isSign(),       // boolean
-                cpuModel.getAlu().isOverflow(),   // boolean
+                cpuModel.getFlags().isZero(),     // boolean
+                cpuModel.getFlags().isCarry(),    // boolean
+                cpuModel.getFlags().isSign(),     // boolean
+                cpuModel.getFlags().isOverflow(), // boolean
                 // Podrías añadir MBR y MAR si los quieres mostrar:
                 cpuModel.getMBR().get(),          // int
                 cpuModel.getMAR().get()           // int
@@ -0,0 +1,36 @@
+package Controller;
+
+import java.io.BufferedReader;
+import java.io.FileReader;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Lectura de archivos de programa, compartida por la interfaz gráfica y el modo sin interfaz.
+ */
+public final class ProgramLoader {
+
+    private ProgramLoader() {
+    }
+
+    /**
+     * Lee las instrucciones de un archivo de programa.
+     * Se ignoran las líneas vacías y las que empiezan con "//".
+     * @param filePath Ruta del archivo de programa.
+     * @return Lista de instrucciones (sin espacios al inicio/fin).
+     * @throws IOException si no se puede leer el archivo.
+     */
+    public static List<String> readProgram(String filePath) throws IOException {
+        List<String> instructions = new ArrayList<>();
+        try (BufferedReader br = new BufferedReader(new FileReader(filePath))) {
+            String line;
+            while ((line = br.readLine()) != null) {
+                if (!line.trim().isEmpty() && !line.trim().startsWith("//")) {
+                    instructions.add(line.trim());
+                }
+            }
+        }
+        return instructions;
+    }
+}
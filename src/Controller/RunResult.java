@@ -0,0 +1,185 @@
+package Controller;
+
+import Models.BranchPredictor;
+import Models.CPU;
+import Models.Cache;
+import Models.Memory;
+import Models.MemoryPort;
+import Models.Mmu;
+import Models.OutOfOrderCpu;
+import Models.PipelinedCpu;
+import Models.Tlb;
+import Models.RegisterFile;
+import Models.Superinstruction;
+
+import java.io.PrintStream;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Resultado de ejecutar un programa sin interfaz gráfica: estado final de la CPU,
+ * ciclos consumidos y tiempo de ejecución.
+ */
+public class RunResult {
+    private static final int MEMORY_CELLS_SHOWN = 16; // Celdas no nulas que se listan en el resumen
+    private static final int WORST_BRANCHES_SHOWN = 5; // Saltos peor predichos que se listan
+
+    private final String programPath;
+    private final CPU cpu;
+    private final PipelinedCpu pipeline; // null si no se ejecutó en el núcleo segmentado
+    private final OutOfOrderCpu outOfOrder; // null si no se ejecutó en el núcleo fuera de orden
+    private final long elapsedNanos;
+
+    public RunResult(String programPath, CPU cpu, long elapsedNanos) {
+        this(programPath, cpu, null, null, elapsedNanos);
+    }
+
+    /**
+     * @param pipeline   Núcleo segmentado que ejecutó el programa sobre cpu, o null.
+     * @param outOfOrder Núcleo fuera de orden que ejecutó el programa sobre cpu, o null.
+     */
+    public RunResult(String programPath, CPU cpu, PipelinedCpu pipeline, OutOfOrderCpu outOfOrder, long elapsedNanos) {
+        this.programPath = programPath;
+        this.cpu = cpu;
+        this.pipeline = pipeline;
+        this.outOfOrder = outOfOrder;
+        this.elapsedNanos = elapsedNanos;
+    }
+
+    public String getProgramPath() { return programPath; }
+    public CPU getCpu() { return cpu; }
+    public PipelinedCpu getPipeline() { return pipeline; }
+    public OutOfOrderCpu getOutOfOrder() { return outOfOrder; }
+    public boolean isHalted() { return cpu.isHalted(); }
+    public String getHaltReason() { return cpu.getHaltReason(); }
+    public long getCycles() { return cpu.getCycleCount(); }
+    public long getInstructions() { return cpu.getInstructionCount(); }
+    public long getElapsedNanos() { return elapsedNanos; }
+
+    /**
+     * @return ciclos por segundo de la ejecución (0 si no hubo tiempo medible).
+     */
+    public double getCyclesPerSecond() {
+        return (elapsedNanos > 0) ? getCycles() * 1e9 / elapsedNanos : 0.0;
+    }
+
+    /**
+     * Imprime el informe del programa: estado, ciclos, registros y resumen de memoria.
+     * @param out Destino del informe.
+     */
+    public void print(PrintStream out) {
+        out.println("=== " + programPath + " ===");
+        out.println("Estado: " + (isHalted() ? getHaltReason() : "Límite de ciclos alcanzado sin HLT."));
+        out.printf("Ciclos: %d | Instrucciones: %d | Tiempo: %.3f ms | Ciclos/s: %.0f%n",
+                getCycles(), getInstructions(), elapsedNanos / 1e6, getCyclesPerSecond());
+        if (pipeline != null) {
+            StringBuilder stalls = new StringBuilder();
+            for (int cause = 0; cause < PipelinedCpu.STALL_CAUSES; cause++) {
+                stalls.append(String.format(" %s %d;", PipelinedCpu.stallCauseName(cause), pipeline.getStallCycles(cause)));
+            }
+            out.printf("Cauce (%s anticipación): %d ciclos, CPI %.2f (secuencial: %d ciclos, %.2fx) | Paradas:%s"
+                            + " vaciados: %d (%d instrucciones descartadas)%n",
+                    pipeline.isForwarding() ? "con" : "sin", pipeline.getCycleCount(), pipeline.getCpi(), getCycles(),
+                    (pipeline.getCycleCount() > 0) ? (double) getCycles() / pipeline.getCycleCount() : 0.0,
+                    stalls, pipeline.getFlushCount(), pipeline.getFlushedInstructions());
+            printPredictor(out, pipeline.getBranchPredictor(), pipeline.getCycleCount());
+        }
+        if (outOfOrder != null) {
+            StringBuilder stalls = new StringBuilder();
+            for (int cause = 0; cause < OutOfOrderCpu.STALL_CAUSES; cause++) {
+                stalls.append(String.format(" %s %d;", OutOfOrderCpu.stallCauseName(cause), outOfOrder.getStallCycles(cause)));
+            }
+            out.printf("Fuera de orden: %d ciclos, IPC %.2f (secuencial: %d ciclos, %.2fx) | ROB: media %.1f, máximo %d de %d%n",
+                    outOfOrder.getCycleCount(), outOfOrder.getIpc(), getCycles(),
+                    (outOfOrder.getCycleCount() > 0) ? (double) getCycles() / outOfOrder.getCycleCount() : 0.0,
+                    outOfOrder.getAverageRobOccupancy(), outOfOrder.getPeakRobOccupancy(), outOfOrder.getConfig().robSize);
+            out.println("Despacho detenido (ciclos):" + stalls);
+            printPredictor(out, outOfOrder.getBranchPredictor(), outOfOrder.getCycleCount());
+        }
+        if (cpu.getCompiledBlockCount() > 0) {
+            out.printf("JIT: %d bloques compilados | Instrucciones compiladas: %d | interpretadas: %d%n",
+                    cpu.getCompiledBlockCount(), cpu.getCompiledInstructionCount(), cpu.getInterpretedInstructionCount());
+        }
+        MemoryPort first = cpu.getMemoryPort();
+        Mmu mmu = (first instanceof Mmu) ? (Mmu) first : null;
+        if (mmu != null) {
+            Tlb tlb = mmu.getTlb();
+            long tlbMisses = mmu.getTableWalks();
+            long translations = mmu.getTranslations();
+            out.printf("MMU: páginas de %d celdas | %d traducciones, %d fallos de TLB (%.1f%% aciertos) | %d fallos de página | %d páginas residentes%n",
+                    mmu.getPageSize(), translations, tlbMisses,
+                    (translations > 0) ? (translations - tlbMisses) * 100.0 / translations : 0.0,
+                    mmu.getPageFaults(), mmu.getPageTable().getMappedCount());
+            out.printf("TLB: %d entradas, %d vías | %d aciertos, %d fallos (%.1f%%) | %d reemplazos%n",
+                    tlb.getEntryCount(), tlb.getWays(), tlb.getHits(), tlb.getMisses(), tlb.getHitRate() * 100,
+                    tlb.getEvictions());
+            first = mmu.getNext();
+        }
+        for (MemoryPort port = first; port instanceof Cache; port = ((Cache) port).getNext()) {
+            Cache cache = (Cache) port;
+            out.printf("Caché %s: %d lecturas, %d escrituras | %d aciertos, %d fallos (%.1f%%) | %d desalojos, %d volcados%n",
+                    cache.getConfig().name, cache.getReads(), cache.getWrites(), cache.getHits(), cache.getMisses(),
+                    cache.getHitRate() * 100, cache.getEvictions(), cache.getWriteBacks());
+        }
+        if (cpu.getMemoryStallCycles() > 0) {
+            out.printf("Ciclos de espera por memoria: %d%n", cpu.getMemoryStallCycles());
+        }
+        StringBuilder fusions = new StringBuilder();
+        for (int kind = Superinstruction.NONE + 1; kind < Superinstruction.COUNT; kind++) {
+            if (cpu.getFusionSiteCount(kind) > 0) {
+                fusions.append(String.format(" %s x%d (%d ejecuciones);", Superinstruction.name(kind),
+                        cpu.getFusionSiteCount(kind), cpu.getFusedDispatchCount(kind)));
+            }
+        }
+        if (fusions.length() > 0) {
+            out.println("Superinstrucciones:" + fusions + " despachos ahorrados: " + cpu.getSavedDispatchCount());
+        }
+
+        RegisterFile registers = cpu.getRegisterFile();
+        List<String> names = new ArrayList<>(registers.getRegisterNames());
+        Collections.sort(names);
+        out.println("Registros:");
+        for (String name : names) {
+            RegisterFile.RegisterInfo info = registers.getRegisterInfo(name);
+            String description = info.description != null ? info.description : "";
+            out.printf("  %-4s: %-8d %s%n", name, info.value, description);
+        }
+
+        // Con memoria virtual se muestra el espacio del proceso, no la memoria física compartida.
+        Memory memory = cpu.getMemory();
+        int size = (mmu != null) ? mmu.getSize() : memory.getSize();
+        int nonZero = 0;
+        StringBuilder cells = new StringBuilder();
+        for (int addr = 0; addr < size; addr++) {
+            int physical = (mmu != null) ? mmu.physicalAddress(addr) : addr;
+            int value = (physical >= 0) ? memory.read(physical) : 0;
+            if (value != 0) {
+                if (nonZero < MEMORY_CELLS_SHOWN) {
+                    cells.append(String.format("  [%04X]: %d%n", addr, value));
+                }
+                nonZero++;
+            }
+        }
+        out.printf("Memoria: %d de %d celdas distintas de cero%n", nonZero, size);
+        out.print(cells);
+        if (nonZero > MEMORY_CELLS_SHOWN) {
+            out.println("  ... (" + (nonZero - MEMORY_CELLS_SHOWN) + " más)");
+        }
+    }
+
+    /** Precisión del predictor de saltos, ciclos perdidos y saltos peor predichos. */
+    private void printPredictor(PrintStream out, BranchPredictor predictor, long cycles) {
+        if (predictor.getBranchCount() == 0) {
+            return;
+        }
+        out.printf("Predictor %s (BTB %d, %d aciertos, %d fallos): %d saltos, %.1f%% acierto | %d ciclos perdidos (%.1f%% del total)%n",
+                predictor.getType(), predictor.getBtbEntries(), predictor.getBtbHits(), predictor.getBtbMisses(),
+                predictor.getBranchCount(), predictor.getAccuracy() * 100, predictor.getPenaltyCycles(),
+                (cycles > 0) ? predictor.getPenaltyCycles() * 100.0 / cycles : 0.0);
+        for (int pc : predictor.worstBranches(WORST_BRANCHES_SHOWN)) {
+            out.printf("  [%04d] %-20s %d ejecuciones, %.1f%% acierto, %d ciclos perdidos%n", pc, cpu.getInstructionAt(pc),
+                    predictor.getExecutions(pc), predictor.getAccuracy(pc) * 100, predictor.getPenaltyCycles(pc));
+        }
+    }
+}
@@ -1,21 +1,34 @@
 package Controller;
 
 import Models.CPU;
+import Models.GuiTextInputDevice;
 import Models.RegisterFile; // For type hint in refreshDisplay if needed
 import Models.Memory;     // For type hint in refreshDisplay if needed
 import View.SimulatorView;
 
-import java.io.BufferedReader;
-import java.io.FileReader;
+import javax.swing.SwingUtilities;
 import java.io.IOException;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
 // No se necesita Map aquí a menos que el controlador mismo manipule mapas de microprogramas.
 
 public class SimulatorController {
+    public static final int DEFAULT_FRAME_RATE = 30; // Refrescos de la vista por segundo durante Run
+    private static final int RUN_BATCH = 4096;       // Ciclos entre consultas al reloj a velocidad máxima
+
     private CPU cpuModel;
     private SimulatorView mainView;
     private List<String> lastLoadedProgram = new ArrayList<>(); // Para la función de reset
+    private GuiTextInputDevice inputDevice = null; // Cola de entrada que llena la vista
+    private volatile Thread worker = null;         // Hilo de runFullExecution, si está en marcha
+    private volatile long targetRate = 0;          // Ciclos por segundo de Run; 0 = sin límite
+    private volatile int frameRate = DEFAULT_FRAME_RATE;
+    private final AtomicReference<CpuSnapshot> pendingFrame = new AtomicReference<>(); // Último estado sin pintar
+    private final StringBuilder pendingOutput = new StringBuilder(); // Salida del programa aún no enviada a la vista
+    private volatile int memoryWindowStart = 0;    // Celdas de memoria que copia cada refresco (las visibles)
+    private volatile int memoryWindowLength = CpuSnapshot.MEMORY_CELLS;
 
     public SimulatorController(CPU model, SimulatorView view) {
         this.cpuModel = model;
@@ -24,19 +37,65 @@ public class SimulatorController {
         updateView();
     }
 
+    /**
+     * Fija la velocidad de Run; se aplica también a una ejecución en curso.
+     * @param cyclesPerSecond Ciclos por segundo; 0 para ejecutar sin límite.
+     * @throws IllegalArgumentException si es negativo.
+     */
+    public void setTargetRate(long cyclesPerSecond) {
+        if (cyclesPerSecond < 0) {
+            throw new IllegalArgumentException("Velocidad inválida: " + cyclesPerSecond + " ciclos/s.");
+        }
+        this.targetRate = cyclesPerSecond;
+    }
+
+    /**
+     * Fija cuántas veces por segundo, como máximo, se refresca la vista durante Run.
+     * @throws IllegalArgumentException si no es positivo.
+     */
+    public void setFrameRate(int framesPerSecond) {
+        if (framesPerSecond <= 0) {
+            throw new IllegalArgumentException("Refrescos por segundo inválidos: " + framesPerSecond);
+        }
+        this.frameRate = framesPerSecond;
+    }
+
+    /**
+     * Fija qué celdas de memoria se copian en cada refresco: las filas que la vista tiene a la vista.
+     * Con la CPU parada se refresca enseguida; durante Run, en el próximo refresco.
+     * @throws IllegalArgumentException si start o length son negativos.
+     */
+    public void setMemoryWindow(int start, int length) {
+        if (start < 0 || length < 0) {
+            throw new IllegalArgumentException("Ventana de memoria inválida: " + start + ", " + length);
+        }
+        if (start == memoryWindowStart && length == memoryWindowLength) {
+            return;
+        }
+        memoryWindowStart = start;
+        memoryWindowLength = length;
+        Thread running = worker;
+        if (running == null || !running.isAlive()) {
+            publishFrame(); // Diferido: se llama mientras la vista se está pintando o desplazando
+        }
+    }
+
+    /**
+     * Define el dispositivo de entrada que la vista llena con {@link #provideInput(String)}.
+     * Antes de cada lectura de la CPU, la ejecución espera a que tenga datos.
+     */
+    public void setInputDevice(GuiTextInputDevice device) {
+        this.inputDevice = device;
+    }
+
     /**
      * Carga instrucciones desde un archivo en la CPU y la resetea.
      * @param filePath Ruta del archivo de programa.
      */
     public void loadProgramFromFile(String filePath) {
-        List<String> instructions = new ArrayList<>();
-        try (BufferedReader br = new BufferedReader(new FileReader(filePath))) {
-            String line;
-            while ((line = br.readLine()) != null) {
-                if (!line.trim().isEmpty() && !line.trim().startsWith("//")) {
-                    instructions.add(line.trim());
-                }
-            }
+        List<String> instructions;
+        try {
+            instructions = ProgramLoader.readProgram(filePath);
         } catch (IOException e) {
             mainView.showMessage("Error al leer el archivo de programa: " + e.getMessage());
             return;
@@ -48,6 +107,7 @@ public class SimulatorController {
         }
 
         this.lastLoadedProgram = new ArrayList<>(instructions); // Guardar para el reset
+        stopWorker();
         cpuModel.loadNewProgram(instructions); // Usa el método en CPU que resetea y carga
         mainView.showMessage("Programa cargado desde: " + filePath + " (" + instructions.size() + " instrucciones)");
         updateView(); // Actualizar la vista para reflejar el estado reseteado y listo
@@ -58,6 +118,10 @@ public class SimulatorController {
      */
     public void stepExecution() {
         if (!cpuModel.isHalted()) {
+            if (mustWaitForInput()) {
+                mainView.showMessage("La CPU espera entrada: escríbala en el campo Entrada y pulse Enviar.");
+                return;
+            }
             cpuModel.executeCycle();
             updateView(); // Actualizar la vista después de cada ciclo
         } else {
@@ -67,6 +131,9 @@ public class SimulatorController {
 
     /**
      * Ejecuta la simulación completa en un hilo separado para no bloquear la GUI.
+     * La CPU avanza a la velocidad de {@link #setTargetRate(long)} (por defecto, sin límite) y la
+     * vista se refresca como mucho {@link #setFrameRate(int)} veces por segundo con una copia del
+     * estado tomada entre ciclos; si la vista no pintó aún la anterior, esta la reemplaza.
      */
     public void runFullExecution() {
         if (cpuModel.isHalted()) {
@@ -77,21 +144,58 @@ public class SimulatorController {
         // Deshabilitar botones mientras corre para evitar múltiples ejecuciones
         mainView.setExecutionControlsEnabled(false);
 
-        new Thread(() -> {
-            while (!cpuModel.isHalted()) {
-                cpuModel.executeCycle();
-                // Para actualizar la GUI desde otro hilo, usa SwingUtilities.invokeLater
-                javax.swing.SwingUtilities.invokeLater(this::updateView);
-                try {
-                    Thread.sleep(20); // Pequeña pausa para visualización (ajustable)
-                } catch (InterruptedException e) {
-                    Thread.currentThread().interrupt(); // Restaurar estado de interrupción
-                    javax.swing.SwingUtilities.invokeLater(() -> mainView.showMessage("Ejecución interrumpida."));
-                    break; // Salir del bucle si el hilo es interrumpido
+        worker = new Thread(() -> {
+            long frameInterval = 1_000_000_000L / frameRate;
+            long nextFrame = System.nanoTime() + frameInterval;
+            long pacedRate = -1;  // Ritmo con el que se calculan start y executed
+            long start = 0;
+            long executed = 0;    // Ciclos ejecutados desde start
+            try {
+                while (!cpuModel.isHalted()) {
+                    if (mustWaitForInput()) {
+                        // Aparcado sin consumir CPU hasta que la vista envíe entrada
+                        publishFrame();
+                        SwingUtilities.invokeLater(() -> mainView.setWaitingForInput(true));
+                        try {
+                            inputDevice.awaitInput();
+                        } finally {
+                            SwingUtilities.invokeLater(() -> mainView.setWaitingForInput(false));
+                        }
+                        pacedRate = -1; // El tiempo de espera no cuenta para el ritmo
+                    }
+                    long rate = targetRate;
+                    if (rate != pacedRate) {
+                        pacedRate = rate;
+                        start = System.nanoTime();
+                        executed = 0;
+                    }
+                    int batch = (rate > 0) ? 1 : RUN_BATCH;
+                    for (int i = 0; i < batch && !cpuModel.isHalted() && !mustWaitForInput(); i++) {
+                        cpuModel.executeCycle();
+                        executed++;
+                    }
+                    long now = System.nanoTime();
+                    if (rate > 0) {
+                        long due = start + executed * 1_000_000_000L / rate;
+                        if (due > now) {
+                            TimeUnit.NANOSECONDS.sleep(due - now);
+                            now = due;
+                        }
+                    }
+                    if (now >= nextFrame) {
+                        publishFrame();
+                        nextFrame = now + frameInterval;
+                    }
+                    if (Thread.interrupted()) {
+                        throw new InterruptedException();
+                    }
                 }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt(); // Restaurar estado de interrupción
+                SwingUtilities.invokeLater(() -> mainView.showMessage("Ejecución interrumpida."));
             }
             // Cuando termina el bucle (halted o interrumpido)
-            javax.swing.SwingUtilities.invokeLater(() -> {
+            SwingUtilities.invokeLater(() -> {
                 if (cpuModel.isHalted()) {
                     // Obtenemos el mensaje específico desde la CPU
                     mainView.showMessage(cpuModel.getHaltReason());
@@ -99,7 +203,50 @@ public class SimulatorController {
                 updateView();
                 mainView.setExecutionControlsEnabled(true);
             });
-        }).start();
+        });
+        worker.start();
+    }
+
+    /**
+     * Desde el hilo de Run (o con la CPU parada): copia el estado y lo deja para la vista. Solo se encola un
+     * refresco si no había ya uno pendiente; los estados intermedios se descartan.
+     */
+    private void publishFrame() {
+        if (pendingFrame.getAndSet(capture()) == null) {
+            SwingUtilities.invokeLater(() -> {
+                CpuSnapshot frame = pendingFrame.getAndSet(null);
+                if (frame != null) {
+                    render(frame);
+                }
+            });
+        }
+    }
+
+    /** Copia el estado con la ventana de memoria que la vista tiene a la vista. */
+    private CpuSnapshot capture() {
+        return CpuSnapshot.capture(cpuModel, memoryWindowStart, memoryWindowLength);
+    }
+
+    /** @return true si el próximo ciclo lee entrada y la cola del dispositivo está vacía. */
+    private boolean mustWaitForInput() {
+        return inputDevice != null && cpuModel.readsInputNext() && !inputDevice.isReady();
+    }
+
+    /** Detiene la ejecución en curso (también si está esperando entrada) antes de recargar la CPU. */
+    private void stopWorker() {
+        Thread running = worker;
+        if (running != null && running.isAlive()) {
+            running.interrupt();
+            try {
+                running.join();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        worker = null;
+        if (inputDevice != null) {
+            inputDevice.clear();
+        }
     }
 
     /**
@@ -108,21 +255,29 @@ public class SimulatorController {
     public void resetSimulation() {
         // Recargar el último programa conocido o un estado vacío si no hay ninguno.
         // Si lastLoadedProgram está vacío, loadNewProgram lo manejará creando una lista vacía.
+        stopWorker();
         cpuModel.loadNewProgram(new ArrayList<>(lastLoadedProgram));
         mainView.showMessage("Simulación reseteada. PC en 0. Programa recargado (si aplica).");
         updateView();
     }
 
     /**
-     * Pide entrada al usuario a través de la vista.
-     * Esta es una implementación simple y bloqueante.
-     * @param prompt Mensaje para el usuario.
-     * @return La entrada del usuario o null si se cancela.
+     * Entrega a la CPU el texto que el usuario envió desde la vista, sin bloquear.
+     * Un bloque de varias líneas se encola de una vez.
+     * @param text Texto a encolar.
+     * @return cuántos caracteres se aceptaron (menos que text.length() si la cola está llena).
      */
-    public String requestInputFromView(String prompt) {
-        // Esta función se llamaría desde un GuiInputDialog que a su vez es llamado por la CPU
-        // cuando encuentra una instrucción INPUT_CHAR.
-        return mainView.promptForInput(prompt);
+    public int provideInput(String text) {
+        return (inputDevice != null) ? inputDevice.offer(text) : 0;
+    }
+
+    /**
+     * Marca el fin de la entrada: las lecturas que encuentren la cola vacía reciben -1.
+     */
+    public void endInput() {
+        if (inputDevice != null) {
+            inputDevice.endInput();
+        }
     }
 
     /**
@@ -132,29 +287,42 @@ public class SimulatorController {
     public void displayOutputInView(char character) {
         // Esta función se llamaría desde un GuiOutputDialog que a su vez es llamado por la CPU
         // cuando encuentra una instrucción OUTPUT_CHAR.
-        mainView.appendOutput(String.valueOf(character));
+        // Se acumula y llega a la vista junto con el próximo refresco
+        synchronized (pendingOutput) {
+            pendingOutput.append(character);
+        }
+    }
+
+    /** Envía a la vista la salida acumulada. */
+    private void flushOutput() {
+        String text;
+        synchronized (pendingOutput) {
+            if (pendingOutput.length() == 0) {
+                return;
+            }
+            text = pendingOutput.toString();
+            pendingOutput.setLength(0);
+        }
+        mainView.appendOutput(text);
     }
 
     /**
      * Obtiene el estado actual de la CPU y le dice a la vista que se actualice.
+     * Solo con la CPU parada o desde el hilo que la ejecuta; durante Run se usa {@link #publishFrame()}.
      */
     private void updateView() {
         if (cpuModel == null || mainView == null) return; // Salvaguarda
+        pendingFrame.set(null); // Un refresco pendiente mostraría un estado anterior
+        render(capture());
+    }
 
-        // Usar los getters que añadimos a CPU.java
-        mainView.refreshDisplay(
-                cpuModel.getPCValue(),            // int
-                cpuModel.getIRValue(),            // String
-                cpuModel.getRegisterFile(),       // RegisterFile (la vista puede usar sus métodos)
-                cpuModel.getMemory(),             // Memory (la vista puede usar sus métodos)
-                cpuModel.isHalted(),              // boolean
-                cpuModel.getAlu().isZero(),       // boolean
-                cpuModel.getAlu().isCarry(),      // boolean
-                cpuModel.getAlu().isSign(),       // boolean
-                cpuModel.getAlu().isOverflow(),   // boolean
-                // Podrías añadir MBR y MAR si los quieres mostrar:
-                cpuModel.getMBR().get(),          // int
-                cpuModel.getMAR().get()           // int
-        );
-    }
-}
\ No newline at end of file
+    /** Pinta una copia del estado y la salida acumulada (en el hilo de eventos de Swing). */
+    private void render(CpuSnapshot state) {
+        mainView.refreshDisplay(state);
+        flushOutput();
+        Thread running = worker;
+        if (running != null && running.isAlive()) {
+            mainView.setExecutionControlsEnabled(false); // Run sigue en marcha
+        }
+    }
+}
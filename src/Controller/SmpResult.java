@@ -0,0 +1,78 @@
+package Controller;
+
+import Enums.SmpModel;
+import Models.CPU;
+import Models.CoherenceBus;
+import Models.CoherentCache;
+import Models.Memory;
+import Models.Multiprocessor;
+
+import java.io.PrintStream;
+
+/**
+ * Resultado de ejecutar un programa en el multiprocesador: estado de cada núcleo,
+ * aciertos y fallos de su caché, y tráfico de coherencia del bus.
+ */
+public class SmpResult {
+    private static final int MEMORY_CELLS_SHOWN = 16;
+
+    private final String programPath;
+    private final Multiprocessor smp;
+    private final long elapsedNanos;
+
+    public SmpResult(String programPath, Multiprocessor smp, long elapsedNanos) {
+        this.programPath = programPath;
+        this.smp = smp;
+        this.elapsedNanos = elapsedNanos;
+    }
+
+    public String getProgramPath() { return programPath; }
+    public Multiprocessor getMultiprocessor() { return smp; }
+    public long getElapsedNanos() { return elapsedNanos; }
+
+    /**
+     * Imprime el informe: una línea por núcleo, el tráfico del bus y las celdas no nulas
+     * de la memoria compartida (tras volcar las cachés).
+     * @param out Destino del informe.
+     */
+    public void print(PrintStream out) {
+        out.printf("=== %s (%d núcleos) ===%n", programPath, smp.getCoreCount());
+        if (smp.getModel() == SmpModel.EPOCH) {
+            out.printf("Modelo: épocas de hasta %d instrucciones por núcleo (intercalación gruesa: el tráfico de coherencia"
+                    + " no es comparable con el modelo intercalado)%n", smp.getEpoch());
+        } else {
+            out.printf("Modelo: intercalado round-robin (%d ciclo(s) por turno)%n", smp.getQuantum());
+        }
+        for (int i = 0; i < smp.getCoreCount(); i++) {
+            CPU core = smp.getCore(i);
+            CoherentCache cache = smp.getCache(i);
+            out.printf("Núcleo %d: %s%n", i, core.isHalted() ? core.getHaltReason() : "Límite de ciclos alcanzado sin HLT.");
+            out.printf("  Ciclos: %d | Instrucciones: %d | Caché: %d aciertos, %d fallos%n",
+                    core.getCycleCount(), core.getInstructionCount(), cache.getHits(), cache.getMisses());
+        }
+        CoherenceBus bus = smp.getBus();
+        out.printf("Bus: %d transacciones | BusRd: %d | BusRdX: %d | BusUpgr: %d | Invalidaciones: %d | Volcados: %d%n",
+                bus.getTransactionCount(), bus.getBusReads(), bus.getBusReadExclusives(), bus.getBusUpgrades(),
+                bus.getInvalidations(), bus.getWriteBacks());
+        out.printf("Tiempo: %.3f ms%n", elapsedNanos / 1e6);
+
+        smp.flushCaches();
+        Memory memory = smp.getMemory();
+        int nonZero = 0;
+        StringBuilder cells = new StringBuilder();
+        for (int addr = 0; addr < memory.getSize(); addr++) {
+            int value = memory.read(addr);
+            if (value != 0) {
+                if (nonZero < MEMORY_CELLS_SHOWN) {
+                    cells.append(String.format("  [%04X]: %d%n", addr, value));
+                }
+                nonZero++;
+            }
+        }
+        out.printf("Memoria compartida: %d de %d celdas distintas de cero%n", nonZero, memory.getSize());
+        out.print(cells);
+        if (nonZero > MEMORY_CELLS_SHOWN) {
+            out.println("  ... (" + (nonZero - MEMORY_CELLS_SHOWN) + " más)");
+        }
+    }
+}
@@ -0,0 +1,17 @@
+package Enums;
+
+/**
+ * Resultado de un trabajo de ejecución por lotes.
+ */
+public enum BatchStatus {
+    /** La CPU se detuvo sin error (HLT o fin del programa). */
+    HALTED,
+    /** La CPU se detuvo por un error de ejecución. */
+    ERROR,
+    /** Se agotó el presupuesto de ciclos sin que la CPU se detuviera. */
+    CYCLE_LIMIT,
+    /** Se agotó el tiempo máximo del trabajo. */
+    TIMEOUT,
+    /** El trabajo no pudo ejecutarse (programa ilegible, excepción inesperada). */
+    FAILED
+}
@@ -0,0 +1,17 @@
+package Enums;
+
+/**
+ * Unidad funcional del núcleo fuera de orden; cada una tiene sus estaciones de reserva.
+ */
+public enum FunctionalUnit {
+    /** Operaciones enteras de un ciclo: ADD, SUB, lógicas, movimientos y CMP. */
+    INT_ALU,
+    /** MUL. */
+    MULTIPLIER,
+    /** DIV. */
+    DIVIDER,
+    /** JMP, JE y JNE. */
+    BRANCH,
+    /** LOAD, STORE y E/S, con la cola de carga/almacenamiento. */
+    LOAD_STORE
+}
@@ -0,0 +1,17 @@
+package Enums;
+
+/**
+ * Algoritmo de predicción de la dirección de los saltos condicionales.
+ */
+public enum PredictorType {
+    /** Estático: nunca salta. */
+    NOT_TAKEN,
+    /** Estático: salta si el destino está hacia atrás (bucles), no si está hacia delante. */
+    BTFN,
+    /** Un bit por entrada: repite el último resultado del salto. */
+    ONE_BIT,
+    /** Contador saturado de dos bits por entrada. */
+    TWO_BIT,
+    /** Contadores de dos bits indexados por PC XOR historia global de saltos. */
+    GSHARE
+}
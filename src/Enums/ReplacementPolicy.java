@@ -0,0 +1,13 @@
+package Enums;
+
+/**
+ * Política de reemplazo de una caché asociativa por conjuntos.
+ */
+public enum ReplacementPolicy {
+    /** Menos recientemente usada (exacta). */
+    LRU,
+    /** Pseudo-LRU en árbol binario: un bit por nodo del conjunto. */
+    PLRU,
+    /** Vía aleatoria (generador con semilla fija: la ejecución es reproducible). */
+    RANDOM
+}
@@ -0,0 +1,16 @@
+package Enums;
+
+/**
+ * Modelo de temporización del multiprocesador: cómo se intercalan las instrucciones de los núcleos.
+ * Cambiarlo cambia lo que se mide (el tráfico de coherencia), no solo la velocidad del anfitrión.
+ */
+public enum SmpModel {
+    /** Turnos round-robin de un quantum de ciclos por núcleo, en un solo hilo. Intercalación fina. */
+    INTERLEAVED,
+    /**
+     * Épocas: cada núcleo avanza en un hilo del anfitrión mientras acierte en su caché y las
+     * transacciones de bus se ejecutan en serie al final de la época. Intercalación gruesa: el
+     * ping-pong de líneas compartidas (p.ej. el falso compartimiento) casi desaparece.
+     */
+    EPOCH
+}
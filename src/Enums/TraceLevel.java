@@ -0,0 +1,9 @@
+package Enums;
+
+/**
+ * Niveles de traza del simulador, de menor a mayor detalle.
+ * Cada nivel incluye los registros de los niveles anteriores.
+ */
+public enum TraceLevel {
+    OFF, INSTRUCTION, MICRO_OP, BUS
+}
@@ -0,0 +1,11 @@
+package Enums;
+
+/**
+ * Política de escritura de una caché.
+ */
+public enum WritePolicy {
+    /** Las escrituras quedan en la caché y se vuelcan al desalojar la línea; un fallo de escritura trae la línea. */
+    WRITE_BACK,
+    /** Cada escritura pasa también al siguiente nivel; un fallo de escritura no trae la línea. */
+    WRITE_THROUGH
+}
@@ -0,0 +1,421 @@
+import Controller.BatchJob;
+import Controller.BatchReport;
+import Controller.BatchRunner;
+import Controller.HeadlessController;
+import Controller.RunResult;
+import Controller.SmpResult;
+import Enums.PredictorType;
+import Enums.SmpModel;
+import Enums.TraceLevel;
+import Models.AsyncTraceWriter;
+import Models.BranchPredictor;
+import Models.CacheConfig;
+import Models.ExecutionTraceReader;
+import Models.ExecutionTraceRecord;
+import Models.IODevice;
+import Models.MappedInputDevice;
+import Models.Multiprocessor;
+import Models.OutOfOrderConfig;
+import Models.Tlb;
+import Models.TextInputDevice;
+import Models.TextOutputDevice;
+import Models.TraceSink;
+import Models.Tracer;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Punto de entrada sin interfaz gráfica. Ejecuta uno o más programas hasta HLT
+ * e imprime el estado final de cada uno.
+ *
+ * Uso: java HeadlessMain [--input archivo] [--mapped-input] [--output archivo] [--output-buffer caracteres[:ms]] [--memory celdas] [--max-cycles n] [--mode wired|micro] [--no-blocks] [--no-jit] [--no-fusion]
+ *                         [--pipeline] [--no-forwarding] [--ooo spec] [--predictor tipo[:bits]] [--btb n] [--cache spec]... [--page-size n] [--tlb entradas[:vías]] [--trace off|instruction|micro_op|bus] [--trace-file archivo]
+ *                         [--exec-trace archivo] programa...
+ *        java HeadlessMain --batch [--jobs n] [--timeout ms] [--batch-output dir] [--input archivo] [--memory celdas] [--max-cycles n]
+ *                         [--mode wired|micro] [--no-blocks] [--no-jit] [--no-fusion] programa|dir...
+ *        java HeadlessMain --cores n [--smp-model interleaved|epoch[:n]] [--smp-threads n] [--cache-lines n] [--line-size n] [--input archivo] [--mapped-input] [--output archivo]
+ *                         [--output-buffer caracteres[:ms]] [--memory celdas] [--max-cycles n] [--mode wired|micro] [--trace nivel] [--trace-file archivo] programa...
+ *        java HeadlessMain --processes [--page-size n] [--tlb entradas[:vías]] [--input archivo] [--mapped-input] [--output archivo]
+ *                         [--output-buffer caracteres[:ms]] [--memory celdas] [--max-cycles n] [--mode wired|micro] [--trace nivel] [--trace-file archivo] programa...
+ *        java HeadlessMain --dump-exec-trace archivo
+ * Sin --input/--output se usan la entrada y la salida estándar. La salida se vuelca en lotes
+ * (búfer de {@link TextOutputDevice#DEFAULT_BUFFER_SIZE} caracteres y como mucho cada
+ * {@link TextOutputDevice#DEFAULT_FLUSH_INTERVAL_MS} ms, y siempre en HLT), salvo en una consola
+ * interactiva, donde cada carácter se muestra al escribirlo; --output-buffer fija el tamaño del
+ * búfer y el intervalo (0 para volcar carácter a carácter). Con --mapped-input el archivo de
+ * --input se lee byte a byte desde una proyección en memoria, sin límite de tamaño ni copia al heap
+ * (ver {@link MappedInputDevice}). El modo por defecto es wired
+ * (una instrucción por ciclo, agrupadas en bloques básicos traducidos salvo con --no-blocks;
+ * los bloques más ejecutados se compilan a bytecode de la JVM salvo con --no-jit, y los pares
+ * de instrucciones frecuentes se despachan como superinstrucciones salvo con --no-fusion);
+ * micro ejecuta el microprograma paso a paso. La traza está desactivada
+ * por defecto; si se activa sin --trace-file se escribe en la salida de error.
+ * --exec-trace guarda una traza binaria con una entrada por instrucción retirada; con varios
+ * programas, el del n-ésimo (n > 1) se guarda en "archivo.n". --dump-exec-trace la imprime.
+ * --batch ejecuta los programas en paralelo (un hilo por núcleo salvo con --jobs), cada uno con
+ * su propia CPU, la entrada de --input (o vacía) y la salida capturada en memoria; un directorio
+ * aporta todos sus archivos .txt. --batch-output guarda la salida de cada programa en dir. Las
+ * opciones de caché, memoria virtual, núcleos, traza y salida no se aplican en lote y se rechazan.
+ * --cores ejecuta cada programa en un multiprocesador de n núcleos con cachés MESI y memoria
+ * compartida (el id de cada núcleo está en el registro CORE). --smp-model elige el modelo de
+ * temporización: interleaved (por defecto) intercala los núcleos instrucción a instrucción en un
+ * solo hilo; epoch[:n] los deja avanzar hasta n instrucciones por época (1024 por defecto) en
+ * --smp-threads hilos del anfitrión mientras acierten en su caché. Es otro modelo, no solo más
+ * hilos: con épocas el tráfico de coherencia (p.ej. el del falso compartimiento) es mucho menor.
+ * --cores y --processes rechazan las opciones de caché de datos, núcleos segmentado y fuera de
+ * orden y traza binaria, que sus CPUs no aplican (y --cores también la memoria virtual).
+ * --cache añade un nivel de caché de datos (el primero es L1), p.ej.
+ * "L1:size=256,line=4,ways=2,replace=lru,write=back,hit=0,miss=10" (ver {@link CacheConfig#parse}).
+ * --pipeline ejecuta en el núcleo segmentado de cinco etapas e informa sus ciclos, CPI, paradas
+ * y vaciados junto a los del núcleo secuencial; --no-forwarding desactiva la anticipación.
+ * --ooo ejecuta en el núcleo fuera de orden e informa IPC, ocupación del ROB y causas de parada
+ * del despacho; spec ajusta su configuración, p.ej. "width=2,rob=32,mul=1:3:8" ("default" para
+ * la configuración por defecto, ver {@link OutOfOrderConfig#parse}).
+ * --predictor (not_taken|btfn|one_bit|two_bit|gshare, con bits de tabla opcionales) y --btb
+ * configuran el predictor de saltos de esos núcleos (sin --ooo implican --pipeline) e informan
+ * los saltos peor predichos.
+ * --page-size activa la memoria virtual: una MMU con TLB (--tlb, 16:4 por defecto) y paginación
+ * bajo demanda traduce las direcciones de datos. --processes ejecuta todos los programas como
+ * procesos aislados que se turnan en una sola memoria física de --memory celdas.
+ */
+public class HeadlessMain {
+    /** Opciones que BatchRunner no aplica: cada trabajo usa una CPU secuencial sin caché, traza ni MMU. */
+    private static final String[] BATCH_UNSUPPORTED = {
+            "--mapped-input", "--output", "--output-buffer", "--cache", "--page-size", "--tlb",
+            "--pipeline", "--no-forwarding", "--predictor", "--btb", "--ooo", "--trace", "--trace-file",
+            "--exec-trace", "--cores", "--processes"};
+    /** Opciones que el multiprocesador no aplica: sus núcleos son secuenciales, con cachés MESI propias y sin MMU. */
+    private static final String[] SMP_UNSUPPORTED = {
+            "--cache", "--page-size", "--tlb", "--pipeline", "--no-forwarding", "--predictor", "--btb", "--ooo",
+            "--exec-trace", "--processes"};
+    /** Opciones que ProcessHost no aplica: los procesos son CPUs secuenciales sobre la memoria física. */
+    private static final String[] PROCESSES_UNSUPPORTED = {
+            "--cache", "--pipeline", "--no-forwarding", "--predictor", "--btb", "--ooo", "--exec-trace"};
+    /** Opciones que solo tienen efecto con --cores. */
+    private static final String[] SMP_ONLY = {"--smp-model", "--smp-threads", "--cache-lines", "--line-size"};
+
+    public static void main(String[] args) {
+        String inputPath = null;
+        boolean mappedInput = false;
+        String outputPath = null;
+        int outputBuffer = -1; // -1: estricto en una consola interactiva, en lotes si no
+        long outputFlushMs = TextOutputDevice.DEFAULT_FLUSH_INTERVAL_MS;
+        int memorySize = HeadlessController.DEFAULT_MEMORY_SIZE;
+        long maxCycles = HeadlessController.DEFAULT_MAX_CYCLES;
+        TraceLevel traceLevel = TraceLevel.OFF;
+        String tracePath = null;
+        String execTracePath = null;
+        String mode = "WIRED";
+        boolean blocks = true;
+        boolean jit = true;
+        boolean fusion = true;
+        boolean batch = false;
+        int jobs = Runtime.getRuntime().availableProcessors();
+        long timeoutMillis = BatchRunner.DEFAULT_TIMEOUT_MILLIS;
+        String batchOutput = null;
+        int cores = 0;
+        SmpModel smpModel = SmpModel.INTERLEAVED;
+        int smpEpoch = Multiprocessor.DEFAULT_EPOCH;
+        int smpThreads = Runtime.getRuntime().availableProcessors();
+        int cacheLines = Multiprocessor.DEFAULT_CACHE_LINES;
+        int lineSize = Multiprocessor.DEFAULT_LINE_SIZE;
+        List<CacheConfig> caches = new ArrayList<>();
+        int pageSize = 0;
+        int tlbEntries = Tlb.DEFAULT_ENTRIES;
+        int tlbWays = Tlb.DEFAULT_WAYS;
+        boolean processes = false;
+        boolean pipeline = false;
+        boolean forwarding = true;
+        PredictorType predictor = null;
+        OutOfOrderConfig outOfOrder = null;
+        int predictorBits = BranchPredictor.DEFAULT_TABLE_BITS;
+        int btbEntries = 0;
+        List<String> programs = new ArrayList<>();
+        Set<String> options = new HashSet<>(); // Opciones presentes, para rechazar combinaciones sin efecto
+
+        try {
+            for (int i = 0; i < args.length; i++) {
+                if (args[i].startsWith("--")) {
+                    options.add(args[i]);
+                }
+                switch (args[i]) {
+                    case "--input":      inputPath = args[++i]; break;
+                    case "--mapped-input": mappedInput = true; break;
+                    case "--output":     outputPath = args[++i]; break;
+                    case "--output-buffer": {
+                        String[] spec = args[++i].split(":", 2);
+                        outputBuffer = Integer.parseInt(spec[0]);
+                        if (spec.length > 1) {
+                            outputFlushMs = Long.parseLong(spec[1]);
+                        }
+                        if (outputBuffer < 0 || outputFlushMs < 0) {
+                            throw new IllegalArgumentException("--output-buffer no admite valores negativos.");
+                        }
+                        break;
+                    }
+                    case "--memory":     memorySize = Integer.parseInt(args[++i]); break;
+                    case "--max-cycles": maxCycles = Long.parseLong(args[++i]); break;
+                    case "--mode":       mode = args[++i].toUpperCase(); break;
+                    case "--no-blocks":  blocks = false; break;
+                    case "--no-jit":     jit = false; break;
+                    case "--no-fusion":  fusion = false; break;
+                    case "--trace":      traceLevel = TraceLevel.valueOf(args[++i].toUpperCase()); break;
+                    case "--trace-file": tracePath = args[++i]; break;
+                    case "--exec-trace": execTracePath = args[++i]; break;
+                    case "--batch":      batch = true; break;
+                    case "--jobs":       jobs = Integer.parseInt(args[++i]); break;
+                    case "--timeout":    timeoutMillis = Long.parseLong(args[++i]); break;
+                    case "--batch-output": batchOutput = args[++i]; break;
+                    case "--cores":      cores = Integer.parseInt(args[++i]); break;
+                    case "--smp-model": {
+                        String[] spec = args[++i].split(":", 2);
+                        smpModel = SmpModel.valueOf(spec[0].toUpperCase());
+                        if (spec.length > 1) {
+                            smpEpoch = Integer.parseInt(spec[1]);
+                        }
+                        break;
+                    }
+                    case "--smp-threads": smpThreads = Integer.parseInt(args[++i]); break;
+                    case "--cache-lines": cacheLines = Integer.parseInt(args[++i]); break;
+                    case "--line-size":  lineSize = Integer.parseInt(args[++i]); break;
+                    case "--cache":      caches.add(CacheConfig.parse(args[++i])); break;
+                    case "--page-size":  pageSize = Integer.parseInt(args[++i]); break;
+                    case "--tlb": {
+                        String[] geometry = args[++i].split(":", 2);
+                        tlbEntries = Integer.parseInt(geometry[0]);
+                        tlbWays = (geometry.length > 1) ? Integer.parseInt(geometry[1]) : Math.min(Tlb.DEFAULT_WAYS, tlbEntries);
+                        break;
+                    }
+                    case "--processes":  processes = true; break;
+                    case "--pipeline":   pipeline = true; break;
+                    case "--no-forwarding": forwarding = false; break;
+                    case "--predictor": {
+                        String[] spec = args[++i].split(":", 2);
+                        predictor = PredictorType.valueOf(spec[0].toUpperCase());
+                        if (spec.length > 1) {
+                            predictorBits = Integer.parseInt(spec[1]);
+                        }
+                        pipeline = true;
+                        break;
+                    }
+                    case "--btb":        btbEntries = Integer.parseInt(args[++i]); pipeline = true; break;
+                    case "--ooo": {
+                        String spec = args[++i];
+                        outOfOrder = "default".equals(spec) ? OutOfOrderConfig.defaults() : OutOfOrderConfig.parse(spec);
+                        break;
+                    }
+                    case "--dump-exec-trace": dumpExecutionTrace(args[++i]); return;
+                    default:             programs.add(args[i]); break;
+                }
+            }
+        } catch (ArrayIndexOutOfBoundsException | IllegalArgumentException e) {
+            usage("Argumentos inválidos: " + e.getMessage());
+            return;
+        }
+        if (programs.isEmpty()) {
+            usage("No se indicó ningún programa.");
+            return;
+        }
+        String smpOnly = (cores > 0) ? null : firstOf(options, SMP_ONLY);
+        if (smpOnly != null) {
+            usage(smpOnly + " requiere --cores.");
+            return;
+        }
+        if (options.contains("--smp-threads") && smpModel != SmpModel.EPOCH) {
+            usage("--smp-threads requiere --smp-model epoch: el modelo intercalado se ejecuta en un solo hilo.");
+            return;
+        }
+        if (batch) {
+            String ignored = firstOf(options, BATCH_UNSUPPORTED);
+            if (ignored != null) {
+                usage("--batch no admite " + ignored + ".");
+                return;
+            }
+            int status = runBatch(programs, inputPath, memorySize, maxCycles, timeoutMillis, jobs, mode, blocks, jit, fusion, batchOutput);
+            if (status != 0) {
+                System.exit(status);
+            }
+            return;
+        }
+
+        String ignored = (cores > 0) ? firstOf(options, SMP_UNSUPPORTED)
+                : processes ? firstOf(options, PROCESSES_UNSUPPORTED) : null;
+        if (ignored != null) {
+            usage(((cores > 0) ? "--cores" : "--processes") + " no admite " + ignored + ".");
+            return;
+        }
+
+        TextOutputDevice output = null;
+        MappedInputDevice mapped = null;
+        TraceSink traceSink = null;
+        int status = 0;
+        try {
+            if (mappedInput && inputPath == null) {
+                throw new IllegalArgumentException("--mapped-input necesita un archivo de --input.");
+            }
+            IODevice input;
+            if (mappedInput) {
+                mapped = new MappedInputDevice("Input_0", inputPath);
+                input = mapped;
+            } else {
+                input = (inputPath != null)
+                        ? new TextInputDevice("Input_0", inputPath)
+                        : new TextInputDevice("Input_0", new InputStreamReader(System.in));
+            }
+            output = (outputPath != null)
+                    ? new TextOutputDevice(outputPath, "Output_1")
+                    : new TextOutputDevice(new OutputStreamWriter(System.out), "Output_1");
+            if (outputBuffer >= 0) {
+                output.setBuffering(outputBuffer, outputFlushMs);
+            } else if (outputPath == null && System.console() != null) {
+                output.setBuffering(0, 0);
+            }
+            List<IODevice> devices = Arrays.asList(input, output);
+
+            HeadlessController controller = new HeadlessController(memorySize, maxCycles, devices);
+            controller.setControlMode(mode);
+            controller.setBlockTranslation(blocks);
+            controller.setJitEnabled(jit);
+            controller.setFusionEnabled(fusion);
+            controller.setCaches(caches);
+            controller.setVirtualMemory(pageSize, tlbEntries, tlbWays);
+            controller.setPipeline(pipeline, forwarding);
+            controller.setOutOfOrder(outOfOrder);
+            if (predictor != null || btbEntries > 0) {
+                controller.setBranchPredictor((predictor != null) ? predictor : PredictorType.NOT_TAKEN, predictorBits, btbEntries);
+            }
+            if (traceLevel != TraceLevel.OFF) {
+                traceSink = (tracePath != null) ? AsyncTraceWriter.toFile(tracePath) : AsyncTraceWriter.toConsole(System.err);
+                controller.setTracer(new Tracer(traceLevel, traceSink));
+            }
+            if (processes) {
+                for (RunResult result : controller.runProcesses(programs)) {
+                    System.out.println();
+                    result.print(System.out);
+                }
+                return; // El finally cierra la traza y los dispositivos
+            }
+            for (int n = 0; n < programs.size(); n++) {
+                String program = programs.get(n);
+                if (execTracePath != null) {
+                    controller.setExecutionTracePath(n == 0 ? execTracePath : execTracePath + "." + (n + 1));
+                }
+                System.out.println();
+                if (cores > 0) {
+                    SmpResult result = controller.runSmp(program, cores, cacheLines, lineSize, smpModel, smpEpoch, smpThreads);
+                    result.print(System.out);
+                    continue;
+                }
+                RunResult result = controller.runProgram(program);
+                result.print(System.out);
+            }
+        } catch (IOException | IllegalArgumentException e) {
+            System.err.println("Error: " + e.getMessage());
+            status = 1;
+        } finally {
+            // Antes de salir: System.exit dentro del try se saltaría este bloque y perdería
+            // los registros de traza aún en cola
+            if (traceSink != null) {
+                traceSink.close();
+            }
+            if (output != null && outputPath != null) {
+                output.close();
+            } else if (output != null) {
+                output.flush();
+            }
+            if (mapped != null) {
+                mapped.close();
+            }
+        }
+        if (status != 0) {
+            System.exit(status);
+        }
+    }
+
+    /** @return código de salida: 0 si el lote se ejecutó, 1 si hubo un error. */
+    private static int runBatch(List<String> programs, String inputPath, int memorySize, long maxCycles,
+                                 long timeoutMillis, int jobs, String mode, boolean blocks, boolean jit,
+                                 boolean fusion, String batchOutput) {
+        try {
+            BatchRunner runner = new BatchRunner(memorySize, maxCycles, timeoutMillis, jobs);
+            runner.setControlMode(mode);
+            runner.setBlockTranslation(blocks);
+            runner.setJitEnabled(jit);
+            runner.setFusionEnabled(fusion);
+            List<BatchJob> batchJobs = new ArrayList<>();
+            for (String program : expandPrograms(programs)) {
+                batchJobs.add(new BatchJob(program, inputPath));
+            }
+            BatchReport report = runner.run(batchJobs);
+            report.print(System.out);
+            if (batchOutput != null) {
+                report.writeOutputs(Path.of(batchOutput));
+            }
+            return 0;
+        } catch (IOException | IllegalArgumentException e) {
+            System.err.println("Error: " + e.getMessage());
+            return 1;
+        }
+    }
+
+    /** @return la primera de las opciones dadas que está presente, o null si no hay ninguna. */
+    private static String firstOf(Set<String> present, String... candidates) {
+        for (String option : candidates) {
+            if (present.contains(option)) {
+                return option;
+            }
+        }
+        return null;
+    }
+
+    /** Sustituye cada directorio por sus archivos .txt, en orden alfabético. */
+    private static List<String> expandPrograms(List<String> paths) throws IOException {
+        List<String> programs = new ArrayList<>();
+        for (String path : paths) {
+            if (new File(path).isDirectory()) {
+                try (Stream<Path> files = Files.list(Path.of(path))) {
+                    programs.addAll(files.filter(p -> p.toString().endsWith(".txt"))
+                            .map(Path::toString).sorted().collect(Collectors.toList()));
+                }
+            } else {
+                programs.add(path);
+            }
+        }
+        return programs;
+    }
+
+    private static void dumpExecutionTrace(String path) {
+        try (ExecutionTraceReader reader = new ExecutionTraceReader(path)) {
+            ExecutionTraceRecord record;
+            while ((record = reader.next()) != null) {
+                System.out.println(record);
+            }
+        } catch (IOException e) {
+            System.err.println("Error: " + e.getMessage());
+            System.exit(1);
+        }
+    }
+
+    private static void usage(String error) {
+        System.err.println(error);
+        System.err.println("Uso: java HeadlessMain [--input archivo] [--mapped-input] [--output archivo] [--output-buffer caracteres[:ms]] [--memory celdas] [--max-cycles n] [--mode wired|micro] [--no-blocks] [--no-jit] [--no-fusion]"
+                + " [--pipeline] [--no-forwarding] [--ooo spec] [--predictor tipo[:bits]] [--btb n] [--cache spec]... [--page-size n] [--tlb entradas[:vías]] [--trace off|instruction|micro_op|bus] [--trace-file archivo] [--exec-trace archivo] programa...");
+        System.err.println("       java HeadlessMain --batch [--jobs n] [--timeout ms] [--batch-output dir] [--input archivo] [--memory celdas] [--max-cycles n] [--mode wired|micro] [--no-blocks] [--no-jit] [--no-fusion] programa|dir...");
+        System.err.println("       java HeadlessMain --cores n [--smp-model interleaved|epoch[:n]] [--smp-threads n] [--cache-lines n] [--line-size n] [--input archivo] [--mapped-input] [--output archivo] [--output-buffer caracteres[:ms]] [--memory celdas] [--max-cycles n] [--mode wired|micro] [--trace nivel] [--trace-file archivo] programa...");
+        System.err.println("       java HeadlessMain --processes [--page-size n] [--tlb entradas[:vías]] [--input archivo] [--mapped-input] [--output archivo] [--output-buffer caracteres[:ms]] [--memory celdas] [--max-cycles n] [--mode wired|micro] [--trace nivel] [--trace-file archivo] programa...");
+        System.err.println("       java HeadlessMain --dump-exec-trace archivo");
+        System.exit(2);
+    }
+}
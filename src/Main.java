@@ -1,6 +1,7 @@
 // Modify your Main.java (the one that sets up MVC) like this:
 // package <your_main_package_if_any>; // Asegúrate que el package sea correcto si tienes uno
 
+import Enums.TraceLevel;
 import Models.*;
 import Controller.SimulatorController;
 import View.SimulatorView;
@@ -64,7 +65,8 @@ public class Main {
             mainView.setController(controller); // La vista necesita una referencia al controlador
 
             // --- 4. Crear IODevices GUI y configurarlos en la CPU ---
-            GuiTextInputDevice guiInput = new GuiTextInputDevice("GUI_Input_0", controller);
+            GuiTextInputDevice guiInput = new GuiTextInputDevice("GUI_Input_0");
+            controller.setInputDevice(guiInput);
             GuiTextOutputDevice guiOutput = new GuiTextOutputDevice("GUI_Output_1", controller);
 
             List<IODevice> guiIODevices = Arrays.asList(guiInput, guiOutput);
@@ -89,6 +91,13 @@ public class Main {
             // (Ver la modificación sugerida para CPU.java más abajo)
             cpuModel.setIoDevicesList(guiIODevices);
 
+            // Traza en consola, escrita desde un hilo aparte. Desactivada por defecto: a velocidad
+            // máxima la consola limitaría Run. Se activa con -Dsimulador.trace=micro_op (o instruction, bus).
+            TraceLevel traceLevel = TraceLevel.valueOf(System.getProperty("simulador.trace", "off").toUpperCase());
+            if (traceLevel != TraceLevel.OFF) {
+                cpuModel.setTracer(new Tracer(traceLevel, AsyncTraceWriter.toConsole(System.out)));
+            }
+
 
             mainView.setVisible(true); // Ahora que todo está conectado, hacer visible la GUI
             controller.loadProgramFromFile("Files/program.txt"); // Cargar programa inicial automáticamente
@@ -0,0 +1,188 @@
+package Models;
+
+import Enums.TraceLevel;
+
+import java.io.BufferedWriter;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.PrintStream;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.Formatter;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CountDownLatch;
+
+/**
+ * Destino de traza asíncrono: el hilo de simulación solo encola el formato y sus
+ * argumentos; un hilo aparte los formatea y los escribe por lotes en consola o archivo.
+ * La cola es acotada: si el escritor no da abasto, la simulación espera en lugar
+ * de acumular memoria.
+ */
+public class AsyncTraceWriter implements TraceSink {
+    private static final int DEFAULT_CAPACITY = 16384;
+    private static final int BATCH_SIZE = 1024;
+
+    // Entrada de la cola. Si 'done' no es null, es una marca de flush/cierre.
+    private static final class Entry {
+        final String format;
+        final Object[] args;
+        final CountDownLatch done;
+        final boolean last;
+
+        Entry(String format, Object[] args, CountDownLatch done, boolean last) {
+            this.format = format;
+            this.args = args;
+            this.done = done;
+            this.last = last;
+        }
+    }
+
+    private final BlockingQueue<Entry> queue;
+    private final Writer out;
+    private final boolean ownsWriter;
+    private final Thread worker;
+    private volatile boolean closed = false;
+    private long dropped = 0; // Registros que no se pudieron formatear (solo lo usa el hilo escritor)
+
+    /**
+     * Crea un escritor sobre un Writer ya abierto.
+     * @param out        Destino del texto.
+     * @param ownsWriter true si close() debe cerrar también el Writer.
+     * @param capacity   Máximo de registros pendientes.
+     */
+    public AsyncTraceWriter(Writer out, boolean ownsWriter, int capacity) {
+        this.out = out;
+        this.ownsWriter = ownsWriter;
+        this.queue = new ArrayBlockingQueue<>(capacity);
+        this.worker = new Thread(this::drainLoop, "trace-writer");
+        this.worker.setDaemon(true);
+        this.worker.start();
+    }
+
+    /**
+     * Crea un escritor hacia la consola.
+     */
+    public static AsyncTraceWriter toConsole(PrintStream console) {
+        return new AsyncTraceWriter(new OutputStreamWriter(console), false, DEFAULT_CAPACITY);
+    }
+
+    /**
+     * Crea un escritor hacia un archivo (se sobrescribe si existe).
+     * @throws IOException si no se puede abrir el archivo.
+     */
+    public static AsyncTraceWriter toFile(String filePath) throws IOException {
+        return new AsyncTraceWriter(new BufferedWriter(new FileWriter(filePath)), true, DEFAULT_CAPACITY);
+    }
+
+    @Override
+    public void record(TraceLevel level, String format, Object... args) {
+        if (!closed) {
+            enqueue(new Entry(format, args, null, false));
+        }
+    }
+
+    @Override
+    public void flush() {
+        if (closed) {
+            return;
+        }
+        CountDownLatch done = new CountDownLatch(1);
+        enqueue(new Entry(null, null, done, false));
+        await(done);
+    }
+
+    @Override
+    public void close() {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        CountDownLatch done = new CountDownLatch(1);
+        enqueue(new Entry(null, null, done, true));
+        await(done);
+    }
+
+    private void enqueue(Entry entry) {
+        try {
+            queue.put(entry);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt(); // Se descarta el registro y se conserva la interrupción
+        }
+    }
+
+    private static void await(CountDownLatch done) {
+        try {
+            done.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void drainLoop() {
+        List<Entry> batch = new ArrayList<>(BATCH_SIZE);
+        StringBuilder text = new StringBuilder();
+        Formatter formatter = new Formatter(text);
+        boolean running = true;
+        while (running) {
+            try {
+                batch.add(queue.take());
+            } catch (InterruptedException e) {
+                break;
+            }
+            queue.drainTo(batch, BATCH_SIZE - 1);
+
+            for (Entry entry : batch) {
+                if (entry.done == null) {
+                    format(formatter, text, entry);
+                    continue;
+                }
+                // Marca de flush/cierre: escribir lo acumulado antes de liberar a quien espera.
+                if (entry.last && dropped > 1) {
+                    System.err.println("[TRACE] Registros descartados por errores de formato: " + dropped);
+                }
+                write(text, entry.last);
+                running = !entry.last;
+                entry.done.countDown();
+            }
+            batch.clear();
+            if (running) {
+                write(text, false);
+            }
+        }
+    }
+
+    /**
+     * Formatea un registro. Si falla (formato inválido o un toString() que lanza), se descarta
+     * solo ese registro: el hilo escritor debe seguir vivo o flush() y close() esperarían siempre.
+     */
+    private void format(Formatter formatter, StringBuilder text, Entry entry) {
+        int length = text.length();
+        try {
+            formatter.format(entry.format, entry.args);
+        } catch (RuntimeException e) {
+            text.setLength(length); // Sin restos del registro a medio formatear
+            if (dropped++ == 0) {
+                System.err.println("[TRACE] Registro descartado (" + String.valueOf(entry.format).trim() + "): " + e);
+            }
+        }
+    }
+
+    private void write(StringBuilder text, boolean closeWriter) {
+        try {
+            if (text.length() > 0) {
+                out.write(text.toString());
+                text.setLength(0);
+            }
+            out.flush();
+            if (closeWriter && ownsWriter) {
+                out.close();
+            }
+        } catch (IOException e) {
+            text.setLength(0);
+            System.err.println("[TRACE] Error escribiendo traza: " + e.getMessage());
+        }
+    }
+}
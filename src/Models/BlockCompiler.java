@@ -0,0 +1,452 @@
+package Models;
+
+import Enums.OpCode;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * JIT de bloques básicos. Busca dentro de un bloque una región de instrucciones que solo
+ * tocan registros y memoria (MOV_IMM, MOV_REG, ADD, SUB, MUL, STORE y LOAD_REG_IMM con
+ * direcciones inmediatas válidas) y la compila a una clase oculta cuyo método lee y escribe
+ * directamente el arreglo de registros y el de memoria.
+ *
+ * Todo lo que podría detener la CPU (operandos inválidos, direcciones fuera de rango,
+ * destino de MOV_REG desconocido) se decide al compilar: esas instrucciones quedan fuera
+ * de la región y las ejecuta el intérprete. Por eso el bytecode generado no tiene saltos
+ * y no necesita StackMapTable.
+ */
+final class BlockCompiler {
+    static final int MIN_REGION = 2;   // Regiones más cortas no compensan la llamada
+    static final int MAX_REGION = 512; // Mantiene el método muy por debajo del límite de 64 KB
+
+    private static final String CLASS_NAME = "Models/CompiledBlock";
+    private static final String RUN_DESCRIPTOR = "([I[ILModels/ALU;)V";
+
+    private BlockCompiler() {
+    }
+
+    /**
+     * Compila la primera región compilable del bloque.
+     * @param block      Instrucciones del bloque, en orden.
+     * @param startPc    Dirección de la primera instrucción del bloque.
+     * @param memorySize Tamaño de la memoria de datos (las direcciones se validan al compilar).
+     * @param control    Control de la CPU, para contar los micro-pasos de cada instrucción.
+     * @return la región compilada, o null si el bloque no tiene ninguna.
+     * @throws IllegalStateException si la JVM rechaza la clase generada.
+     */
+    static JitRegion compile(DecodedInstruction[] block, int startPc, int memorySize, ControlWiredOrMicro control) {
+        int from = 0;
+        while (from < block.length) {
+            int end = scanRegion(block, from, memorySize);
+            if (end - from >= MIN_REGION) {
+                return build(block, startPc, from, end, control);
+            }
+            from = Math.max(end, from + 1);
+        }
+        return null;
+    }
+
+    /** @return el índice (exclusivo) donde termina la región compilable que empieza en from. */
+    private static int scanRegion(DecodedInstruction[] block, int from, int memorySize) {
+        boolean destinationKnown = false; // MOV_REG escribe en el destino que dejó la instrucción anterior
+        int i = from;
+        for (; i < block.length && i - from < MAX_REGION; i++) {
+            DecodedInstruction d = block[i];
+            switch (d.getKind()) {
+                case InstructionSet.ADD:
+                case InstructionSet.SUB:
+                case InstructionSet.MUL:
+                    if (d.operandCount() <= 2 || !hasRegisters(d, 3)) {
+                        return i;
+                    }
+                    destinationKnown = true;
+                    break;
+                case InstructionSet.MOV_IMM:
+                    if (d.operandCount() <= 1 || !d.isNumeric(1) || !hasRegisters(d, 1)) {
+                        return i;
+                    }
+                    destinationKnown = true;
+                    break;
+                case InstructionSet.MOV_REG:
+                    if (d.operandCount() <= 1 || !destinationKnown || !hasRegisters(d, 1)) {
+                        return i;
+                    }
+                    break;
+                case InstructionSet.STORE:
+                    if (!hasValidAddress(d, memorySize) || !hasRegisters(d, 1)) {
+                        return i;
+                    }
+                    break;
+                case InstructionSet.LOAD_REG_IMM:
+                    if (!hasValidAddress(d, memorySize) || !hasRegisters(d, 1)) {
+                        return i;
+                    }
+                    destinationKnown = true;
+                    break;
+                default:
+                    return i;
+            }
+        }
+        return i;
+    }
+
+    /** @return true si los primeros count operandos son registros (los inmediatos no tienen id). */
+    private static boolean hasRegisters(DecodedInstruction d, int count) {
+        for (int i = 0; i < count; i++) {
+            if (d.register(i) < 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static boolean hasValidAddress(DecodedInstruction d, int memorySize) {
+        return d.operandCount() > 1 && d.isNumeric(1) && d.value(1) >= 0 && d.value(1) < memorySize;
+    }
+
+    private static JitRegion build(DecodedInstruction[] block, int startPc, int from, int end, ControlWiredOrMicro control) {
+        int lastAlu = -1;
+        for (int k = from; k < end; k++) {
+            if (isAlu(block[k].getKind())) {
+                lastAlu = k;
+            }
+        }
+
+        Emitter emitter = new Emitter();
+        Map<Integer, Integer> lastWriter = new LinkedHashMap<>(); // registro -> índice de su último escritor
+        int cycles = 0;
+        int mbrRegister = -1;
+        int mar = 0;
+        int destination = -1;
+        boolean destinationSet = false;
+        DecodedInstruction operand1Source = null, operand2Source = null;
+        int operand1Index = -1, operand2Index = -1;
+
+        for (int k = from; k < end; k++) {
+            DecodedInstruction d = block[k];
+            cycles += 4 + control.length(d.getOpcode());
+            mar = startPc + k;
+            switch (d.getKind()) {
+                case InstructionSet.ADD:
+                case InstructionSet.SUB:
+                case InstructionSet.MUL:
+                    operand1Source = d; operand1Index = 0;
+                    operand2Source = d; operand2Index = 1;
+                    destination = d.register(2);
+                    destinationSet = true;
+                    emitter.alu(aluOp(d.getKind()), d.register(0), d.register(1), destination, k == lastAlu);
+                    lastWriter.put(destination, k);
+                    mbrRegister = destination;
+                    break;
+                case InstructionSet.MOV_IMM:
+                    destination = d.register(0);
+                    destinationSet = true;
+                    operand1Source = d; operand1Index = 1;
+                    emitter.movImm(destination, d.value(1));
+                    lastWriter.put(destination, k);
+                    mbrRegister = destination;
+                    break;
+                case InstructionSet.MOV_REG:
+                    operand1Source = d; operand1Index = 0;
+                    operand2Source = d; operand2Index = 1;
+                    emitter.movReg(destination, d.register(0));
+                    lastWriter.put(destination, k);
+                    mbrRegister = destination;
+                    break;
+                case InstructionSet.STORE:
+                    operand1Source = d; operand1Index = 0;
+                    operand2Source = d; operand2Index = 1;
+                    emitter.store(d.register(0), d.value(1));
+                    mbrRegister = d.register(0);
+                    mar = d.value(1);
+                    break;
+                case InstructionSet.LOAD_REG_IMM:
+                    destination = d.register(0);
+                    destinationSet = true;
+                    operand1Source = d; operand1Index = 1;
+                    emitter.load(destination, d.value(1));
+                    lastWriter.put(destination, k);
+                    mbrRegister = destination;
+                    mar = d.value(1);
+                    break;
+                default:
+                    throw new IllegalStateException("Instrucción no compilable: " + d.getText());
+            }
+        }
+
+        int[] written = new int[lastWriter.size()];
+        DecodedInstruction[] writers = new DecodedInstruction[written.length];
+        int[] loadAddresses = new int[written.length];
+        int n = 0;
+        for (Map.Entry<Integer, Integer> e : lastWriter.entrySet()) {
+            DecodedInstruction writer = block[e.getValue()];
+            written[n] = e.getKey();
+            writers[n] = writer;
+            loadAddresses[n] = (writer.getKind() == InstructionSet.LOAD_REG_IMM) ? writer.value(1) : -1;
+            n++;
+        }
+
+        return new JitRegion(from, end - from, cycles, emitter.define(),
+                block[end - 1], startPc + end - 1, mbrRegister, mar,
+                written, writers, loadAddresses,
+                operand1Source, operand1Index, operand2Source, operand2Index,
+                destinationSet, destination);
+    }
+
+    private static boolean isAlu(int kind) {
+        return kind == InstructionSet.ADD || kind == InstructionSet.SUB || kind == InstructionSet.MUL;
+    }
+
+    private static OpCode aluOp(int kind) {
+        switch (kind) {
+            case InstructionSet.ADD: return OpCode.ADD;
+            case InstructionSet.SUB: return OpCode.SUB;
+            default:                 return OpCode.MUL;
+        }
+    }
+
+    /**
+     * Genera el método run(int[] regs, int[] memory, ALU alu) de la clase oculta.
+     * Variables locales: 0 = this, 1 = regs, 2 = memory, 3 = alu.
+     */
+    private static final class Emitter {
+        private static final int ALOAD_0 = 0x2a, ALOAD_1 = 0x2b, ALOAD_2 = 0x2c, ALOAD_3 = 0x2d;
+        private static final int IALOAD = 0x2e, IASTORE = 0x4f;
+        private static final int IADD = 0x60, ISUB = 0x64, IMUL = 0x68;
+        private static final int ICONST_0 = 0x03, BIPUSH = 0x10, SIPUSH = 0x11, LDC = 0x12, LDC_W = 0x13;
+        private static final int GETSTATIC = 0xb2, INVOKEVIRTUAL = 0xb6, INVOKESPECIAL = 0xb7, RETURN = 0xb1;
+        private static final int MAX_STACK = 8;
+
+        private final ConstantPool pool = new ConstantPool();
+        private final ByteArrayOutputStream code = new ByteArrayOutputStream();
+
+        /** regs[dest] = value */
+        void movImm(int dest, int value) {
+            code.write(ALOAD_1);
+            pushInt(dest);
+            pushInt(value);
+            code.write(IASTORE);
+        }
+
+        /** regs[dest] = regs[src] */
+        void movReg(int dest, int src) {
+            code.write(ALOAD_1);
+            pushInt(dest);
+            loadRegister(src);
+            code.write(IASTORE);
+        }
+
+        /** regs[dest] = regs[a] op regs[b], o alu.operate(op, regs[a], regs[b]) si se deben fijar las banderas. */
+        void alu(OpCode op, int a, int b, int dest, boolean throughAlu) {
+            code.write(ALOAD_1);
+            pushInt(dest);
+            if (throughAlu) {
+                code.write(ALOAD_3);
+                writeOp(GETSTATIC, pool.fieldRef("Enums/OpCode", op.name(), "LEnums/OpCode;"));
+                loadRegister(a);
+                loadRegister(b);
+                writeOp(INVOKEVIRTUAL, pool.methodRef("Models/ALU", "operate", "(LEnums/OpCode;II)I"));
+            } else {
+                loadRegister(a);
+                loadRegister(b);
+                code.write(op == OpCode.ADD ? IADD : op == OpCode.SUB ? ISUB : IMUL);
+            }
+            code.write(IASTORE);
+        }
+
+        /** memory[addr] = regs[src] */
+        void store(int src, int addr) {
+            code.write(ALOAD_2);
+            pushInt(addr);
+            loadRegister(src);
+            code.write(IASTORE);
+        }
+
+        /** regs[dest] = memory[addr] */
+        void load(int dest, int addr) {
+            code.write(ALOAD_1);
+            pushInt(dest);
+            code.write(ALOAD_2);
+            pushInt(addr);
+            code.write(IALOAD);
+            code.write(IASTORE);
+        }
+
+        private void loadRegister(int id) {
+            code.write(ALOAD_1);
+            pushInt(id);
+            code.write(IALOAD);
+        }
+
+        private void pushInt(int value) {
+            if (value >= -1 && value <= 5) {
+                code.write(ICONST_0 + value);
+            } else if (value >= Byte.MIN_VALUE && value <= Byte.MAX_VALUE) {
+                code.write(BIPUSH);
+                code.write(value);
+            } else if (value >= Short.MIN_VALUE && value <= Short.MAX_VALUE) {
+                code.write(SIPUSH);
+                code.write(value >> 8);
+                code.write(value);
+            } else {
+                int index = pool.integer(value);
+                if (index < 256) {
+                    code.write(LDC);
+                    code.write(index);
+                } else {
+                    writeOp(LDC_W, index);
+                }
+            }
+        }
+
+        private void writeOp(int opcode, int index) {
+            code.write(opcode);
+            code.write(index >> 8);
+            code.write(index);
+        }
+
+        /** Define la clase oculta y devuelve una instancia. */
+        CompiledCode define() {
+            byte[] bytes = classBytes();
+            try {
+                MethodHandles.Lookup lookup = MethodHandles.lookup().defineHiddenClass(bytes, true);
+                return (CompiledCode) lookup.findConstructor(lookup.lookupClass(), MethodType.methodType(void.class)).invoke();
+            } catch (Throwable t) {
+                throw new IllegalStateException("La JVM rechazó el bloque compilado", t);
+            }
+        }
+
+        private byte[] classBytes() {
+            code.write(RETURN);
+            byte[] run = code.toByteArray();
+
+            int thisClass = pool.classRef(CLASS_NAME);
+            int superClass = pool.classRef("java/lang/Object");
+            int iface = pool.classRef("Models/CompiledCode");
+            int init = pool.utf8("<init>");
+            int voidDescriptor = pool.utf8("()V");
+            int objectInit = pool.methodRef("java/lang/Object", "<init>", "()V");
+            int runName = pool.utf8("run");
+            int runDescriptor = pool.utf8(RUN_DESCRIPTOR);
+            int codeAttribute = pool.utf8("Code");
+            byte[] constructor = {(byte) ALOAD_0, (byte) INVOKESPECIAL, (byte) (objectInit >> 8), (byte) objectInit, (byte) RETURN};
+
+            ByteArrayOutputStream bytes = new ByteArrayOutputStream(run.length + 512);
+            try (DataOutputStream out = new DataOutputStream(bytes)) {
+                out.writeInt(0xCAFEBABE);
+                out.writeShort(0);        // minor
+                out.writeShort(61);       // Java 17
+                pool.writeTo(out);
+                out.writeShort(0x0001 | 0x0010 | 0x0020); // public final super
+                out.writeShort(thisClass);
+                out.writeShort(superClass);
+                out.writeShort(1);
+                out.writeShort(iface);
+                out.writeShort(0);        // campos
+                out.writeShort(2);        // métodos
+                writeMethod(out, init, voidDescriptor, codeAttribute, 1, 1, constructor);
+                writeMethod(out, runName, runDescriptor, codeAttribute, MAX_STACK, 4, run);
+                out.writeShort(0);        // atributos de clase
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            return bytes.toByteArray();
+        }
+
+        private static void writeMethod(DataOutputStream out, int name, int descriptor, int codeAttribute,
+                                        int maxStack, int maxLocals, byte[] body) throws IOException {
+            out.writeShort(0x0001); // public
+            out.writeShort(name);
+            out.writeShort(descriptor);
+            out.writeShort(1);
+            out.writeShort(codeAttribute);
+            out.writeInt(2 + 2 + 4 + body.length + 2 + 2);
+            out.writeShort(maxStack);
+            out.writeShort(maxLocals);
+            out.writeInt(body.length);
+            out.write(body);
+            out.writeShort(0); // tabla de excepciones
+            out.writeShort(0); // atributos del código
+        }
+    }
+
+    /** Pool de constantes de la clase generada; cada entrada se añade una sola vez. */
+    private static final class ConstantPool {
+        private static final int UTF8 = 1, INTEGER = 3, CLASS = 7, FIELDREF = 9, METHODREF = 10, NAME_AND_TYPE = 12;
+
+        private final List<Object[]> entries = new ArrayList<>(); // {tag, datos...}
+        private final Map<String, Integer> indices = new HashMap<>();
+
+        int utf8(String value) {
+            return add("U" + value, new Object[]{UTF8, value});
+        }
+
+        int integer(int value) {
+            return add("I" + value, new Object[]{INTEGER, value});
+        }
+
+        int classRef(String internalName) {
+            int name = utf8(internalName);
+            return add("C" + internalName, new Object[]{CLASS, name});
+        }
+
+        int fieldRef(String owner, String name, String descriptor) {
+            return memberRef(FIELDREF, owner, name, descriptor);
+        }
+
+        int methodRef(String owner, String name, String descriptor) {
+            return memberRef(METHODREF, owner, name, descriptor);
+        }
+
+        private int memberRef(int tag, String owner, String name, String descriptor) {
+            int ownerIndex = classRef(owner);
+            int nameIndex = utf8(name);
+            int descriptorIndex = utf8(descriptor);
+            int nat = add("N" + name + ":" + descriptor, new Object[]{NAME_AND_TYPE, nameIndex, descriptorIndex});
+            return add(tag + owner + "." + name + ":" + descriptor, new Object[]{tag, ownerIndex, nat});
+        }
+
+        private int add(String key, Object[] entry) {
+            Integer index = indices.get(key);
+            if (index == null) {
+                entries.add(entry);
+                index = entries.size(); // Los índices del pool empiezan en 1
+                indices.put(key, index);
+            }
+            return index;
+        }
+
+        void writeTo(DataOutputStream out) throws IOException {
+            out.writeShort(entries.size() + 1);
+            for (Object[] entry : entries) {
+                int tag = (Integer) entry[0];
+                out.writeByte(tag);
+                switch (tag) {
+                    case UTF8:
+                        out.writeUTF((String) entry[1]);
+                        break;
+                    case INTEGER:
+                        out.writeInt((Integer) entry[1]);
+                        break;
+                    case CLASS:
+                        out.writeShort((Integer) entry[1]);
+                        break;
+                    default: // FIELDREF, METHODREF, NAME_AND_TYPE: dos índices
+                        out.writeShort((Integer) entry[1]);
+                        out.writeShort((Integer) entry[2]);
+                        break;
+                }
+            }
+        }
+    }
+}
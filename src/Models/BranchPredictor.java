@@ -0,0 +1,189 @@
+package Models;
+
+import Enums.PredictorType;
+
+import java.util.Arrays;
+import java.util.stream.IntStream;
+
+/**
+ * Predictor de saltos del núcleo segmentado: predice la dirección de JE/JNE al buscar la
+ * instrucción, y su BTB (buffer de destinos de salto) da el destino de cualquier salto
+ * para redirigir la búsqueda sin esperar a decodificarlo. Se actualiza al resolver el salto.
+ * Guarda además, para cada dirección de salto, ejecuciones, fallos de predicción y ciclos
+ * de penalización, para localizar los saltos peor predichos.
+ * Tablas y estadísticas se guardan en arreglos primitivos: una predicción no crea objetos.
+ */
+public class BranchPredictor {
+    public static final int DEFAULT_TABLE_BITS = 10;
+
+    private final PredictorType type;
+    private final int tableMask;
+    private final byte[] counters;   // 1 o 2 bits por entrada según el tipo
+    private int history = 0;         // Historia global (gshare): 1 = saltó
+    private final int[] btbTags;     // Dirección del salto de cada entrada (-1 = vacía)
+    private final int[] btbTargets;
+    private final int btbMask;
+
+    private long btbHits = 0;
+    private long btbMisses = 0;
+    // Estadísticas por dirección de salto; crecen con la dirección más alta vista
+    private long[] executions = new long[64];
+    private long[] mispredictions = new long[64];
+    private long[] penalties = new long[64];
+
+    /**
+     * @param type       Algoritmo de predicción de la dirección.
+     * @param tableBits  Bits de índice de la tabla de contadores (y de la historia de gshare).
+     * @param btbEntries Entradas de la BTB (potencia de dos; 0 sin BTB).
+     */
+    public BranchPredictor(PredictorType type, int tableBits, int btbEntries) {
+        if (type == null || tableBits < 1 || tableBits > 20) {
+            throw new IllegalArgumentException("Predictor inválido: tipo " + type + ", " + tableBits + " bits de tabla.");
+        }
+        if (btbEntries < 0 || (btbEntries & (btbEntries - 1)) != 0) {
+            throw new IllegalArgumentException("La BTB debe tener una potencia de dos de entradas: " + btbEntries);
+        }
+        this.type = type;
+        this.tableMask = (1 << tableBits) - 1;
+        this.counters = new byte[1 << tableBits];
+        if (type == PredictorType.TWO_BIT || type == PredictorType.GSHARE) {
+            Arrays.fill(counters, (byte) 1); // Débilmente "no salta"
+        }
+        this.btbTags = new int[btbEntries];
+        this.btbTargets = new int[btbEntries];
+        this.btbMask = btbEntries - 1;
+        Arrays.fill(btbTags, -1);
+    }
+
+    /**
+     * Predice la dirección de un salto condicional.
+     * @param pc     Dirección del salto.
+     * @param target Destino codificado en la instrucción (lo usa BTFN).
+     * @return true si se predice que salta.
+     */
+    public boolean predict(int pc, int target) {
+        switch (type) {
+            case NOT_TAKEN: return false;
+            case BTFN:      return target <= pc;
+            case ONE_BIT:   return counters[pc & tableMask] != 0;
+            case TWO_BIT:   return counters[pc & tableMask] >= 2;
+            default:        return counters[(pc ^ history) & tableMask] >= 2;
+        }
+    }
+
+    /**
+     * Consulta la BTB.
+     * @return el destino guardado para el salto, o -1 si no está.
+     */
+    public int predictTarget(int pc) {
+        if (btbTags.length == 0) {
+            return -1;
+        }
+        int entry = pc & btbMask;
+        if (btbTags[entry] == pc) {
+            btbHits++;
+            return btbTargets[entry];
+        }
+        btbMisses++;
+        return -1;
+    }
+
+    /**
+     * Actualiza el predictor con el resultado de un salto.
+     * @param pc          Dirección del salto.
+     * @param conditional true para JE/JNE; los incondicionales solo actualizan la BTB.
+     * @param taken       true si saltó.
+     * @param target      Destino del salto.
+     */
+    public void update(int pc, boolean conditional, boolean taken, int target) {
+        if (taken && btbTags.length > 0) {
+            int entry = pc & btbMask;
+            btbTags[entry] = pc;
+            btbTargets[entry] = target;
+        }
+        if (!conditional) {
+            return;
+        }
+        switch (type) {
+            case ONE_BIT:
+                counters[pc & tableMask] = (byte) (taken ? 1 : 0);
+                break;
+            case TWO_BIT:
+                counters[pc & tableMask] = saturate(counters[pc & tableMask], taken);
+                break;
+            case GSHARE: {
+                int index = (pc ^ history) & tableMask;
+                counters[index] = saturate(counters[index], taken);
+                history = ((history << 1) | (taken ? 1 : 0)) & tableMask;
+                break;
+            }
+            default:
+                break;
+        }
+    }
+
+    private static byte saturate(byte counter, boolean taken) {
+        return (byte) (taken ? Math.min(counter + 1, 3) : Math.max(counter - 1, 0));
+    }
+
+    /**
+     * Registra la ejecución de un salto.
+     * @param mispredicted true si la dirección predicha fue errónea.
+     * @param penalty      Ciclos de búsqueda perdidos por el salto (instrucciones descartadas).
+     */
+    void record(int pc, boolean mispredicted, int penalty) {
+        if (pc >= executions.length) {
+            int size = Math.max(pc + 1, executions.length * 2);
+            executions = Arrays.copyOf(executions, size);
+            mispredictions = Arrays.copyOf(mispredictions, size);
+            penalties = Arrays.copyOf(penalties, size);
+        }
+        executions[pc]++;
+        if (mispredicted) {
+            mispredictions[pc]++;
+        }
+        penalties[pc] += penalty;
+    }
+
+    /**
+     * @param n Máximo de saltos a devolver.
+     * @return las direcciones de los saltos con más ciclos de penalización, de mayor a menor
+     *         (a igualdad, la dirección más baja primero); solo saltos con penalización.
+     */
+    public int[] worstBranches(int n) {
+        return IntStream.range(0, executions.length)
+                .filter(pc -> penalties[pc] > 0)
+                .boxed()
+                .sorted((a, b) -> penalties[a] != penalties[b] ? Long.compare(penalties[b], penalties[a]) : Integer.compare(a, b))
+                .limit(n)
+                .mapToInt(Integer::intValue)
+                .toArray();
+    }
+
+    public PredictorType getType() { return type; }
+    public int getBtbEntries() { return btbTags.length; }
+    public long getBtbHits() { return btbHits; }
+    public long getBtbMisses() { return btbMisses; }
+    public long getExecutions(int pc) { return (pc < executions.length) ? executions[pc] : 0; }
+    public long getMispredictions(int pc) { return (pc < mispredictions.length) ? mispredictions[pc] : 0; }
+    public long getPenaltyCycles(int pc) { return (pc < penalties.length) ? penalties[pc] : 0; }
+
+    /** @return saltos ejecutados (condicionales e incondicionales). */
+    public long getBranchCount() { return Arrays.stream(executions).sum(); }
+    /** @return fallos de predicción de dirección. */
+    public long getMispredictionCount() { return Arrays.stream(mispredictions).sum(); }
+    /** @return ciclos de búsqueda perdidos por todos los saltos. */
+    public long getPenaltyCycles() { return Arrays.stream(penalties).sum(); }
+
+    /** @return saltos bien predichos / saltos ejecutados (1 si no hubo saltos). */
+    public double getAccuracy() {
+        long branches = getBranchCount();
+        return (branches > 0) ? 1.0 - (double) getMispredictionCount() / branches : 1.0;
+    }
+
+    /** @return aciertos de dirección del salto / sus ejecuciones (1 si no se ejecutó). */
+    public double getAccuracy(int pc) {
+        long runs = getExecutions(pc);
+        return (runs > 0) ? 1.0 - (double) getMispredictions(pc) / runs : 1.0;
+    }
+}
@@ -1,5 +1,6 @@
 package Models;
 
+import Enums.TraceLevel;
 import Models.RegisterFile;
 import Models.Memory;
 import Models.MBR;
@@ -9,6 +10,16 @@ import Models.MAR;
  * Bus del sistema que rutea datos entre componentes de la CPU.
  */
 public class Bus {
+    private Tracer tracer = Tracer.OFF;
+
+    /**
+     * Define el destino de la traza de transferencias (nivel BUS).
+     * @param tracer Filtro de traza; null equivale a traza desactivada.
+     */
+    public void setTracer(Tracer tracer) {
+        this.tracer = (tracer != null) ? tracer : Tracer.OFF;
+    }
+
     /**
      * Transfiere datos de un registro a otro dentro del RegisterFile.
      * @param rf       Banco de registros.
@@ -19,7 +30,9 @@ public class Bus {
         int data = rf.read(srcReg);
         // CORRECCIÓN: Añadimos una descripción para la operación de escritura.
         rf.write(dstReg, data, String.format("(Copia desde %s)", srcReg));
-        System.out.printf("[BUS] Registro %s -> Registro %s : %d%n", srcReg, dstReg, data);
+        if (tracer.isEnabled(TraceLevel.BUS)) {
+            tracer.trace(TraceLevel.BUS, "[BUS] Registro %s -> Registro %s : %d%n", srcReg, dstReg, data);
+        }
     }
 
     /**
@@ -32,7 +45,9 @@ public class Bus {
     public void transfer(RegisterFile rf, String srcReg, Memory mem, int addr) {
         int data = rf.read(srcReg);
         mem.write(addr, data);
-        System.out.printf("[BUS] Registro %s -> Memoria[%d] : %d%n", srcReg, addr, data);
+        if (tracer.isEnabled(TraceLevel.BUS)) {
+            tracer.trace(TraceLevel.BUS, "[BUS] Registro %s -> Memoria[%d] : %d%n", srcReg, addr, data);
+        }
     }
 
     /**
@@ -46,7 +61,9 @@ public class Bus {
         int data = mem.read(addr);
         // CORRECCIÓN: Añadimos una descripción para la operación de escritura.
         rf.write(dstReg, data, String.format("(Cargado desde Mem[0x%04X])", addr));
-        System.out.printf("[BUS] Memoria[%d] -> Registro %s : %d%n", addr, dstReg, data);
+        if (tracer.isEnabled(TraceLevel.BUS)) {
+            tracer.trace(TraceLevel.BUS, "[BUS] Memoria[%d] -> Registro %s : %d%n", addr, dstReg, data);
+        }
     }
 
     /**
@@ -56,7 +73,9 @@ public class Bus {
      */
     public void transferToMBR(int data, MBR mbr) {
         mbr.load(data);
-        System.out.printf("[BUS] Dato %d -> MBR%n", data);
+        if (tracer.isEnabled(TraceLevel.BUS)) {
+            tracer.trace(TraceLevel.BUS, "[BUS] Dato %d -> MBR%n", data);
+        }
     }
 
     /**
@@ -66,6 +85,8 @@ public class Bus {
      */
     public void transferToMAR(int addr, MAR mar) {
         mar.load(addr);
-        System.out.printf("[BUS] Dirección %d -> MAR%n", addr);
+        if (tracer.isEnabled(TraceLevel.BUS)) {
+            tracer.trace(TraceLevel.BUS, "[BUS] Dirección %d -> MAR%n", addr);
+        }
     }
 }
\ No newline at end of file
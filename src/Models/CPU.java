@@ -1,14 +1,19 @@
 package Models;
 
 import Enums.OpCode;
+import Enums.TraceLevel;
+import java.io.IOException;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 import java.util.Map;
 import java.util.HashMap;
+import java.util.function.IntSupplier;
 
 public class CPU {
     // Componentes de la CPU
     private ALU alu = new ALU();
+    private StatusRegister flags = new StatusRegister(); // Banderas de la última comparación (CMP)
     private ControlWiredOrMicro controlType = new ControlWiredOrMicro();
     private ControlUnit controlUnit = new ControlUnit(controlType);
     private ProgramCounter pc = new ProgramCounter();
@@ -16,24 +21,69 @@ public class CPU {
     private IR ir = new IR();
     private MBR mbr = new MBR();
     private RegisterFile registerFile = new RegisterFile();
+    private final int accId = registerFile.idOf("ACC"); // Id del acumulador en el banco de registros
     private Memory memory;
+    private MemoryPort dataPort; // Acceso de STORE/LOAD a la memoria: la propia memoria o una caché
     private Bus bus = new Bus();
     private InterruptManager interruptManager = new InterruptManager();
+    private Tracer tracer = Tracer.OFF; // Traza desactivada por defecto
     private AddressingMode addressingMode;
     private List<IODevice> ioDevices;
     private List<String> instructionMemory = new ArrayList<>();
+    private DecodedInstruction[] decodedMemory = new DecodedInstruction[0]; // Caché de instrucciones decodificadas, indexada por dirección
     private boolean halted = false;
     private String haltReason = "Ejecución no ha finalizado."; // Mensaje por defecto
+    private boolean haltedByError = false; // La detención vino de fail(), no de HLT ni del fin del programa
+    private long cycleCount = 0; // Micro-ciclos ejecutados desde la última carga de programa
+    private long instructionCount = 0; // Instrucciones decodificadas y despachadas
+    private long memoryStallCycles = 0; // Ciclos de espera por fallos de caché, incluidos en cycleCount
 
     // --- NUEVAS VARIABLES DE ESTADO PARA CONTROL MICROPROGRAMADO ---
-    private int microPC = 0; // Contador de programa para el microcódigo
-    private String[] currentMicroprogram = null; // Almacena las señales de la instrucción actual
+    private int microPC = 0; // Contador de programa para el microcódigo (posición en la ROM de micro-operaciones)
+    private int microEnd = -1; // Fin (exclusivo) del microprograma en curso; -1 si el próximo ciclo es un FETCH
+    private DecodedInstruction decoded = null; // Instrucción actual, tomada de la caché de decodificación
     private String operand1 = null; // Para el primer operando decodificado (registro o valor)
     private String operand2 = null; // Para el segundo operando decodificado
-    private String destination = null; // Para el registro destino
+    private int operand1Reg = -1; // Id de registro de operand1, resuelto al decodificar
+    private int operand2Reg = -1; // Id de registro de operand2
+    private int destinationReg = -1; // Id del registro destino
+    private int operand1Value = 0; // Valor inmediato de operand1, parseado al cargar el programa
+    private int operand2Value = 0; // Valor inmediato de operand2
+    private boolean operand1IsNumber = false; // true si operand1 es un entero válido
+    private boolean operand2IsNumber = false;
+
+    // --- Bloques básicos traducidos (modo WIRED); se invalidan al cargar otro programa ---
+    private TranslatedBlock[] blockCache = new TranslatedBlock[0]; // Indexado por dirección de inicio
+    private boolean blockTranslation = true;
+    private long translatedBlocks = 0;
+    private long blockDispatches = 0;
+
+    // --- Superinstrucciones ---
+    private int[] fusions = new int[0];  // Dirección -> superinstrucción que empieza en ella
+    private boolean fusionEnabled = true;
+    private final long[] fusionSites = new long[Superinstruction.COUNT];     // Pares fusionados al cargar el programa
+    private final long[] fusedDispatches = new long[Superinstruction.COUNT]; // Ejecuciones de cada superinstrucción
+
+    // --- JIT: bloques calientes compilados a bytecode JVM ---
+    public static final int DEFAULT_JIT_THRESHOLD = 1000;
+    private boolean jitEnabled = true;
+    private int jitThreshold = DEFAULT_JIT_THRESHOLD; // Ejecuciones de un bloque antes de compilarlo
+    private long compiledBlocks = 0;
+    private long compiledInstructions = 0;            // Instrucciones retiradas por código compilado
+
+    // --- Traza binaria de ejecución: un registro por instrucción retirada ---
+    private ExecutionTraceRecorder executionTrace = null;
+    private boolean instructionInFlight = false; // true desde el Decode hasta el fin de su microprograma
+    private int instructionPc = 0;      // Dirección de la instrucción en curso
+    private int retiredRegId = -1;      // Registro escrito por la instrucción en curso (-1 si ninguno)
+    private int retiredRegValue = 0;
+    private int retiredMemAddr = -1;    // Dirección de memoria accedida (-1 si ninguna)
+    private int retiredMemValue = 0;
+    private int retiredMemFlags = 0;    // FLAG_MEM_READ / FLAG_MEM_WRITE
 
     public CPU(Memory mem, AddressingMode addrMode, List<IODevice> devices, List<String> initialInstructions) {
         this.memory = mem;
+        this.dataPort = mem;
         this.addressingMode = addrMode;
         this.ioDevices = devices;
         if (initialInstructions != null) {
@@ -59,7 +109,7 @@ public class CPU {
         microprogramData.put("OUTPUT_CHAR", new String[]{"ACC_to_Bus,Write_to_Device_1"});
         microprogramData.put("INPUT_CHAR", new String[]{"Read_from_Device_0,Bus_to_ACC"});
         microprogramData.put("JMP", new String[]{"Decode_Operand_Addr", "Address_to_PC"});
-        microprogramData.put("CMP", new String[]{"Decode_Operands_R_R", "Reg1_to_ALU_A,Reg2_to_ALU_B", "ALU_CMP,Interrupt_Request"});
+        microprogramData.put("CMP", new String[]{"Decode_Operands_R_R", "Reg1_to_ALU_A,Reg2_to_ALU_B", "ALU_CMP,Flags_in"});
         microprogramData.put("JE", new String[]{"Cond_Jump_if_Zero"});
         microprogramData.put("JNE", new String[]{"Cond_Jump_if_Not_Zero"});
         microprogramData.put("HLT", new String[]{"HALT_CPU"});
@@ -69,55 +119,95 @@ public class CPU {
         // Añade aquí los microprogramas para las demás instrucciones (MUL, DIV, JGE, etc.)
 
         this.controlType.loadMicroprogram(microprogramData);
+        this.decodedMemory = controlUnit.predecode(this.instructionMemory, this.registerFile);
+        this.blockCache = new TranslatedBlock[decodedMemory.length];
+        fuseInstructions();
         this.halted = false;
     }
     public String getHaltReason() {
         return this.haltReason;
     }
+    /**
+     * @return true si la CPU se detuvo por un error de ejecución (instrucción no reconocida,
+     *         operando inválido o acceso a memoria fallido); el detalle está en {@link #getHaltReason()}.
+     */
+    public boolean isHaltedByError() {
+        return this.haltedByError;
+    }
     /**
      * Carga un nuevo programa y resetea completamente el estado de la CPU,
      * incluyendo el estado de la unidad de control microprogramada.
      */
     public void loadNewProgram(List<String> newInstructions) {
         this.instructionMemory = (newInstructions != null) ? new ArrayList<>(newInstructions) : new ArrayList<>();
+        this.decodedMemory = controlUnit.predecode(this.instructionMemory, this.registerFile);
+        this.blockCache = new TranslatedBlock[decodedMemory.length];
+        fuseInstructions();
+        this.translatedBlocks = 0;
+        this.blockDispatches = 0;
+        this.compiledBlocks = 0;
+        this.compiledInstructions = 0;
         this.pc.reset();
         this.ir.clear();
         this.registerFile.clear();
         this.interruptManager.queue.clear();
+        this.flags.clear();
         this.mbr.clear();
         this.mar.reset();
 
         // Reseteo del estado de la unidad de control
         this.halted = false;
-        this.currentMicroprogram = null;
+        this.haltReason = "Ejecución no ha finalizado.";
+        this.haltedByError = false;
+        this.cycleCount = 0;
+        this.instructionCount = 0;
+        this.memoryStallCycles = 0;
+        this.microEnd = -1;
         this.microPC = 0;
+        this.decoded = null;
         this.operand1 = null;
         this.operand2 = null;
-        this.destination = null;
+        this.operand1Reg = -1;
+        this.operand2Reg = -1;
+        this.destinationReg = -1;
+        this.operand1IsNumber = false;
+        this.operand2IsNumber = false;
+        this.instructionInFlight = false;
 
-        System.out.println("[CPU] Nuevo programa cargado. CPU reseteada y lista.");
+        if (tracer.isEnabled(TraceLevel.INSTRUCTION)) {
+            tracer.trace(TraceLevel.INSTRUCTION, "[CPU] Nuevo programa cargado. CPU reseteada y lista.%n");
+        }
     }
 
     /**
      * Motor de la CPU. Ejecuta UNA micro-instrucción (señal) por ciclo.
      * El ciclo completo de una instrucción de lenguaje ensamblador tomará múltiples llamadas a executeCycle.
+     * En modo WIRED, cada llamada ejecuta una instrucción completa (ver {@link #executeInstructionWired()}).
      */
     public void executeCycle() {
         if (halted) {
             return;
         }
+        // El control cableado solo toma el relevo entre instrucciones; un microprograma a medias termina en MICRO.
+        if (microEnd < 0 && controlType.isWired()) {
+            executeInstructionWired();
+            return;
+        }
+        cycleCount++;
 
         // Si no hay un microprograma en ejecución, comenzamos con el ciclo de FETCH.
-        if (currentMicroprogram == null) {
-            currentMicroprogram = controlType.getMicroprogram().get("FETCH");
-            microPC = 0;
+        if (microEnd < 0) {
+            microPC = controlType.getFetchEntry();
+            microEnd = microPC + controlType.getFetchLength();
         }
 
-        // Obtener la micro-señal actual a ejecutar.
-        String signal = currentMicroprogram[microPC];
+        // Obtener la micro-operación actual a ejecutar.
+        int signal = controlType.getMicroRom()[microPC];
 
-        // Imprimir estado para depuración.
-        System.out.printf("[MicroCTRL] PC: %d | IR: %s | Signal: %s%n", pc.get(), ir.get(), signal);
+        // Registrar estado para depuración (solo si la traza de micro-operaciones está activa).
+        if (tracer.isEnabled(TraceLevel.MICRO_OP)) {
+            tracer.trace(TraceLevel.MICRO_OP, "[MicroCTRL] PC: %d | IR: %s | Signal: %s%n", pc.get(), ir.get(), MicroOp.name(signal));
+        }
 
         // Interpretar y ejecutar la señal.
         executeSignal(signal);
@@ -127,249 +217,1013 @@ public class CPU {
 
         // Si hemos terminado todas las señales del microprograma actual, lo reseteamos.
         // El siguiente ciclo de la CPU comenzará automáticamente con un nuevo FETCH.
-        if (microPC >= currentMicroprogram.length) {
-            currentMicroprogram = null;
-            microPC = 0;
+        if (microPC >= microEnd) {
+            microEnd = -1;
+            if (instructionInFlight) {
+                retireInstruction();
+            }
         }
     }
 
     /**
      * El corazón de la Unidad de Control. Interpreta cada señal y realiza la operación de hardware correspondiente.
-     * @param signal La señal de control a ejecutar.
+     * @param signal La micro-operación ({@link MicroOp}) a ejecutar.
      */
-    private void executeSignal(String signal) {
-        String[] parts = (ir.get() != null && !ir.get().isBlank()) ? ir.get().trim().split("\\s+") : new String[0];
-
+    private void executeSignal(int signal) {
         switch(signal) {
             // --- SEÑALES DE FETCH ---
-            case "PC_out,MAR_in":
+            case MicroOp.PC_OUT_MAR_IN:
                 mar.load(pc.get());
                 break;
-            case "Mem_read,PC_inc":
-                String instruction = memoryReadInstruction(mar.get());
-                if (instruction == null || instruction.trim().isEmpty()) {
+            case MicroOp.MEM_READ_PC_INC:
+                DecodedInstruction instruction = memoryReadInstruction(mar.get());
+                if (instruction == null) {
                     this.halted = true;
-                    currentMicroprogram = new String[]{"HALT_CPU"};
-                    microPC = -1; // Para que el siguiente ciclo ejecute HALT_CPU
+                    abortMicroprogram();
                     return;
                 }
-                mbr.load(instruction.hashCode()); // Simulado. MBR contendría la instrucción binaria.
-                ir.load(instruction);
+                mbr.load(instruction.getText().hashCode()); // Simulado. MBR contendría la instrucción binaria.
+                ir.load(instruction.getText());
+                decoded = instruction;
+                instructionPc = mar.get();
                 pc.increment();
                 break;
-            case "MBR_out,IR_in":
+            case MicroOp.MBR_OUT_IR_IN:
                 // Acción conceptual. En nuestra simulación, MBR->IR ya ocurrió.
                 break;
-            case "Decode":
-                String mnemonic = controlUnit.decode(ir);
-                currentMicroprogram = controlType.getMicroprogram().get(mnemonic);
-                if (currentMicroprogram == null) {
-                    this.haltReason = "Error: La instrucción '" + mnemonic + "' no es reconocida."; // <-- MENSAJE ESPECÍFICO
+            case MicroOp.DECODE:
+                String mnemonic = controlUnit.decode(decoded);
+                int opcode = decoded.getOpcode();
+                if (opcode < 0) {
+                    fail("Error: La instrucción '" + mnemonic + "' no es reconocida."); // <-- MENSAJE ESPECÍFICO
                     System.err.println("[CPU] " + this.haltReason);
 
-                    this.halted = true;
-                    // LA SOLUCIÓN: Asignamos un microprograma vacío para evitar el NullPointerException.
                     // La CPU se detendrá de forma segura en el siguiente ciclo gracias a la bandera 'halted'.
-                    currentMicroprogram = new String[0];
+                    abortMicroprogram();
+                    break;
+                }
+                instructionCount++;
+                instructionInFlight = true;
+                retiredRegId = -1;
+                retiredMemAddr = -1;
+                retiredMemFlags = 0;
+                if (tracer.isEnabled(TraceLevel.INSTRUCTION)) {
+                    tracer.trace(TraceLevel.INSTRUCTION, "[CPU] %04d: %s%n", mar.get(), decoded.getText());
                 }
-                microPC = -1; // Se incrementará a 0 al final del ciclo.
+                microPC = controlType.entryPoint(opcode) - 1; // Se incrementará a la entrada al final del ciclo.
+                microEnd = microPC + 1 + controlType.length(opcode);
                 break;
 
             // --- SEÑALES DE DECODIFICACIÓN DE OPERANDOS ---
-            case "Decode_Operands_R_R_R": // ADD R1 R2 R3
-                if (parts.length > 3) { this.operand1 = parts[1]; this.operand2 = parts[2]; this.destination = parts[3]; }
+            case MicroOp.DECODE_OPERANDS_R_R_R: // ADD R1 R2 R3
+                if (decoded.operandCount() > 2) { bindOperand1(0); bindOperand2(1); this.destinationReg = decoded.register(2); }
                 break;
-            case "Decode_Operands_R_R": // CMP R1 R2
-                if (parts.length > 2) { this.operand1 = parts[1]; this.operand2 = parts[2]; }
+            case MicroOp.DECODE_OPERANDS_R_R: // CMP R1 R2
+                if (decoded.operandCount() > 1) { bindOperand1(0); bindOperand2(1); }
                 break;
-            case "Decode_Operands_R_IMM": // MOV_IMM R1 123
-                if (parts.length > 2) { this.destination = parts[1]; this.operand1 = parts[2]; }
+            case MicroOp.DECODE_OPERANDS_R_IMM: // MOV_IMM R1 123
+                if (decoded.operandCount() > 1) { this.destinationReg = decoded.register(0); bindOperand1(1); }
                 break;
-            case "Decode_Operand_Addr": // JMP 10
-                if (parts.length > 1) { this.operand1 = parts[1]; }
+            case MicroOp.DECODE_OPERAND_ADDR: // JMP 10
+                if (decoded.operandCount() > 0) { bindOperand1(0); }
                 break;
 
             // --- SEÑALES DE EJECUCIÓN ---
-            case "Reg1_to_ALU_A,Reg2_to_ALU_B":
+            case MicroOp.REGS_TO_ALU:
                 // Acción conceptual. Los operandos se leen directamente en la señal de operación.
                 break;
-            case "ALU_ADD,MBR_in":
-                mbr.load(alu.operate(OpCode.ADD, registerFile.read(operand1), registerFile.read(operand2)));
+            case MicroOp.ALU_ADD_MBR_IN:
+                mbr.load(alu.operate(OpCode.ADD, registerFile.read(operand1Reg), registerFile.read(operand2Reg)));
                 break;
-            case "ALU_SUB,MBR_in":
-                 mbr.load(alu.operate(OpCode.SUB, registerFile.read(operand1), registerFile.read(operand2)));
+            case MicroOp.ALU_SUB_MBR_IN:
+                 mbr.load(alu.operate(OpCode.SUB, registerFile.read(operand1Reg), registerFile.read(operand2Reg)));
                 break;
-            case "ALU_CMP,Interrupt_Request":
-                int cmpResult = Integer.compare(registerFile.read(operand1), registerFile.read(operand2));
-                interruptManager.request(cmpResult);
+            case MicroOp.ALU_CMP_FLAGS_IN:
+                compare();
                 break;
-            case "ALU_MUL,MBR_in":
-                mbr.load(alu.operate(OpCode.MUL, registerFile.read(operand1), registerFile.read(operand2)));
+            case MicroOp.ALU_MUL_MBR_IN:
+                mbr.load(alu.operate(OpCode.MUL, registerFile.read(operand1Reg), registerFile.read(operand2Reg)));
                 break;
-            case "MBR_out,Reg_Dest_in": { // Usado por ADD, SUB, MUL, MOV_IMM, etc.
-                String mnemonics = controlUnit.decode(ir);
-
-                String description = ""; // Descripción por defecto
-
-                // Creamos una descripción basada en la instrucción
-                if ("ADD".equals(mnemonics) || "SUB".equals(mnemonics) || "MUL".equals(mnemonics) || "DIV".equals(mnemonics)) {
-                    description = String.format("(%s %s, %s)", mnemonics, this.operand1, this.operand2);
-                } else if ("MOV_IMM".equals(mnemonics)) {
-                    description = String.format("(Carga Inmediata: %s)", this.operand1);
-                } else if ("MOV_REG".equals(mnemonics)) {
-                     description = String.format("(Copia de %s)", this.operand1);
-                }
-
-                registerFile.write(destination, mbr.get(), description);
+            case MicroOp.MBR_OUT_REG_DEST_IN: // Usado por ADD, SUB, MUL, MOV_IMM, etc.
+                writeDestination();
                 break;
-            }
-            case "Decode_Store_Operands_Rsrc_AddrImm":
-                if (parts.length > 2) {
-                    this.operand1 = parts[1]; // R_src
-                    this.operand2 = parts[2]; // Addr_imm
+            case MicroOp.DECODE_STORE_OPERANDS:
+                if (decoded.operandCount() > 1) {
+                    bindOperand1(0); // R_src
+                    bindOperand2(1); // Addr_imm
                 } else {
                     // Manejar error de operandos insuficientes si es necesario
-                    this.haltReason = "Error: Operandos insuficientes para STORE_REG_IMM.";
-                    this.halted = true;
-                    currentMicroprogram = new String[0]; // Evitar NullPointerException
+                    fail("Error: Operandos insuficientes para STORE_REG_IMM.");
+                    abortMicroprogram();
                 }
                 break;
 
             // --- SEÑALES DE EJECUCIÓN PARA STORE_REG_IMM ---
-            case "Reg_Operand1_to_MBR":
+            case MicroOp.REG_OPERAND1_TO_MBR:
                 if (this.operand1 != null) {
-                    mbr.load(registerFile.read(this.operand1));
+                    mbr.load(registerFile.read(this.operand1Reg));
                 } else {
-                    this.haltReason = "Error: Operando fuente (Reg_Operand1) nulo para STORE_REG_IMM.";
-                    this.halted = true;
-                    currentMicroprogram = new String[0];
+                    fail("Error: Operando fuente (Reg_Operand1) nulo para STORE_REG_IMM.");
+                    abortMicroprogram();
                 }
                 break;
 
-            case "Immediate_Operand2_to_MAR":
+            case MicroOp.IMMEDIATE_OPERAND2_TO_MAR:
                 if (this.operand2 != null) {
-                    try {
-                        mar.load(Integer.parseInt(this.operand2));
-                    } catch (NumberFormatException e) {
-                        this.haltReason = "Error: Dirección inmediata (Operand2) inválida para STORE_REG_IMM: " + this.operand2;
-                        this.halted = true;
-                        currentMicroprogram = new String[0];
+                    if (this.operand2IsNumber) {
+                        mar.load(this.operand2Value);
+                    } else {
+                        fail("Error: Dirección inmediata (Operand2) inválida para STORE_REG_IMM: " + this.operand2);
+                        abortMicroprogram();
                     }
                 } else {
-                    this.haltReason = "Error: Operando de dirección (Operand2) nulo para STORE_REG_IMM.";
-                    this.halted = true;
-                    currentMicroprogram = new String[0];
+                    fail("Error: Operando de dirección (Operand2) nulo para STORE_REG_IMM.");
+                    abortMicroprogram();
                 }
                 break;
 
-            case "MBR_to_Mem_at_MAR":
+            case MicroOp.MBR_TO_MEM_AT_MAR:
                 try {
-                    memory.write(mar.get(), mbr.get());
-                    System.out.printf("[CPU] STORE Mem[0x%04X] <- %d (desde MBR)%n", mar.get(), mbr.get());
+                    writeData(mar.get(), mbr.get());
+                    retiredMemAddr = mar.get();
+                    retiredMemValue = mbr.get();
+                    retiredMemFlags = ExecutionTraceRecorder.FLAG_MEM_WRITE;
+                    if (tracer.isEnabled(TraceLevel.BUS)) {
+                        tracer.trace(TraceLevel.BUS, "[CPU] STORE Mem[0x%04X] <- %d (desde MBR)%n", mar.get(), mbr.get());
+                    }
                 } catch (IndexOutOfBoundsException e) {
-                    this.haltReason = "Error: Acceso fuera de los límites de la memoria en STORE_REG_IMM. Dirección: " + mar.get();
-                    this.halted = true;
-                    currentMicroprogram = new String[0];
+                    fail(accessError("STORE_REG_IMM", e));
+                    abortMicroprogram();
                 }
                 break;
-            case "Immediate_to_MBR":
-                mbr.load(Integer.parseInt(operand1));
+            case MicroOp.IMMEDIATE_TO_MBR:
+                if (operand1IsNumber) {
+                    mbr.load(operand1Value);
+                } else {
+                    fail("Error: Valor inmediato inválido: " + operand1);
+                    abortMicroprogram();
+                }
                 break;
-            case "Reg1_to_MBR":
-                mbr.load(registerFile.read(parts[1]));
+            case MicroOp.REG1_TO_MBR:
+                mbr.load(registerFile.read(decoded.register(0)));
                 break;
-            case "ACC_to_Bus,Write_to_Device_1":
-                ioDevices.get(1).write(registerFile.read("ACC"));
+            case MicroOp.ACC_TO_DEVICE_1:
+                ioDevices.get(1).write(registerFile.read(accId));
                 break;
-            case "Read_from_Device_0,Bus_to_ACC":{
+            case MicroOp.DEVICE_0_TO_ACC:{
                 int value = ioDevices.get(0).read();
-                registerFile.write("ACC", value, "(Entrada de Dispositivo)");
+                registerFile.write(accId, value, "(Entrada de Dispositivo)");
+                retiredRegId = accId;
+                retiredRegValue = value;
                 break;
             }
-            case "Address_to_PC":
-                pc.set(Integer.parseInt(operand1));
+            case MicroOp.ADDRESS_TO_PC:
+                if (!operand1IsNumber) {
+                    fail("Error: Dirección de salto inválida: " + operand1);
+                    abortMicroprogram();
+                    break;
+                }
+                pc.set(operand1Value);
                 // Al modificar el PC, debemos anular el microprograma actual para forzar un nuevo FETCH desde la nueva dirección
-                currentMicroprogram = new String[]{}; // Termina el microprograma actual
+                abortMicroprogram(); // Termina el microprograma actual
                 break;
-            case "Cond_Jump_if_Zero":
-                if (interruptManager.hasPending() && interruptManager.queue.poll() == 0) {
-                    executeSignal("Decode_Operand_Addr"); // Reutiliza la señal para obtener la dirección
-                    executeSignal("Address_to_PC"); // Reutiliza la señal para saltar
+            case MicroOp.COND_JUMP_IF_ZERO:
+                if (flags.isZero()) {
+                    executeSignal(MicroOp.DECODE_OPERAND_ADDR); // Reutiliza la señal para obtener la dirección
+                    executeSignal(MicroOp.ADDRESS_TO_PC); // Reutiliza la señal para saltar
                 }
                 break;
-             case "Cond_Jump_if_Not_Zero":
-                if (interruptManager.hasPending() && interruptManager.queue.poll() != 0) {
-                    executeSignal("Decode_Operand_Addr");
-                    executeSignal("Address_to_PC");
+             case MicroOp.COND_JUMP_IF_NOT_ZERO:
+                if (!flags.isZero()) {
+                    executeSignal(MicroOp.DECODE_OPERAND_ADDR);
+                    executeSignal(MicroOp.ADDRESS_TO_PC);
                 }
                 break;
 
             // --- SEÑAL DE HALT ---
-            case "HALT_CPU":
+            case MicroOp.HALT_CPU:
                 this.haltReason = "Ejecución finalizada correctamente por instrucción HLT."; // <-- MENSAJE DE ÉXITO
                 this.halted = true;
+                flushDevices();
                 break;
-            case "Decode_Load_Rdest_AddrImm":
-                if (parts.length > 2) {
-                    this.destination = parts[1]; // R_dest
-                    this.operand1 = parts[2];    // Addr_imm
+            case MicroOp.DECODE_LOAD_OPERANDS:
+                if (decoded.operandCount() > 1) {
+                    this.destinationReg = decoded.register(0); // R_dest
+                    bindOperand1(1);                       // Addr_imm
                 } else {
-                    this.haltReason = "Error: Operandos insuficientes para LOAD_REG_IMM.";
-                    this.halted = true;
-                    currentMicroprogram = new String[0]; // Evitar NullPointerException
+                    fail("Error: Operandos insuficientes para LOAD_REG_IMM.");
+                    abortMicroprogram();
                 }
                 break;
 
-            case "LoadAddr_Operand1_to_MAR":
+            case MicroOp.LOAD_ADDR_TO_MAR:
                 if (this.operand1 != null) {
-                    try {
-                        mar.load(Integer.parseInt(this.operand1)); // this.operand1 contiene Addr_imm
-                    } catch (NumberFormatException e) {
-                        this.haltReason = "Error: Dirección inmediata (Operand1) inválida para LOAD_REG_IMM: " + this.operand1;
-                        this.halted = true;
-                        currentMicroprogram = new String[0];
+                    if (this.operand1IsNumber) {
+                        mar.load(this.operand1Value); // this.operand1 contiene Addr_imm
+                    } else {
+                        fail("Error: Dirección inmediata (Operand1) inválida para LOAD_REG_IMM: " + this.operand1);
+                        abortMicroprogram();
                     }
                 } else {
-                    this.haltReason = "Error: Operando de dirección (Operand1) nulo para LOAD_REG_IMM.";
-                    this.halted = true;
-                    currentMicroprogram = new String[0];
+                    fail("Error: Operando de dirección (Operand1) nulo para LOAD_REG_IMM.");
+                    abortMicroprogram();
                 }
                 break;
 
-            case "MemRead_MAR_to_MBR":
+            case MicroOp.MEM_READ_MAR_TO_MBR:
                 try {
-                    mbr.load(memory.read(mar.get()));
-                    System.out.printf("[CPU] LOAD MBR <- Mem[0x%04X] (valor: %d)%n", mar.get(), mbr.get());
+                    mbr.load(readData(mar.get()));
+                    retiredMemAddr = mar.get();
+                    retiredMemValue = mbr.get();
+                    retiredMemFlags = ExecutionTraceRecorder.FLAG_MEM_READ;
+                    if (tracer.isEnabled(TraceLevel.BUS)) {
+                        tracer.trace(TraceLevel.BUS, "[CPU] LOAD MBR <- Mem[0x%04X] (valor: %d)%n", mar.get(), mbr.get());
+                    }
                 } catch (IndexOutOfBoundsException e) {
-                    this.haltReason = "Error: Acceso fuera de los límites de la memoria en LOAD_REG_IMM. Dirección: " + mar.get();
-                    this.halted = true;
-                    currentMicroprogram = new String[0];
+                    fail(accessError("LOAD_REG_IMM", e));
+                    abortMicroprogram();
                 }
                 break;
 
-            case "WriteMBR_to_Reg_Destination":
-                if (this.destination != null) {
-                    String description = String.format("(Cargado desde Mem[0x%04X])", mar.get());
-                    registerFile.write(this.destination, mbr.get(), description); // this.destination contiene R_dest
+            case MicroOp.MBR_TO_REG_DESTINATION:
+                if (this.destinationReg >= 0) {
+                    registerFile.writeFromMemory(this.destinationReg, mbr.get(), mar.get()); // this.destinationReg es R_dest
+                    retiredRegId = this.destinationReg;
+                    retiredRegValue = mbr.get();
                 } else {
-                    this.haltReason = "Error: Registro destino (destination) nulo para LOAD_REG_IMM.";
-                    this.halted = true;
-                    currentMicroprogram = new String[0];
+                    fail("Error: Registro destino (destination) nulo para LOAD_REG_IMM.");
+                    abortMicroprogram();
                 }
                 break;
 
             default:
-                System.err.println("[MicroCTRL] Error: Señal de control desconocida: " + signal);
+                // No debería ocurrir: las señales desconocidas se rechazan al compilar el microprograma.
+                System.err.println("[MicroCTRL] Error: Señal de control desconocida: " + MicroOp.name(signal));
                 this.halted = true;
                 break;
         }
     }
 
-    private String memoryReadInstruction(int addr) {
-        if (instructionMemory == null || addr < 0 || addr >= instructionMemory.size()) {
+    /**
+     * MBR -> registro destino. La descripción (p.ej. "(ADD R1, R2)") se genera desde
+     * la instrucción solo cuando la vista la pide.
+     */
+    private void writeDestination() {
+        registerFile.writeFromInstruction(destinationReg, mbr.get(), decoded);
+        retiredRegId = destinationReg;
+        retiredRegValue = mbr.get();
+    }
+
+    /**
+     * Control cableado: busca, decodifica y ejecuta una instrucción completa en una sola llamada.
+     * El estado arquitectónico resultante (registros, memoria, MAR/MBR, PC, E/S, motivo de parada)
+     * es el mismo que dejaría su microprograma, y el contador de ciclos avanza los micro-pasos
+     * que habría ejecutado el modo MICRO, incluidos los de una instrucción que se detiene a medias.
+     */
+    private void executeInstructionWired() {
+        // FETCH: PC_out,MAR_in / Mem_read,PC_inc / MBR_out,IR_in / Decode
+        int addr = pc.get();
+        DecodedInstruction instruction = memoryReadInstruction(addr);
+        if (instruction == null) {
+            mar.load(addr);
+            cycleCount += 2;
+            this.halted = true;
+            return;
+        }
+        String mnemonic = controlUnit.decode(instruction);
+        int opcode = instruction.getOpcode();
+        if (opcode < 0) {
+            fetchWired(instruction, addr);
+            cycleCount += 4;
+            fail("Error: La instrucción '" + mnemonic + "' no es reconocida.");
+            System.err.println("[CPU] " + this.haltReason);
+            return;
+        }
+        beginInstructionWired(instruction, addr);
+        int steps = executeWired(opcode); // Antes de sumar: la ejecución puede añadir ciclos de espera
+        cycleCount += 4 + steps;
+        retireInstruction();
+    }
+
+    /** Efectos del FETCH sobre MAR, MBR, IR y PC. */
+    private void fetchWired(DecodedInstruction instruction, int addr) {
+        mar.load(addr);
+        mbr.load(instruction.getText().hashCode()); // Simulado. MBR contendría la instrucción binaria.
+        ir.load(instruction.getText());
+        decoded = instruction;
+        instructionPc = addr;
+        pc.set(addr + 1);
+    }
+
+    /** FETCH y Decode de una instrucción reconocida: deja la CPU lista para ejecutarla. */
+    private void beginInstructionWired(DecodedInstruction instruction, int addr) {
+        fetchWired(instruction, addr);
+        instructionCount++;
+        instructionInFlight = true;
+        retiredRegId = -1;
+        retiredMemAddr = -1;
+        retiredMemFlags = 0;
+        if (tracer.isEnabled(TraceLevel.INSTRUCTION)) {
+            tracer.trace(TraceLevel.INSTRUCTION, "[CPU] %04d: %s%n", addr, instruction.getText());
+        }
+    }
+
+    /**
+     * Ejecuta la instrucción decodificada con la lógica fija de cada instrucción.
+     * Los pasos devueltos corresponden a los microprogramas definidos en el constructor.
+     * @return número de micro-pasos que habría ejecutado el microprograma.
+     */
+    private int executeWired(int opcode) {
+        switch (decoded.getKind()) {
+            case InstructionSet.ADD:          return wiredAdd();
+            case InstructionSet.SUB:          return wiredSub();
+            case InstructionSet.MUL:          return wiredMul();
+            case InstructionSet.MOV_IMM:      return wiredMovImm();
+            case InstructionSet.MOV_REG:      return wiredMovReg();
+            case InstructionSet.OUTPUT_CHAR:  return wiredOutputChar();
+            case InstructionSet.INPUT_CHAR:   return wiredInputChar();
+            case InstructionSet.JMP:          return wiredJmp();
+            case InstructionSet.CMP:          return wiredCmp();
+            case InstructionSet.JE:           return wiredJe();
+            case InstructionSet.JNE:          return wiredJne();
+            case InstructionSet.HLT:          return wiredHlt();
+            case InstructionSet.STORE:        return wiredStore();
+            case InstructionSet.LOAD_REG_IMM: return wiredLoad();
+            default:
+                // Instrucción con microprograma pero sin lógica cableada: se ejecuta su microprograma de una vez.
+                return executeMicroprogram(opcode);
+        }
+    }
+
+    // --- Lógica cableada de cada instrucción. Cada método devuelve los micro-pasos equivalentes. ---
+
+    private int wiredAdd() { return wiredAlu(OpCode.ADD); }
+    private int wiredSub() { return wiredAlu(OpCode.SUB); }
+    private int wiredMul() { return wiredAlu(OpCode.MUL); }
+
+    /** ADD/SUB/MUL: Decode_Operands_R_R_R, ALU, MBR -> registro destino. */
+    private int wiredAlu(OpCode op) {
+        if (decoded.operandCount() > 2) { bindOperand1(0); bindOperand2(1); this.destinationReg = decoded.register(2); }
+        mbr.load(alu.operate(op, registerFile.read(operand1Reg), registerFile.read(operand2Reg)));
+        writeDestination();
+        return 4;
+    }
+
+    private int wiredMovImm() {
+        if (decoded.operandCount() > 1) { this.destinationReg = decoded.register(0); bindOperand1(1); }
+        if (!operand1IsNumber) {
+            fail("Error: Valor inmediato inválido: " + operand1);
+            return 2;
+        }
+        mbr.load(operand1Value);
+        writeDestination();
+        return 3;
+    }
+
+    private int wiredMovReg() {
+        if (decoded.operandCount() > 1) { bindOperand1(0); bindOperand2(1); }
+        mbr.load(registerFile.read(decoded.register(0)));
+        writeDestination();
+        return 3;
+    }
+
+    private int wiredOutputChar() {
+        ioDevices.get(1).write(registerFile.read(accId));
+        return 1;
+    }
+
+    private int wiredInputChar() {
+        int value = ioDevices.get(0).read();
+        registerFile.write(accId, value, "(Entrada de Dispositivo)");
+        retiredRegId = accId;
+        retiredRegValue = value;
+        return 1;
+    }
+
+    private int wiredJmp() {
+        if (decoded.operandCount() > 0) { bindOperand1(0); }
+        jumpWired();
+        return 2;
+    }
+
+    private int wiredCmp() {
+        if (decoded.operandCount() > 1) { bindOperand1(0); bindOperand2(1); }
+        compare();
+        return 3;
+    }
+
+    /** CMP: resta los operandos en la ALU (sin escribir registros) y guarda sus banderas. */
+    private void compare() {
+        alu.operate(OpCode.SUB, registerFile.read(operand1Reg), registerFile.read(operand2Reg));
+        flags.latch(alu);
+    }
+
+    private int wiredJe() {
+        if (flags.isZero()) {
+            if (decoded.operandCount() > 0) { bindOperand1(0); }
+            jumpWired();
+        }
+        return 1;
+    }
+
+    private int wiredJne() {
+        if (!flags.isZero()) {
+            if (decoded.operandCount() > 0) { bindOperand1(0); }
+            jumpWired();
+        }
+        return 1;
+    }
+
+    private int wiredHlt() {
+        this.haltReason = "Ejecución finalizada correctamente por instrucción HLT.";
+        this.halted = true;
+        flushDevices();
+        return 1;
+    }
+
+    /** HLT: entrega los datos que los dispositivos de salida tengan en su búfer. */
+    private void flushDevices() {
+        if (ioDevices == null) {
+            return;
+        }
+        for (IODevice device : ioDevices) {
+            if (device != null) {
+                device.flush();
+            }
+        }
+    }
+
+    private int wiredStore() {
+        if (decoded.operandCount() <= 1) {
+            fail("Error: Operandos insuficientes para STORE_REG_IMM.");
+            return 1;
+        }
+        bindOperand1(0); // R_src
+        bindOperand2(1); // Addr_imm
+        mbr.load(registerFile.read(operand1Reg));
+        if (!operand2IsNumber) {
+            fail("Error: Dirección inmediata (Operand2) inválida para STORE_REG_IMM: " + operand2);
+            return 3;
+        }
+        mar.load(operand2Value);
+        try {
+            writeData(mar.get(), mbr.get());
+            retiredMemAddr = mar.get();
+            retiredMemValue = mbr.get();
+            retiredMemFlags = ExecutionTraceRecorder.FLAG_MEM_WRITE;
+            if (tracer.isEnabled(TraceLevel.BUS)) {
+                tracer.trace(TraceLevel.BUS, "[CPU] STORE Mem[0x%04X] <- %d (desde MBR)%n", mar.get(), mbr.get());
+            }
+        } catch (IndexOutOfBoundsException e) {
+            fail(accessError("STORE_REG_IMM", e));
+        }
+        return 4;
+    }
+
+    private int wiredLoad() {
+        if (decoded.operandCount() <= 1) {
+            fail("Error: Operandos insuficientes para LOAD_REG_IMM.");
+            return 1;
+        }
+        this.destinationReg = decoded.register(0); // R_dest
+        bindOperand1(1);                           // Addr_imm
+        if (!operand1IsNumber) {
+            fail("Error: Dirección inmediata (Operand1) inválida para LOAD_REG_IMM: " + operand1);
+            return 2;
+        }
+        mar.load(operand1Value);
+        try {
+            mbr.load(readData(mar.get()));
+            retiredMemAddr = mar.get();
+            retiredMemValue = mbr.get();
+            retiredMemFlags = ExecutionTraceRecorder.FLAG_MEM_READ;
+            if (tracer.isEnabled(TraceLevel.BUS)) {
+                tracer.trace(TraceLevel.BUS, "[CPU] LOAD MBR <- Mem[0x%04X] (valor: %d)%n", mar.get(), mbr.get());
+            }
+        } catch (IndexOutOfBoundsException e) {
+            fail(accessError("LOAD_REG_IMM", e));
+            return 3;
+        }
+        registerFile.writeFromMemory(this.destinationReg, mbr.get(), mar.get());
+        retiredRegId = this.destinationReg;
+        retiredRegValue = mbr.get();
+        return 4;
+    }
+
+    /** Address_to_PC cableado: salta a operand1 o detiene la CPU si no es una dirección. */
+    private void jumpWired() {
+        if (!operand1IsNumber) {
+            fail("Error: Dirección de salto inválida: " + operand1);
+            return;
+        }
+        pc.set(operand1Value);
+    }
+
+    /**
+     * Ejecuta todas las señales del microprograma del opcode sin volver al bucle de ciclos.
+     * @return número de señales ejecutadas.
+     */
+    private int executeMicroprogram(int opcode) {
+        int[] rom = controlType.getMicroRom();
+        microPC = controlType.entryPoint(opcode);
+        microEnd = microPC + controlType.length(opcode);
+        int steps = 0;
+        while (microPC < microEnd) {
+            executeSignal(rom[microPC]);
+            microPC++;
+            steps++;
+        }
+        microEnd = -1;
+        return steps;
+    }
+
+    // --- Traducción a bloques básicos (modo WIRED) ---
+
+    /**
+     * Ejecuta hasta que la CPU se detenga o se hayan consumido maxCycles micro-ciclos.
+     * En modo WIRED con la traducción activa, ejecuta bloques básicos traducidos completos;
+     * un bloque solo se usa si cabe entero en el presupuesto restante.
+     * @param maxCycles Límite de micro-ciclos (equivalentes) de esta llamada.
+     * @return micro-ciclos ejecutados.
+     */
+    public long run(long maxCycles) {
+        long start = cycleCount;
+        while (!halted && cycleCount - start < maxCycles) {
+            if (blockTranslation && microEnd < 0 && controlType.isWired()) {
+                TranslatedBlock block = blockAt(pc.get());
+                if (block != null && block.maxCycles <= maxCycles - (cycleCount - start)) {
+                    blockDispatches++;
+                    if (jitEnabled && block.executions++ == jitThreshold) {
+                        compileBlock(block);
+                    }
+                    JitRegion region = block.jit;
+                    if (region != null && canRunCompiled()) {
+                        runHandlers(block.handlers, 0, region.first);
+                        if (!halted) {
+                            runCompiled(region);
+                            runHandlers(block.handlers, region.first + region.count, block.handlers.length);
+                        }
+                    } else {
+                        TranslatedBlock.Handler[] handlers = fusionEnabled ? block.chain : block.handlers;
+                        runHandlers(handlers, 0, handlers.length);
+                    }
+                    continue;
+                }
+            }
+            executeCycle();
+        }
+        return cycleCount - start;
+    }
+
+    private void runHandlers(TranslatedBlock.Handler[] handlers, int from, int to) {
+        for (int i = from; i < to && !halted; i++) {
+            handlers[i].execute();
+        }
+    }
+
+    /**
+     * El código compilado no emite traza ni registros de la traza binaria, y accede a la
+     * memoria directamente; con alguna traza activa o un puerto de datos conectado
+     * se ejecuta el bloque interpretado.
+     */
+    private boolean canRunCompiled() {
+        return executionTrace == null && !tracer.isEnabled(TraceLevel.INSTRUCTION) && dataPort == memory;
+    }
+
+    private void compileBlock(TranslatedBlock block) {
+        if (dataPort != memory || memory.getClass() != Memory.class) {
+            return; // Una caché o una memoria especializada tiene efectos en read/write que el código compilado no vería
+        }
+        try {
+            block.jit = BlockCompiler.compile(block.instructions, block.startPc, memory.getSize(), controlType);
+            if (block.jit != null) {
+                compiledBlocks++;
+            }
+        } catch (IllegalStateException e) {
+            block.jit = null; // El bloque sigue interpretándose
+            System.err.println("[JIT] " + e.getMessage() + ": " + e.getCause());
+        }
+    }
+
+    /**
+     * Ejecuta una región compilada y deja la CPU en el mismo estado que el intérprete:
+     * procedencia del último escritor de cada registro, MBR, MAR, IR, PC y operandos enlazados.
+     */
+    private void runCompiled(JitRegion region) {
+        region.code.run(registerFile.valueArray(), memory.cells(), alu);
+
+        int[] values = registerFile.valueArray();
+        for (int i = 0; i < region.writtenRegisters.length; i++) {
+            int id = region.writtenRegisters[i];
+            if (region.loadAddresses[i] >= 0) {
+                registerFile.writeFromMemory(id, values[id], region.loadAddresses[i]);
+            } else {
+                registerFile.writeFromInstruction(id, values[id], region.writers[i]);
+            }
+        }
+        decoded = region.last;
+        ir.load(region.last.getText());
+        instructionPc = region.lastPc;
+        pc.set(region.lastPc + 1);
+        mbr.load(values[region.mbrRegister]);
+        mar.load(region.mar);
+        if (region.operand1Source != null) {
+            bindOperand1(region.operand1Source, region.operand1Index);
+        }
+        if (region.operand2Source != null) {
+            bindOperand2(region.operand2Source, region.operand2Index);
+        }
+        if (region.destinationSet) {
+            destinationReg = region.destination;
+        }
+        instructionCount += region.count;
+        compiledInstructions += region.count;
+        cycleCount += region.cycles;
+    }
+
+    /**
+     * @return el bloque traducido que empieza en addr (traduciéndolo la primera vez),
+     *         o null si en addr no empieza ningún bloque ejecutable.
+     */
+    private TranslatedBlock blockAt(int addr) {
+        if (addr < 0 || addr >= blockCache.length) {
             return null;
         }
-        return instructionMemory.get(addr);
+        TranslatedBlock block = blockCache[addr];
+        if (block == null) {
+            block = translateBlock(addr);
+            blockCache[addr] = block;
+        }
+        return block.isEmpty() ? null : block;
+    }
+
+    private TranslatedBlock translateBlock(int start) {
+        List<TranslatedBlock.Handler> handlers = new ArrayList<>();
+        int maxCycles = 0;
+        for (int addr = start; addr < decodedMemory.length; addr++) {
+            DecodedInstruction instruction = decodedMemory[addr];
+            if (instruction == null || instruction.getOpcode() < 0) {
+                break; // El final del programa y las instrucciones no reconocidas siguen el camino normal
+            }
+            handlers.add(bindHandler(instruction, addr));
+            maxCycles += 4 + controlType.length(instruction.getOpcode());
+            if (endsBlock(instruction.getKind())) {
+                break;
+            }
+        }
+        if (handlers.isEmpty()) {
+            return TranslatedBlock.EMPTY;
+        }
+        translatedBlocks++;
+        DecodedInstruction[] instructions = Arrays.copyOfRange(decodedMemory, start, start + handlers.size());
+        List<TranslatedBlock.Handler> chain = new ArrayList<>(handlers.size());
+        for (int i = 0; i < handlers.size(); i++) {
+            int kind = fusions[start + i];
+            if (kind != Superinstruction.NONE && i + 1 < handlers.size()) {
+                chain.add(bindFused(kind, start + i));
+                i++;
+            } else {
+                chain.add(handlers.get(i));
+            }
+        }
+        return new TranslatedBlock(start, instructions, handlers.toArray(new TranslatedBlock.Handler[0]),
+                chain.toArray(new TranslatedBlock.Handler[0]), maxCycles);
+    }
+
+    private static boolean endsBlock(int kind) {
+        return kind == InstructionSet.JMP || kind == InstructionSet.JE || kind == InstructionSet.JNE
+                || kind == InstructionSet.HLT || kind == InstructionSet.UNKNOWN;
+    }
+
+    /** Enlaza una instrucción a su lógica cableada: FETCH + ejecución + retiro, sin despacho por tipo. */
+    private TranslatedBlock.Handler bindHandler(DecodedInstruction instruction, int addr) {
+        IntSupplier body = wiredBody(instruction);
+        return () -> {
+            beginInstructionWired(instruction, addr);
+            int steps = body.getAsInt();
+            cycleCount += 4 + steps;
+            retireInstruction();
+        };
+    }
+
+    private IntSupplier wiredBody(DecodedInstruction instruction) {
+        switch (instruction.getKind()) {
+            case InstructionSet.ADD:          return this::wiredAdd;
+            case InstructionSet.SUB:          return this::wiredSub;
+            case InstructionSet.MUL:          return this::wiredMul;
+            case InstructionSet.MOV_IMM:      return this::wiredMovImm;
+            case InstructionSet.MOV_REG:      return this::wiredMovReg;
+            case InstructionSet.OUTPUT_CHAR:  return this::wiredOutputChar;
+            case InstructionSet.INPUT_CHAR:   return this::wiredInputChar;
+            case InstructionSet.JMP:          return this::wiredJmp;
+            case InstructionSet.CMP:          return this::wiredCmp;
+            case InstructionSet.JE:           return this::wiredJe;
+            case InstructionSet.JNE:          return this::wiredJne;
+            case InstructionSet.HLT:          return this::wiredHlt;
+            case InstructionSet.STORE:        return this::wiredStore;
+            case InstructionSet.LOAD_REG_IMM: return this::wiredLoad;
+            default:
+                int opcode = instruction.getOpcode();
+                return () -> executeMicroprogram(opcode);
+        }
+    }
+
+    // --- Superinstrucciones ---
+
+    /** Busca en el programa recién cargado los pares de instrucciones que se ejecutarán fusionados. */
+    private void fuseInstructions() {
+        this.fusions = Superinstruction.scan(decodedMemory, accId);
+        Arrays.fill(fusionSites, 0);
+        Arrays.fill(fusedDispatches, 0);
+        for (int kind : fusions) {
+            if (kind != Superinstruction.NONE) {
+                fusionSites[kind]++;
+            }
+        }
+    }
+
+    /**
+     * Enlaza una superinstrucción: ejecuta las dos instrucciones del par con un solo despacho.
+     * Cada instrucción se busca, se cuenta y se retira por separado, así que la traza, los
+     * contadores y el estado final son los mismos que con los manejadores individuales.
+     */
+    private TranslatedBlock.Handler bindFused(int kind, int addr) {
+        DecodedInstruction first = decodedMemory[addr];
+        DecodedInstruction second = decodedMemory[addr + 1];
+        switch (kind) {
+            case Superinstruction.MOV_IMM_ACC_OUTPUT: {
+                int value = first.value(1);
+                return () -> {
+                    beginInstructionWired(first, addr);
+                    this.destinationReg = accId;
+                    bindOperand1(1);
+                    mbr.load(value);
+                    writeDestination();
+                    cycleCount += 4 + 3;
+                    retireInstruction();
+                    beginInstructionWired(second, addr + 1);
+                    ioDevices.get(1).write(value); // ACC acaba de recibir el inmediato
+                    cycleCount += 4 + 1;
+                    retireInstruction();
+                    fusedDispatches[kind]++;
+                };
+            }
+            case Superinstruction.INPUT_OUTPUT:
+                return () -> {
+                    beginInstructionWired(first, addr);
+                    int steps = wiredInputChar();
+                    cycleCount += 4 + steps;
+                    int value = retiredRegValue;
+                    retireInstruction();
+                    beginInstructionWired(second, addr + 1);
+                    ioDevices.get(1).write(value);
+                    cycleCount += 4 + 1;
+                    retireInstruction();
+                    fusedDispatches[kind]++;
+                };
+            default: {
+                boolean jumpIfEqual = (kind == Superinstruction.CMP_JE);
+                return () -> {
+                    beginInstructionWired(first, addr);
+                    bindOperand1(0);
+                    bindOperand2(1);
+                    compare();
+                    cycleCount += 4 + 3;
+                    retireInstruction();
+                    beginInstructionWired(second, addr + 1);
+                    if (flags.isZero() == jumpIfEqual) {
+                        if (second.operandCount() > 0) { bindOperand1(0); }
+                        jumpWired();
+                    }
+                    cycleCount += 4 + 1;
+                    retireInstruction();
+                    fusedDispatches[kind]++;
+                };
+            }
+        }
+    }
+
+    /** Activa o desactiva la ejecución fusionada de superinstrucciones en los bloques traducidos. */
+    public void setFusionEnabled(boolean enabled) {
+        this.fusionEnabled = enabled;
+    }
+
+    public boolean isFusionEnabled() { return fusionEnabled; }
+    /** @return pares del programa cargado fusionados como la superinstrucción dada. */
+    public long getFusionSiteCount(int kind) { return fusionSites[kind]; }
+    /** @return veces que se ejecutó la superinstrucción dada. */
+    public long getFusedDispatchCount(int kind) { return fusedDispatches[kind]; }
+
+    /** @return despachos de manejador ahorrados: uno por cada superinstrucción ejecutada. */
+    public long getSavedDispatchCount() {
+        long saved = 0;
+        for (int kind = 1; kind < Superinstruction.COUNT; kind++) {
+            saved += fusedDispatches[kind];
+        }
+        return saved;
+    }
+
+    /**
+     * Conecta los accesos a datos de la CPU (STORE, LOAD) a un puerto, p.ej. una caché
+     * sobre la memoria principal. La búsqueda de instrucciones no pasa por el puerto.
+     * @param port Puerto de datos; null vuelve al acceso directo a la memoria.
+     */
+    public void setMemoryPort(MemoryPort port) {
+        this.dataPort = (port != null) ? port : memory;
+    }
+
+    public MemoryPort getMemoryPort() { return dataPort; }
+    /** @return ciclos de espera añadidos por la latencia del puerto de datos (fallos de caché). */
+    public long getMemoryStallCycles() { return memoryStallCycles; }
+
+    /** Lectura de datos a través del puerto; su latencia se suma como ciclos de espera. */
+    private int readData(int addr) {
+        int value = dataPort.read(addr);
+        stall(dataPort.lastAccessStall());
+        return value;
+    }
+
+    /** Escritura de datos a través del puerto; su latencia se suma como ciclos de espera. */
+    private void writeData(int addr, int value) {
+        dataPort.write(addr, value);
+        stall(dataPort.lastAccessStall());
+    }
+
+    private void stall(int cycles) {
+        cycleCount += cycles;
+        memoryStallCycles += cycles;
+    }
+
+    /** @return registro del primer operando leído por la última instrucción (-1 si ninguno). */
+    int boundRegister1() { return operand1Reg; }
+    /** @return registro del segundo operando leído por la última instrucción (-1 si ninguno). */
+    int boundRegister2() { return operand2Reg; }
+    /** @return registro escrito por la última instrucción retirada (-1 si ninguno). */
+    int retiredRegister() { return retiredRegId; }
+
+    /**
+     * @return la próxima instrucción que ejecutará la CPU, o null si no está en el límite
+     *         entre dos instrucciones o el PC no apunta a una instrucción.
+     */
+    DecodedInstruction nextInstruction() {
+        return (microEnd < 0 && !halted) ? memoryReadInstruction(pc.get()) : null;
+    }
+
+    /**
+     * Permite a quien ejecuta la CPU ciclo a ciclo esperar a tener entrada antes de
+     * llamar a {@link #executeCycle()}, en vez de que la lectura se bloquee a mitad de ciclo.
+     * @return true si el próximo ciclo lee del dispositivo de entrada: INPUT_CHAR en WIRED,
+     *         o su micro-operación de lectura en MICRO.
+     */
+    public boolean readsInputNext() {
+        if (halted) {
+            return false;
+        }
+        if (microEnd < 0) {
+            if (!controlType.isWired()) {
+                return false; // El próximo ciclo es el primer paso del FETCH
+            }
+            DecodedInstruction next = memoryReadInstruction(pc.get());
+            return next != null && next.getKind() == InstructionSet.INPUT_CHAR;
+        }
+        return controlType.getMicroRom()[microPC] == MicroOp.DEVICE_0_TO_ACC;
+    }
+
+    /** Activa o desactiva la ejecución por bloques traducidos en {@link #run(long)}. */
+    public void setBlockTranslation(boolean enabled) {
+        this.blockTranslation = enabled;
+    }
+
+    /** Activa o desactiva la compilación de bloques calientes en {@link #run(long)}. */
+    public void setJitEnabled(boolean enabled) {
+        this.jitEnabled = enabled;
+    }
+
+    /**
+     * @param threshold Ejecuciones de un bloque traducido antes de compilarlo (mínimo 1).
+     */
+    public void setJitThreshold(int threshold) {
+        if (threshold < 1) {
+            throw new IllegalArgumentException("El umbral del JIT debe ser positivo: " + threshold);
+        }
+        this.jitThreshold = threshold;
+    }
+
+    public boolean isBlockTranslationEnabled() { return blockTranslation; }
+    public boolean isJitEnabled() { return jitEnabled; }
+    /** @return bloques con una región compilada a bytecode desde que se cargó el programa. */
+    public long getCompiledBlockCount() { return compiledBlocks; }
+    /** @return instrucciones ejecutadas por código compilado. */
+    public long getCompiledInstructionCount() { return compiledInstructions; }
+    /** @return instrucciones ejecutadas por el intérprete (micro-operaciones, WIRED o bloques traducidos). */
+    public long getInterpretedInstructionCount() { return instructionCount - compiledInstructions; }
+    /** @return bloques básicos traducidos desde que se cargó el programa. */
+    public long getTranslatedBlockCount() { return translatedBlocks; }
+    /** @return veces que {@link #run(long)} ejecutó un bloque traducido completo. */
+    public long getBlockDispatchCount() { return blockDispatches; }
+
+    /** Motivo de detención por un acceso a datos inválido en la dirección del MAR. */
+    private String accessError(String instruction, IndexOutOfBoundsException e) {
+        if (e instanceof PageFaultException) {
+            return "Error: Fallo de página no resuelto en " + instruction + ". Dirección virtual: " + mar.get();
+        }
+        return "Error: Acceso fuera de los límites de la memoria en " + instruction + ". Dirección: " + mar.get();
+    }
+
+    /** Detiene la CPU por un error de ejecución. */
+    private void fail(String reason) {
+        this.haltReason = reason;
+        this.haltedByError = true;
+        this.halted = true;
+    }
+
+    /**
+     * Marca el fin de la instrucción en curso y, si la traza binaria está activa, la registra.
+     */
+    private void retireInstruction() {
+        instructionInFlight = false;
+        if (executionTrace == null) {
+            return;
+        }
+        int count = Math.min(decoded.operandCount(), 3);
+        int flags = count | retiredMemFlags | (halted ? ExecutionTraceRecorder.FLAG_HALTED : 0);
+        int op0 = 0, op1 = 0, op2 = 0;
+        for (int i = 0; i < count; i++) {
+            int operand;
+            if (decoded.isNumeric(i)) {
+                operand = decoded.value(i);
+                flags |= 1 << (ExecutionTraceRecorder.FLAG_IMMEDIATE_SHIFT + i);
+            } else {
+                operand = decoded.register(i);
+            }
+            if (i == 0) op0 = operand; else if (i == 1) op1 = operand; else op2 = operand;
+        }
+        executionTrace.record(instructionPc, decoded.getOpcode(), op0, op1, op2,
+                retiredRegId, retiredRegValue, retiredMemAddr, retiredMemValue, flags);
+    }
+
+    /**
+     * Empieza a registrar cada instrucción retirada en un archivo de traza binaria.
+     * @param filePath Ruta del archivo (se sobrescribe).
+     * @throws IOException si no se puede crear el archivo.
+     */
+    public void startExecutionTrace(String filePath) throws IOException {
+        stopExecutionTrace();
+        this.executionTrace = new ExecutionTraceRecorder(filePath, controlType.getMnemonics(), registerFile);
+    }
+
+    /**
+     * Termina la traza binaria, volcando los registros pendientes y cerrando el archivo.
+     * No hace nada si no hay traza activa.
+     */
+    public void stopExecutionTrace() {
+        if (executionTrace != null) {
+            ExecutionTraceRecorder trace = executionTrace;
+            executionTrace = null;
+            trace.close();
+        }
+    }
+
+    /**
+     * Termina el microprograma en curso; el siguiente ciclo comenzará con un nuevo FETCH.
+     */
+    private void abortMicroprogram() {
+        microEnd = microPC + 1;
+    }
+
+    /**
+     * Toma el operando i de la instrucción actual como operand1, junto con su valor ya parseado.
+     */
+    private void bindOperand1(int i) {
+        bindOperand1(decoded, i);
+    }
+
+    private void bindOperand1(DecodedInstruction source, int i) {
+        this.operand1 = source.operand(i);
+        this.operand1Reg = source.register(i);
+        this.operand1Value = source.value(i);
+        this.operand1IsNumber = source.isNumeric(i);
+    }
+
+    /**
+     * Toma el operando i de la instrucción actual como operand2, junto con su valor ya parseado.
+     */
+    private void bindOperand2(int i) {
+        bindOperand2(decoded, i);
+    }
+
+    private void bindOperand2(DecodedInstruction source, int i) {
+        this.operand2 = source.operand(i);
+        this.operand2Reg = source.register(i);
+        this.operand2Value = source.value(i);
+        this.operand2IsNumber = source.isNumeric(i);
+    }
+
+    private DecodedInstruction memoryReadInstruction(int addr) {
+        if (addr < 0 || addr >= decodedMemory.length) {
+            return null;
+        }
+        return decodedMemory[addr];
     }
 
     // --- GETTERS Y SETTERS (Sin cambios) ---
@@ -377,13 +1231,35 @@ public class CPU {
     public ProgramCounter getPC() { return this.pc; }
     public IR getIR() { return this.ir; }
     public RegisterFile getRegisterFile() { return this.registerFile; }
+    /** @return el texto de la instrucción en la dirección, o null si no hay ninguna. */
+    public String getInstructionAt(int addr) {
+        return (addr >= 0 && addr < instructionMemory.size()) ? instructionMemory.get(addr) : null;
+    }
     public Memory getMemory() { return this.memory; }
+    /** @return administrador de interrupciones de la CPU (recibe p.ej. los fallos de página de una {@link Mmu}). */
+    public InterruptManager getInterruptManager() { return this.interruptManager; }
     public ALU getAlu() { return this.alu; }
+    /** @return el registro de estado que escribe CMP y leen JE/JNE. */
+    public StatusRegister getFlags() { return this.flags; }
     public MBR getMBR() { return this.mbr; }
     public MAR getMAR() { return this.mar; }
     public ControlWiredOrMicro getControlType() { return this.controlType; }
     public int getPCValue() { return this.pc.get(); }
     public String getIRValue() { return this.ir != null ? this.ir.get() : null; }
-    public int getACCValue() { return this.registerFile.read("ACC"); }
+    public long getCycleCount() { return this.cycleCount; }
+    public long getInstructionCount() { return this.instructionCount; }
+    public int getACCValue() { return this.registerFile.read(accId); }
+    public Tracer getTracer() { return this.tracer; }
+
+    /**
+     * Define el filtro y destino de traza de la CPU, el bus y la unidad de control.
+     * @param tracer Filtro de traza; null equivale a traza desactivada.
+     */
+    public void setTracer(Tracer tracer) {
+        this.tracer = (tracer != null) ? tracer : Tracer.OFF;
+        this.bus.setTracer(this.tracer);
+        this.controlUnit.setTracer(this.tracer);
+    }
+
     public void setIoDevicesList(List<IODevice> devices) { this.ioDevices = new ArrayList<>(devices); }
 }
\ No newline at end of file
@@ -0,0 +1,307 @@
+package Models;
+
+import Enums.ReplacementPolicy;
+import Enums.WritePolicy;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Un nivel de caché asociativa por conjuntos entre la CPU (MAR/MBR) y el siguiente nivel,
+ * que puede ser otra caché o la memoria principal.
+ * Etiquetas, datos y estado de reemplazo se guardan en arreglos primitivos: un acceso
+ * no crea objetos. Cada acceso deja en {@link #lastAccessStall()} los ciclos de espera
+ * que costó según el modelo de latencia de la configuración.
+ */
+public class Cache implements MemoryPort {
+    private final CacheConfig config;
+    private final MemoryPort next;
+    private final int ways;
+    private final int lineShift;
+    private final int lineMask;
+    private final int setMask;
+    private final int lineSize;
+
+    private final int[] tags;       // Número de línea en cada vía (-1 = vacía), conjunto * ways + vía
+    private final boolean[] dirty;
+    private final int[] data;       // lineSize celdas por vía
+    private final long[] lastUse;   // LRU: instante del último acceso a cada vía
+    private final int[] treeBits;   // PLRU: un bit por nodo del árbol de cada conjunto
+    private long clock = 0;
+    private int randomState = 0x2545F491; // Xorshift con semilla fija
+
+    private int lastStall = 0;
+    private long reads = 0;
+    private long writes = 0;
+    private long hits = 0;
+    private long misses = 0;
+    private long evictions = 0;
+    private long writeBacks = 0;
+    private long stallCycles = 0;
+
+    /**
+     * @param config Geometría, políticas y latencias.
+     * @param next   Siguiente nivel (otra caché o la memoria principal).
+     */
+    public Cache(CacheConfig config, MemoryPort next) {
+        this.config = config;
+        this.next = next;
+        this.ways = config.ways;
+        this.lineSize = config.lineSize;
+        this.lineShift = Integer.numberOfTrailingZeros(config.lineSize);
+        this.lineMask = config.lineSize - 1;
+        this.setMask = config.sets() - 1;
+        int entries = config.sets() * ways;
+        this.tags = new int[entries];
+        this.dirty = new boolean[entries];
+        this.data = new int[entries * lineSize];
+        this.lastUse = (config.replacement == ReplacementPolicy.LRU) ? new long[entries] : null;
+        this.treeBits = (config.replacement == ReplacementPolicy.PLRU) ? new int[config.sets()] : null;
+        Arrays.fill(tags, -1);
+    }
+
+    /**
+     * Construye una jerarquía de cachés sobre una memoria.
+     * @param levels Configuraciones de L1 hacia abajo.
+     * @param memory Memoria principal.
+     * @return el primer nivel (el que se conecta a la CPU), o la propia memoria si no hay niveles.
+     */
+    public static MemoryPort hierarchy(List<CacheConfig> levels, Memory memory) {
+        MemoryPort port = memory;
+        for (int i = levels.size() - 1; i >= 0; i--) {
+            port = new Cache(levels.get(i), port);
+        }
+        return port;
+    }
+
+    @Override
+    public int read(int addr) {
+        checkAddress(addr);
+        reads++;
+        int entry = lookup(addr >>> lineShift, true);
+        int value = data[entry * lineSize + (addr & lineMask)];
+        finish(entry);
+        return value;
+    }
+
+    @Override
+    public void write(int addr, int val) {
+        checkAddress(addr);
+        writes++;
+        int line = addr >>> lineShift;
+        if (config.writePolicy == WritePolicy.WRITE_THROUGH) {
+            int entry = lookup(line, false); // Sin asignación en fallo de escritura
+            if (entry >= 0) {
+                data[entry * lineSize + (addr & lineMask)] = val;
+            }
+            next.write(addr, val);
+            lastStall += next.lastAccessStall();
+            finish(entry);
+            return;
+        }
+        int entry = lookup(line, true);
+        data[entry * lineSize + (addr & lineMask)] = val;
+        dirty[entry] = true;
+        finish(entry);
+    }
+
+    @Override
+    public void readBlock(int addr, int[] dst, int offset, int length) {
+        checkRange(addr, length);
+        int stall = 0;
+        for (int done = 0; done < length; ) {
+            int a = addr + done;
+            int n = Math.min(length - done, lineSize - (a & lineMask));
+            reads++;
+            int entry = lookup(a >>> lineShift, true);
+            System.arraycopy(data, entry * lineSize + (a & lineMask), dst, offset + done, n);
+            finish(entry);
+            stall += lastStall;
+            done += n;
+        }
+        lastStall = stall;
+    }
+
+    @Override
+    public void writeBlock(int addr, int[] src, int offset, int length) {
+        checkRange(addr, length);
+        int stall = 0;
+        for (int done = 0; done < length; ) {
+            int a = addr + done;
+            int n = Math.min(length - done, lineSize - (a & lineMask));
+            writes++;
+            boolean through = config.writePolicy == WritePolicy.WRITE_THROUGH;
+            int entry = lookup(a >>> lineShift, !through);
+            if (entry >= 0) {
+                System.arraycopy(src, offset + done, data, entry * lineSize + (a & lineMask), n);
+                dirty[entry] = !through;
+            }
+            if (through) {
+                next.writeBlock(a, src, offset + done, n);
+                lastStall += next.lastAccessStall();
+            }
+            finish(entry);
+            stall += lastStall;
+            done += n;
+        }
+        lastStall = stall;
+    }
+
+    @Override
+    public int getSize() {
+        return next.getSize();
+    }
+
+    @Override
+    public int lastAccessStall() {
+        return lastStall;
+    }
+
+    /**
+     * Busca la línea en su conjunto y, si falla y allocate es true, la trae del siguiente nivel.
+     * Deja en lastStall la latencia del acceso.
+     * @return la entrada (conjunto * ways + vía) con la línea, o -1 si falló sin asignar.
+     */
+    private int lookup(int line, boolean allocate) {
+        lastStall = config.hitLatency;
+        int base = (line & setMask) * ways;
+        for (int w = 0; w < ways; w++) {
+            if (tags[base + w] == line) {
+                hits++;
+                return base + w;
+            }
+        }
+        misses++;
+        lastStall += config.missPenalty;
+        if (!allocate) {
+            return -1;
+        }
+        int entry = base + victim(line & setMask, base);
+        int start = line << lineShift;
+        int length = Math.min(lineSize, next.getSize() - start);
+        if (tags[entry] >= 0) {
+            evictions++;
+            if (dirty[entry]) {
+                writeBacks++;
+                int victimStart = tags[entry] << lineShift;
+                next.writeBlock(victimStart, data, entry * lineSize, Math.min(lineSize, next.getSize() - victimStart));
+                lastStall += next.lastAccessStall();
+            }
+        }
+        next.readBlock(start, data, entry * lineSize, length);
+        lastStall += next.lastAccessStall();
+        tags[entry] = line;
+        dirty[entry] = false;
+        return entry;
+    }
+
+    /** Vía a reemplazar: una vacía si la hay, si no la que indica la política. */
+    private int victim(int set, int base) {
+        for (int w = 0; w < ways; w++) {
+            if (tags[base + w] < 0) {
+                return w;
+            }
+        }
+        switch (config.replacement) {
+            case LRU: {
+                int oldest = 0;
+                for (int w = 1; w < ways; w++) {
+                    if (lastUse[base + w] < lastUse[base + oldest]) {
+                        oldest = w;
+                    }
+                }
+                return oldest;
+            }
+            case PLRU: {
+                // Cada bit indica en qué mitad del subárbol está la vía menos usada (1 = derecha).
+                int bits = treeBits[set];
+                int node = 1;
+                int way = 0;
+                for (int half = ways >> 1; half > 0; half >>= 1) {
+                    boolean right = (bits & (1 << node)) != 0;
+                    if (right) {
+                        way |= half;
+                    }
+                    node = 2 * node + (right ? 1 : 0);
+                }
+                return way;
+            }
+            default: {
+                randomState ^= randomState << 13;
+                randomState ^= randomState >>> 17;
+                randomState ^= randomState << 5;
+                return (randomState & 0x7FFFFFFF) % ways;
+            }
+        }
+    }
+
+    /** Actualiza el estado de reemplazo tras un acceso a la entrada y acumula la espera. */
+    private void finish(int entry) {
+        stallCycles += lastStall;
+        if (entry < 0) {
+            return;
+        }
+        if (lastUse != null) {
+            lastUse[entry] = ++clock;
+        } else if (treeBits != null) {
+            int set = entry / ways;
+            int way = entry - set * ways;
+            int bits = treeBits[set];
+            int node = 1;
+            for (int half = ways >> 1; half > 0; half >>= 1) {
+                boolean right = (way & half) != 0;
+                // Apuntar a la otra mitad: la vía recién usada deja de ser candidata.
+                bits = right ? (bits & ~(1 << node)) : (bits | (1 << node));
+                node = 2 * node + (right ? 1 : 0);
+            }
+            treeBits[set] = bits;
+        }
+    }
+
+    private void checkAddress(int addr) {
+        if (addr < 0 || addr >= getSize()) {
+            throw new IndexOutOfBoundsException("Dirección fuera de rango: " + addr);
+        }
+    }
+
+    private void checkRange(int addr, int length) {
+        if (length < 0 || addr < 0 || addr > getSize() - length) {
+            throw new IndexOutOfBoundsException("Rango fuera de memoria: [" + addr + ", " + ((long) addr + length) + ")");
+        }
+    }
+
+    /**
+     * Vuelca al siguiente nivel las líneas modificadas (y las de los niveles inferiores),
+     * para que la memoria principal refleje todas las escrituras. No cuenta en las estadísticas.
+     */
+    public void flush() {
+        for (int entry = 0; entry < tags.length; entry++) {
+            if (tags[entry] >= 0 && dirty[entry]) {
+                int start = tags[entry] << lineShift;
+                next.writeBlock(start, data, entry * lineSize, Math.min(lineSize, next.getSize() - start));
+                dirty[entry] = false;
+            }
+        }
+        if (next instanceof Cache) {
+            ((Cache) next).flush();
+        }
+    }
+
+    public CacheConfig getConfig() { return config; }
+    /** @return el siguiente nivel de la jerarquía. */
+    public MemoryPort getNext() { return next; }
+    public long getReads() { return reads; }
+    public long getWrites() { return writes; }
+    public long getHits() { return hits; }
+    public long getMisses() { return misses; }
+    public long getEvictions() { return evictions; }
+    public long getWriteBacks() { return writeBacks; }
+    /** @return ciclos de espera acumulados por los accesos a este nivel (incluye los niveles inferiores). */
+    public long getStallCycles() { return stallCycles; }
+
+    /** @return aciertos / accesos (0 si no hubo accesos). */
+    public double getHitRate() {
+        long accesses = hits + misses;
+        return (accesses > 0) ? (double) hits / accesses : 0.0;
+    }
+}
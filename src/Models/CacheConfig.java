@@ -0,0 +1,105 @@
+package Models;
+
+import Enums.ReplacementPolicy;
+import Enums.WritePolicy;
+
+/**
+ * Parámetros de un nivel de caché.
+ * Se puede construir directamente o desde una especificación de texto con {@link #parse(String)}.
+ */
+public final class CacheConfig {
+    public final String name;
+    public final int size;       // Capacidad en celdas
+    public final int lineSize;   // Celdas por línea (potencia de dos)
+    public final int ways;       // Vías por conjunto (potencia de dos, hasta 32)
+    public final ReplacementPolicy replacement;
+    public final WritePolicy writePolicy;
+    public final int hitLatency;  // Ciclos de espera de cada acceso a este nivel
+    public final int missPenalty; // Ciclos de espera adicionales al acceder al siguiente nivel
+
+    /**
+     * @throws IllegalArgumentException si la geometría no es válida: línea y vías potencias de dos,
+     *         y la capacidad un múltiplo de línea * vías que dé un número de conjuntos potencia de dos.
+     */
+    public CacheConfig(String name, int size, int lineSize, int ways, ReplacementPolicy replacement,
+                       WritePolicy writePolicy, int hitLatency, int missPenalty) {
+        if (!isPowerOfTwo(lineSize) || !isPowerOfTwo(ways) || ways > 32) {
+            throw new IllegalArgumentException("Caché " + name + ": la línea y las vías deben ser potencias de dos (vías <= 32).");
+        }
+        if (size <= 0 || size % (lineSize * ways) != 0 || !isPowerOfTwo(size / (lineSize * ways))) {
+            throw new IllegalArgumentException("Caché " + name + ": la capacidad " + size
+                    + " debe ser línea * vías * (potencia de dos).");
+        }
+        if (hitLatency < 0 || missPenalty < 0) {
+            throw new IllegalArgumentException("Caché " + name + ": las latencias no pueden ser negativas.");
+        }
+        if (replacement == null || writePolicy == null) {
+            throw new IllegalArgumentException("Caché " + name + ": faltan las políticas de reemplazo o de escritura.");
+        }
+        this.name = name;
+        this.size = size;
+        this.lineSize = lineSize;
+        this.ways = ways;
+        this.replacement = replacement;
+        this.writePolicy = writePolicy;
+        this.hitLatency = hitLatency;
+        this.missPenalty = missPenalty;
+    }
+
+    private static boolean isPowerOfTwo(int n) {
+        return n > 0 && (n & (n - 1)) == 0;
+    }
+
+    /** @return número de conjuntos de la caché. */
+    public int sets() {
+        return size / (lineSize * ways);
+    }
+
+    /**
+     * Lee una especificación "nombre:clave=valor,...", p.ej.
+     * "L1:size=256,line=4,ways=2,replace=lru,write=back,hit=0,miss=10".
+     * Claves: size, line, ways, replace (lru|plru|random), write (back|through), hit, miss.
+     * Las claves omitidas toman los valores de ese ejemplo; el nombre es opcional.
+     * @throws IllegalArgumentException si la especificación no es válida.
+     */
+    public static CacheConfig parse(String spec) {
+        String name = "L1";
+        String params = spec;
+        int colon = spec.indexOf(':');
+        if (colon >= 0) {
+            name = spec.substring(0, colon);
+            params = spec.substring(colon + 1);
+        }
+        int size = 256, line = 4, ways = 2, hit = 0, miss = 10;
+        ReplacementPolicy replacement = ReplacementPolicy.LRU;
+        WritePolicy write = WritePolicy.WRITE_BACK;
+        for (String entry : params.split(",")) {
+            if (entry.isBlank()) {
+                continue;
+            }
+            String[] kv = entry.split("=", 2);
+            if (kv.length != 2) {
+                throw new IllegalArgumentException("Parámetro de caché inválido: " + entry);
+            }
+            String value = kv[1].trim();
+            switch (kv[0].trim()) {
+                case "size":    size = Integer.parseInt(value); break;
+                case "line":    line = Integer.parseInt(value); break;
+                case "ways":    ways = Integer.parseInt(value); break;
+                case "hit":     hit = Integer.parseInt(value); break;
+                case "miss":    miss = Integer.parseInt(value); break;
+                case "replace": replacement = ReplacementPolicy.valueOf(value.toUpperCase()); break;
+                case "write":   write = WritePolicy.valueOf("WRITE_" + value.toUpperCase()); break;
+                default:
+                    throw new IllegalArgumentException("Parámetro de caché desconocido: " + kv[0]);
+            }
+        }
+        return new CacheConfig(name, size, line, ways, replacement, write, hit, miss);
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%s: %d celdas, línea %d, %d vías, %s, %s, acierto %d, fallo +%d",
+                name, size, lineSize, ways, replacement, writePolicy, hitLatency, missPenalty);
+    }
+}
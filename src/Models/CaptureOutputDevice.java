@@ -0,0 +1,51 @@
+package Models;
+
+/**
+ * Dispositivo de salida que guarda en memoria los caracteres escritos, hasta un máximo.
+ * Los caracteres que no caben se descartan y se marca la salida como truncada.
+ */
+public class CaptureOutputDevice extends IODevice {
+    private final StringBuilder buffer = new StringBuilder();
+    private final int maxChars;
+    private boolean truncated = false;
+
+    /**
+     * @param id       Identificador del dispositivo.
+     * @param maxChars Máximo de caracteres que se guardan.
+     */
+    public CaptureOutputDevice(String id, int maxChars) {
+        super(id);
+        if (maxChars < 0) {
+            throw new IllegalArgumentException("Capacidad de salida inválida: " + maxChars);
+        }
+        this.maxChars = maxChars;
+        this.status = "OPEN";
+    }
+
+    @Override
+    public void write(int data) {
+        if (buffer.length() < maxChars) {
+            buffer.append((char) data);
+        } else {
+            truncated = true;
+        }
+    }
+
+    /**
+     * Dispositivo de salida no soporta lectura.
+     */
+    @Override
+    public int read() {
+        throw new UnsupportedOperationException("CaptureOutputDevice no soporta read().");
+    }
+
+    /** @return los caracteres escritos hasta ahora. */
+    public String getContents() {
+        return buffer.toString();
+    }
+
+    /** @return true si se descartó algún carácter por falta de espacio. */
+    public boolean isTruncated() {
+        return truncated;
+    }
+}
@@ -0,0 +1,110 @@
+package Models;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Bus compartido entre las cachés privadas de varios núcleos y la memoria principal.
+ * Difunde cada transacción a las demás cachés (snooping MESI) y cuenta el tráfico de
+ * coherencia: lecturas (BusRd), lecturas exclusivas (BusRdX), subidas de SHARED a
+ * MODIFIED (BusUpgr), invalidaciones y volcados de líneas modificadas a memoria.
+ * Las transacciones se hacen de una en una; quien lo use desde varios hilos debe serializarlas.
+ */
+public class CoherenceBus {
+    private final Memory memory;
+    private final int lineSize;
+    private final List<CoherentCache> caches = new ArrayList<>();
+
+    private long busReads = 0;
+    private long busReadExclusives = 0;
+    private long busUpgrades = 0;
+    private long invalidations = 0;
+    private long writeBacks = 0;
+
+    /**
+     * @param memory   Memoria principal compartida.
+     * @param lineSize Celdas por línea de caché.
+     */
+    public CoherenceBus(Memory memory, int lineSize) {
+        if (lineSize <= 0) {
+            throw new IllegalArgumentException("Tamaño de línea inválido: " + lineSize);
+        }
+        this.memory = memory;
+        this.lineSize = lineSize;
+    }
+
+    /**
+     * Crea una caché privada conectada a este bus.
+     * @param lines Número de líneas de la caché.
+     */
+    public CoherentCache attach(int lines) {
+        CoherentCache cache = new CoherentCache(caches.size(), this, lines);
+        caches.add(cache);
+        return cache;
+    }
+
+    /** BusRd: trae la línea para lectura. @return SHARED si otra caché la tenía, EXCLUSIVE si no. */
+    byte read(CoherentCache requester, int line, int[] dst, int offset) {
+        busReads++;
+        boolean shared = false;
+        for (CoherentCache cache : caches) {
+            if (cache != requester && cache.snoopRead(line)) {
+                shared = true;
+            }
+        }
+        fill(line, dst, offset);
+        return shared ? CoherentCache.SHARED : CoherentCache.EXCLUSIVE;
+    }
+
+    /** BusRdX: trae la línea para escritura, invalidando las demás copias. @return MODIFIED. */
+    byte readExclusive(CoherentCache requester, int line, int[] dst, int offset) {
+        busReadExclusives++;
+        invalidateOthers(requester, line);
+        fill(line, dst, offset);
+        return CoherentCache.MODIFIED;
+    }
+
+    /** BusUpgr: la línea ya está en la caché (SHARED) y se va a escribir. */
+    void upgrade(CoherentCache requester, int line) {
+        busUpgrades++;
+        invalidateOthers(requester, line);
+    }
+
+    /** Vuelca una línea modificada a la memoria principal. */
+    void writeBack(int line, int[] src, int offset) {
+        writeBacks++;
+        memory.writeBlock(line * lineSize, src, offset, lineLength(line));
+    }
+
+    private void invalidateOthers(CoherentCache requester, int line) {
+        for (CoherentCache cache : caches) {
+            if (cache != requester && cache.snoopInvalidate(line)) {
+                invalidations++;
+            }
+        }
+    }
+
+    private void fill(int line, int[] dst, int offset) {
+        memory.readBlock(line * lineSize, dst, offset, lineLength(line));
+    }
+
+    /** La última línea puede quedar incompleta si el tamaño de memoria no es múltiplo de la línea. */
+    private int lineLength(int line) {
+        return Math.min(lineSize, memory.getSize() - line * lineSize);
+    }
+
+    public Memory getMemory() { return memory; }
+    public int getLineSize() { return lineSize; }
+    public List<CoherentCache> getCaches() { return Collections.unmodifiableList(caches); }
+    public long getBusReads() { return busReads; }
+    public long getBusReadExclusives() { return busReadExclusives; }
+    public long getBusUpgrades() { return busUpgrades; }
+    public long getInvalidations() { return invalidations; }
+    public long getWriteBacks() { return writeBacks; }
+
+    /** @return transacciones de bus: lecturas, lecturas exclusivas, subidas y volcados. */
+    public long getTransactionCount() {
+        return busReads + busReadExclusives + busUpgrades + writeBacks;
+    }
+}
@@ -0,0 +1,168 @@
+package Models;
+
+import java.util.Arrays;
+
+/**
+ * Caché privada de un núcleo, de correspondencia directa y coherente por MESI.
+ * Los aciertos se resuelven sin usar el bus; los fallos, las subidas de SHARED a
+ * MODIFIED y los desalojos de líneas modificadas pasan por el {@link CoherenceBus},
+ * que avisa (snoop) a las demás cachés.
+ */
+public class CoherentCache implements MemoryPort {
+    // Estados MESI de una línea
+    public static final byte INVALID = 0;
+    public static final byte SHARED = 1;
+    public static final byte EXCLUSIVE = 2;
+    public static final byte MODIFIED = 3;
+
+    private static final char[] STATE_NAMES = {'I', 'S', 'E', 'M'};
+
+    private final int id;
+    private final CoherenceBus bus;
+    private final int lines;
+    private final int lineSize;
+    private final int[] tags;     // Número de línea de memoria guardado en cada entrada
+    private final byte[] states;  // Estado MESI de cada entrada
+    private final int[] data;     // lines * lineSize celdas
+    private long hits = 0;
+    private long misses = 0;
+
+    CoherentCache(int id, CoherenceBus bus, int lines) {
+        if (lines <= 0) {
+            throw new IllegalArgumentException("Número de líneas de caché inválido: " + lines);
+        }
+        this.id = id;
+        this.bus = bus;
+        this.lines = lines;
+        this.lineSize = bus.getLineSize();
+        this.tags = new int[lines];
+        this.states = new byte[lines];
+        this.data = new int[lines * lineSize];
+        Arrays.fill(tags, -1);
+    }
+
+    @Override
+    public int read(int addr) {
+        int entry = lookup(addr, false);
+        return data[entry * lineSize + addr % lineSize];
+    }
+
+    @Override
+    public void write(int addr, int val) {
+        int entry = lookup(addr, true);
+        data[entry * lineSize + addr % lineSize] = val;
+    }
+
+    @Override
+    public int getSize() {
+        return bus.getMemory().getSize();
+    }
+
+    /**
+     * Deja en la caché la línea de addr con permiso de lectura o de escritura.
+     * @return la entrada de la caché que contiene la línea.
+     */
+    private int lookup(int addr, boolean write) {
+        if (addr < 0 || addr >= getSize()) {
+            throw new IndexOutOfBoundsException("Dirección fuera de rango: " + addr);
+        }
+        int line = addr / lineSize;
+        int entry = line % lines;
+        if (tags[entry] == line && states[entry] != INVALID) {
+            hits++;
+            if (write) {
+                if (states[entry] == SHARED) {
+                    bus.upgrade(this, line); // Invalida las copias de los demás núcleos
+                }
+                states[entry] = MODIFIED;
+            }
+            return entry;
+        }
+        misses++;
+        if (tags[entry] >= 0 && states[entry] == MODIFIED) {
+            bus.writeBack(tags[entry], data, entry * lineSize);
+        }
+        tags[entry] = line;
+        states[entry] = write
+                ? bus.readExclusive(this, line, data, entry * lineSize)
+                : bus.read(this, line, data, entry * lineSize);
+        return entry;
+    }
+
+    /**
+     * @return true si el acceso se resuelve en esta caché sin ninguna transacción de bus.
+     */
+    boolean canServeLocally(int addr, boolean write) {
+        if (addr < 0 || addr >= getSize()) {
+            return false;
+        }
+        int line = addr / lineSize;
+        int entry = line % lines;
+        if (tags[entry] != line) {
+            return false;
+        }
+        return write ? states[entry] >= EXCLUSIVE : states[entry] != INVALID;
+    }
+
+    // --- Snooping: llamado por el bus cuando otro núcleo pide una línea ---
+
+    /**
+     * Otro núcleo lee la línea (BusRd): una copia modificada se vuelca a memoria y
+     * toda copia válida pasa a SHARED.
+     * @return true si esta caché tenía una copia válida.
+     */
+    boolean snoopRead(int line) {
+        int entry = line % lines;
+        if (tags[entry] != line || states[entry] == INVALID) {
+            return false;
+        }
+        if (states[entry] == MODIFIED) {
+            bus.writeBack(line, data, entry * lineSize);
+        }
+        states[entry] = SHARED;
+        return true;
+    }
+
+    /**
+     * Otro núcleo va a escribir la línea (BusRdX o BusUpgr): una copia modificada se
+     * vuelca a memoria y la copia local se invalida.
+     * @return true si esta caché tenía una copia válida.
+     */
+    boolean snoopInvalidate(int line) {
+        int entry = line % lines;
+        if (tags[entry] != line || states[entry] == INVALID) {
+            return false;
+        }
+        if (states[entry] == MODIFIED) {
+            bus.writeBack(line, data, entry * lineSize);
+        }
+        states[entry] = INVALID;
+        return true;
+    }
+
+    /**
+     * Vuelca a memoria todas las líneas modificadas, que pasan a EXCLUSIVE.
+     * Tras llamarlo, la memoria principal refleja todas las escrituras de este núcleo.
+     */
+    public void flush() {
+        for (int entry = 0; entry < lines; entry++) {
+            if (states[entry] == MODIFIED) {
+                bus.writeBack(tags[entry], data, entry * lineSize);
+                states[entry] = EXCLUSIVE;
+            }
+        }
+    }
+
+    /** @return letra del estado MESI de la línea que contiene addr en esta caché (I si no está). */
+    public char stateOf(int addr) {
+        int line = addr / lineSize;
+        int entry = line % lines;
+        return (tags[entry] == line) ? STATE_NAMES[states[entry]] : 'I';
+    }
+
+    public int getId() { return id; }
+    public int getLineCount() { return lines; }
+    public int getLineSize() { return lineSize; }
+    public long getHits() { return hits; }
+    public long getMisses() { return misses; }
+}
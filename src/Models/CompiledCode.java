@@ -0,0 +1,16 @@
+package Models;
+
+/**
+ * Código de una región de instrucciones compilada a bytecode JVM por {@link BlockCompiler}.
+ * Las clases que la implementan se generan en tiempo de ejecución como clases ocultas.
+ */
+interface CompiledCode {
+    /**
+     * Ejecuta la región.
+     * @param regs   Valores del banco de registros, indexados por id.
+     * @param memory Celdas de la memoria de datos.
+     * @param alu    ALU de la CPU; solo la última operación aritmética de la región la usa,
+     *               para dejar sus banderas igual que el intérprete.
+     */
+    void run(int[] regs, int[] memory, ALU alu);
+}
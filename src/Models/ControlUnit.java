@@ -1,6 +1,9 @@
 package Models;
 
+import Enums.TraceLevel;
+
 import java.util.Arrays;
+import java.util.List;
 // Ya no necesita importar Map ni HashMap directamente si el microprograma
 // y su gestión se delegan a ControlWiredOrMicro.
 
@@ -10,6 +13,7 @@ import java.util.Arrays;
  */
 public class ControlUnit {
     private ControlWiredOrMicro controlLogic; // Referencia a la lógica de control (cableada/micro)
+    private Tracer tracer = Tracer.OFF;
 
     /**
      * Crea una ControlUnit.
@@ -24,6 +28,14 @@ public class ControlUnit {
         this.controlLogic = controlLogic;
     }
 
+    /**
+     * Define el destino de la traza de señales generadas (nivel MICRO_OP).
+     * @param tracer Filtro de traza; null equivale a traza desactivada.
+     */
+    public void setTracer(Tracer tracer) {
+        this.tracer = (tracer != null) ? tracer : Tracer.OFF;
+    }
+
     // El método loadMicroprogram(Map<String, String[]> microprog) ya no es necesario aquí,
     // ya que la carga y gestión del microprograma se realiza en la clase ControlWiredOrMicro.
 
@@ -47,6 +59,42 @@ public class ControlUnit {
         return parts[0]; // parts[0] siempre existirá si instr.isBlank() es falso después de trim().
     }
 
+    /**
+     * Devuelve el mnemonic de una instrucción ya decodificada, sin volver a partir el texto.
+     *
+     * @param instr Instrucción pre-decodificada.
+     * @return El mnemonic de la instrucción.
+     * @throws IllegalStateException Si la instrucción es nula.
+     */
+    public String decode(DecodedInstruction instr) {
+        if (instr == null) {
+            throw new IllegalStateException("No hay instrucción decodificada.");
+        }
+        return instr.getMnemonic();
+    }
+
+    /**
+     * Decodifica todo el programa una sola vez. El resultado se indexa por la
+     * dirección de la memoria de instrucciones; las líneas vacías quedan como null.
+     * Cada instrucción queda asociada a su opcode en el microprograma compilado
+     * y sus operandos a ids del banco de registros.
+     *
+     * @param program Líneas del programa.
+     * @param registerFile Banco de registros donde se resuelven los nombres de registro.
+     * @return Caché de instrucciones decodificadas, del mismo tamaño que el programa.
+     */
+    public DecodedInstruction[] predecode(List<String> program, RegisterFile registerFile) {
+        DecodedInstruction[] decoded = new DecodedInstruction[program.size()];
+        for (int addr = 0; addr < decoded.length; addr++) {
+            decoded[addr] = DecodedInstruction.parse(program.get(addr));
+            if (decoded[addr] != null) {
+                decoded[addr].setOpcode(controlLogic.opcodeOf(decoded[addr].getMnemonic()));
+                decoded[addr].resolveRegisters(registerFile);
+            }
+        }
+        return decoded;
+    }
+
     /**
      * Genera y emite las señales de control correspondientes al mnemonic dado,
      * usando el microprograma y el modo obtenidos de la instancia ControlWiredOrMicro.
@@ -54,6 +102,9 @@ public class ControlUnit {
      * @param mnemonic El opcode decodificado.
      */
     public void generateSignals(String mnemonic) {
+        if (!tracer.isEnabled(TraceLevel.MICRO_OP)) {
+            return; // Las señales solo se emiten como traza
+        }
         String[] signals = null;
         String currentMode = controlLogic.getMode(); // Obtener el modo actual (WIRED o MICRO)
 
@@ -64,18 +115,16 @@ public class ControlUnit {
             }
 
             if (signals != null && signals.length > 0) {
-                System.out.println("[CTRL] (" + currentMode + ") Generando señales para: " + mnemonic);
+                tracer.trace(TraceLevel.MICRO_OP, "[CTRL] (%s) Generando señales para: %s%n", currentMode, mnemonic);
                 for (String sig : signals) { // Bucle for-each es más simple aquí
-                    System.out.println("[CTRL] Señal -> " + sig);
+                    tracer.trace(TraceLevel.MICRO_OP, "[CTRL] Señal -> %s%n", sig);
                 }
             } else {
-                System.out.println("[CTRL] (" + currentMode + ") No existe microprograma para: " + mnemonic + " o el microprograma no está cargado.");
+                tracer.trace(TraceLevel.MICRO_OP, "[CTRL] (%s) No existe microprograma para: %s o el microprograma no está cargado.%n", currentMode, mnemonic);
             }
         } else if ("WIRED".equals(currentMode)) {
-            // Lógica para control cableado (actualmente solo un mensaje)
-            System.out.println("[CTRL] (" + currentMode + ") Control cableado activado para: " + mnemonic + ". (Simulación de señales específicas para WIRED no implementada).");
-            // Aquí podrías tener una lógica diferente para generar/simular señales cableadas
-            // si decides implementar esa funcionalidad en detalle.
+            // En control cableado no hay señales individuales: la CPU ejecuta la instrucción completa.
+            tracer.trace(TraceLevel.MICRO_OP, "[CTRL] (%s) Control cableado: %s se ejecuta en un solo ciclo.%n", currentMode, mnemonic);
         } else {
             System.err.println("[CTRL] Modo de control desconocido: " + currentMode);
         }
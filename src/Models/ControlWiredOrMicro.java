@@ -6,20 +6,85 @@ import java.util.HashMap;
 /**
  * Control por cableado o microprogramado: permite cargar un microprograma
  * y alternar entre modos WIRED y MICRO.
+ * En MICRO la CPU ejecuta una micro-operación por ciclo; en WIRED ejecuta una
+ * instrucción completa por ciclo, con la lógica de cada instrucción fija en la CPU.
+ * Al cargarse, el microprograma se compila a una ROM de micro-operaciones
+ * ({@link MicroOp}) con una tabla de puntos de entrada por opcode.
  */
 public class ControlWiredOrMicro {
+    /** Nombre reservado del microprograma de búsqueda de instrucción. */
+    public static final String FETCH = "FETCH";
+
     private String mode = "WIRED";
     private Map<String, String[]> microprogram = new HashMap<>();
 
+    // --- Microprograma compilado ---
+    private int[] microRom = new int[0];           // Micro-operaciones de todos los microprogramas, consecutivas
+    private Map<String, Integer> opcodes = new HashMap<>(); // mnemonic -> opcode
+    private int[] entryPoints = new int[0];        // opcode -> posición de inicio en la ROM
+    private int[] lengths = new int[0];            // opcode -> número de micro-operaciones
+    private String[] mnemonics = new String[0];    // opcode -> mnemonic
+    private int fetchEntry = 0;
+    private int fetchLength = 0;
+
     /**
-     * Carga un microprograma (mnemonic -> array de señales) y activa el modo MICRO.
-     * @param microprog Mapa de mnemonic a señales.
+     * Carga un microprograma (mnemonic -> array de señales), lo compila a la ROM
+     * de micro-operaciones y activa el modo MICRO.
+     * @param microprog Mapa de mnemonic a señales. Debe contener la entrada "FETCH".
+     * @throws IllegalArgumentException si falta FETCH o alguna señal no es reconocida.
      */
     public void loadMicroprogram(Map<String, String[]> microprog) {
+        compile(microprog);
         this.microprogram = microprog;
         this.mode = "MICRO";
     }
 
+    private void compile(Map<String, String[]> microprog) {
+        if (microprog == null || microprog.get(FETCH) == null) {
+            throw new IllegalArgumentException("El microprograma debe definir " + FETCH + ".");
+        }
+        int total = 0;
+        for (String[] signals : microprog.values()) {
+            total += signals.length;
+        }
+
+        int[] rom = new int[total];
+        Map<String, Integer> codes = new HashMap<>();
+        int[] entries = new int[microprog.size()];
+        int[] lens = new int[microprog.size()];
+        String[] names = new String[microprog.size()];
+        int pos = 0;
+        int opcode = 0;
+        int fetchAt = 0;
+        for (Map.Entry<String, String[]> e : microprog.entrySet()) {
+            String[] signals = e.getValue();
+            entries[opcode] = pos;
+            lens[opcode] = signals.length;
+            for (String signal : signals) {
+                int op = MicroOp.fromName(signal);
+                if (op < 0) {
+                    throw new IllegalArgumentException("Señal de control desconocida en el microprograma de "
+                            + e.getKey() + ": " + signal);
+                }
+                rom[pos++] = op;
+            }
+            if (FETCH.equals(e.getKey())) {
+                fetchAt = opcode;
+            }
+            codes.put(e.getKey(), opcode);
+            names[opcode] = e.getKey();
+            opcode++;
+        }
+
+        this.microRom = rom;
+        this.opcodes = codes;
+        this.entryPoints = entries;
+        this.lengths = lens;
+        this.mnemonics = names;
+        this.fetchEntry = entries[fetchAt];
+        this.fetchLength = lens[fetchAt];
+    }
+
     /**
      * Cambia el modo de control.
      * @param m Debe ser "WIRED" o "MICRO".
@@ -40,9 +105,59 @@ public class ControlWiredOrMicro {
     }
 
     /**
-     * Obtiene el microprograma cargado.
+     * @return true si la CPU debe ejecutar cada instrucción completa en un solo ciclo (control cableado).
+     */
+    public boolean isWired() {
+        return "WIRED".equals(mode);
+    }
+
+    /**
+     * Obtiene el microprograma cargado (forma legible, con nombres de señal).
      */
     public Map<String, String[]> getMicroprogram() {
         return microprogram;
     }
+
+    /**
+     * Obtiene la ROM de micro-operaciones compilada.
+     */
+    public int[] getMicroRom() {
+        return microRom;
+    }
+
+    /**
+     * Traduce un mnemonic a su opcode en la tabla de puntos de entrada.
+     * @return el opcode, o -1 si no hay microprograma para ese mnemonic.
+     */
+    public int opcodeOf(String mnemonic) {
+        Integer opcode = opcodes.get(mnemonic);
+        return (opcode != null) ? opcode : -1;
+    }
+
+    /**
+     * @return la tabla opcode -> mnemonic del microprograma compilado (copia).
+     */
+    public String[] getMnemonics() {
+        return mnemonics.clone();
+    }
+
+    /** @return posición en la ROM de la primera micro-operación del opcode. */
+    public int entryPoint(int opcode) {
+        return entryPoints[opcode];
+    }
+
+    /** @return número de micro-operaciones del microprograma del opcode. */
+    public int length(int opcode) {
+        return lengths[opcode];
+    }
+
+    /** @return posición en la ROM del microprograma FETCH. */
+    public int getFetchEntry() {
+        return fetchEntry;
+    }
+
+    /** @return número de micro-operaciones del microprograma FETCH. */
+    public int getFetchLength() {
+        return fetchLength;
+    }
 }
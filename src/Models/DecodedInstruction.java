@@ -0,0 +1,150 @@
+package Models;
+
+import java.util.Arrays;
+
+/**
+ * Instrucción ya decodificada: mnemonic, operandos y valores inmediatos
+ * parseados una sola vez al cargar el programa.
+ * La CPU la consulta en cada micro-señal en lugar de volver a partir el texto del IR.
+ */
+public final class DecodedInstruction {
+    private final String text;
+    private final String mnemonic;
+    private final int kind;        // Código fijo de InstructionSet (modo WIRED)
+    private final String[] operands;
+    private final int[] values;
+    private final boolean[] numeric;
+    private final int[] registers;
+    private int opcode = -1; // Entrada en la tabla de microprogramas; la asigna la ControlUnit
+
+    private DecodedInstruction(String text, String mnemonic, String[] operands, int[] values, boolean[] numeric) {
+        this.text = text;
+        this.mnemonic = mnemonic;
+        this.kind = InstructionSet.kindOf(mnemonic);
+        this.operands = operands;
+        this.values = values;
+        this.numeric = numeric;
+        this.registers = new int[operands.length];
+        Arrays.fill(this.registers, -1);
+    }
+
+    /**
+     * Decodifica una línea de programa.
+     * @param line línea completa (p.ej. "ADD R1 R2 R3").
+     * @return la instrucción decodificada, o null si la línea es nula o está vacía.
+     */
+    public static DecodedInstruction parse(String line) {
+        if (line == null || line.isBlank()) {
+            return null;
+        }
+        String[] parts = line.trim().split("\\s+");
+        int count = parts.length - 1;
+        String[] operands = new String[count];
+        int[] values = new int[count];
+        boolean[] numeric = new boolean[count];
+        for (int i = 0; i < count; i++) {
+            operands[i] = parts[i + 1];
+            try {
+                values[i] = Integer.parseInt(operands[i]);
+                numeric[i] = true;
+            } catch (NumberFormatException e) {
+                numeric[i] = false; // Es un registro u otro símbolo
+            }
+        }
+        return new DecodedInstruction(line, parts[0], operands, values, numeric);
+    }
+
+    /** @return la línea original tal como se cargó en memoria de instrucciones. */
+    public String getText() {
+        return text;
+    }
+
+    /** @return el mnemonic de la instrucción (primer token). */
+    public String getMnemonic() {
+        return mnemonic;
+    }
+
+    /** @return el código fijo de {@link InstructionSet}, o InstructionSet.UNKNOWN. */
+    public int getKind() {
+        return kind;
+    }
+
+    /** @return el opcode resuelto contra el microprograma, o -1 si el mnemonic no es reconocido. */
+    public int getOpcode() {
+        return opcode;
+    }
+
+    void setOpcode(int opcode) {
+        this.opcode = opcode;
+    }
+
+    /** @return número de operandos que siguen al mnemonic. */
+    public int operandCount() {
+        return operands.length;
+    }
+
+    /**
+     * @param i índice del operando (0 = primero tras el mnemonic).
+     * @return el texto del operando, o null si no existe.
+     */
+    public String operand(int i) {
+        return (i >= 0 && i < operands.length) ? operands[i] : null;
+    }
+
+    /** @return true si el operando i existe y es un entero válido. */
+    public boolean isNumeric(int i) {
+        return i >= 0 && i < numeric.length && numeric[i];
+    }
+
+    /**
+     * @param i índice del operando.
+     * @return el valor inmediato ya parseado (0 si el operando no es numérico).
+     */
+    public int value(int i) {
+        return isNumeric(i) ? values[i] : 0;
+    }
+
+    /**
+     * @param i índice del operando.
+     * @return el id en el banco de registros del operando i, o -1 si no existe o es un inmediato.
+     */
+    public int register(int i) {
+        return (i >= 0 && i < registers.length) ? registers[i] : -1;
+    }
+
+    /**
+     * Traduce a ids del banco de registros los operandos que no son inmediatos, una sola vez.
+     * Los inmediatos y las direcciones no reciben id: los ids no se liberan al cargar otro programa.
+     */
+    void resolveRegisters(RegisterFile registerFile) {
+        for (int i = 0; i < operands.length; i++) {
+            registers[i] = numeric[i] ? -1 : registerFile.idOf(operands[i]);
+        }
+    }
+
+    /**
+     * Describe de dónde sale el valor que esta instrucción escribe en su registro destino.
+     * Se llama solo cuando la vista lo necesita.
+     * @return p.ej. "(ADD R1, R2)" o "(Carga Inmediata: 10)"; cadena vacía si no aplica.
+     */
+    public String describeResult() {
+        switch (mnemonic) {
+            case "ADD":
+            case "SUB":
+            case "MUL":
+            case "DIV":
+                return String.format("(%s %s, %s)", mnemonic, operand(0), operand(1));
+            case "MOV_IMM":
+                return String.format("(Carga Inmediata: %s)", operand(1));
+            case "MOV_REG":
+                return String.format("(Copia de %s)", operand(0));
+            default:
+                return "";
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "DecodedInstruction[" + text + "]";
+    }
+}
@@ -0,0 +1,144 @@
+package Models;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+import static Models.ExecutionTraceRecorder.*;
+
+/**
+ * Lector de trazas binarias generadas por {@link ExecutionTraceRecorder}.
+ * Devuelve los registros en orden, con los mnemonics y nombres de registro resueltos.
+ */
+public class ExecutionTraceReader implements AutoCloseable {
+    private static final int BUFFER_RECORDS = 4096;
+
+    private final FileChannel channel;
+    private final String[] mnemonics;
+    private final String[] registerNames;
+    private final ByteBuffer buffer = ByteBuffer.allocate(BUFFER_RECORDS * RECORD_SIZE);
+    private boolean finished = false;
+
+    /**
+     * Abre un archivo de traza y lee su cabecera y su tabla de nombres de registro.
+     * @param filePath Ruta del archivo.
+     * @throws IOException si no se puede leer o el formato no es válido.
+     */
+    public ExecutionTraceReader(String filePath) throws IOException {
+        this.channel = FileChannel.open(Path.of(filePath), StandardOpenOption.READ);
+        try {
+            ByteBuffer head = readAt(0, 16);
+            if (head.getLong() != MAGIC || head.getInt() != RECORD_SIZE) {
+                throw new IOException("No es un archivo de traza de ejecución válido: " + filePath);
+            }
+            int count = head.getInt();
+            this.mnemonics = new String[count];
+            long pos = 16;
+            for (int i = 0; i < count; i++) {
+                int len = readAt(pos, 2).getShort() & 0xFFFF;
+                mnemonics[i] = new String(readAt(pos + 2, len).array(), StandardCharsets.UTF_8);
+                pos += 2 + len;
+            }
+            long recordsStart = pos;
+
+            long namesOffset = readAt(channel.size() - 8, 8).getLong();
+            int regCount = readAt(namesOffset, 4).getInt();
+            this.registerNames = new String[regCount];
+            pos = namesOffset + 4;
+            for (int i = 0; i < regCount; i++) {
+                int len = readAt(pos, 2).getShort() & 0xFFFF;
+                registerNames[i] = new String(readAt(pos + 2, len).array(), StandardCharsets.UTF_8);
+                pos += 2 + len;
+            }
+
+            channel.position(recordsStart);
+            buffer.limit(0);
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    private ByteBuffer readAt(long position, int length) throws IOException {
+        ByteBuffer buf = ByteBuffer.allocate(length);
+        while (buf.hasRemaining()) {
+            if (channel.read(buf, position + buf.position()) < 0) {
+                throw new IOException("Archivo de traza truncado.");
+            }
+        }
+        return buf.flip();
+    }
+
+    /**
+     * Lee el siguiente registro.
+     * @return el registro, o null al llegar al final de la traza.
+     * @throws IOException si el archivo está truncado o no se puede leer.
+     */
+    public ExecutionTraceRecord next() throws IOException {
+        if (finished) {
+            return null;
+        }
+        if (buffer.remaining() < RECORD_SIZE) {
+            buffer.compact();
+            while (buffer.position() < RECORD_SIZE) {
+                if (channel.read(buffer) < 0) {
+                    throw new IOException("Archivo de traza truncado.");
+                }
+            }
+            buffer.flip();
+        }
+        int base = buffer.position();
+        long sequence = buffer.getLong(base + OFF_SEQUENCE);
+        if (sequence < 0) {
+            finished = true;
+            return null;
+        }
+        buffer.position(base + RECORD_SIZE);
+
+        int opcode = buffer.getInt(base + OFF_OPCODE);
+        int flags = buffer.getInt(base + OFF_FLAGS);
+        int[] operands = {
+            buffer.getInt(base + OFF_OPERANDS),
+            buffer.getInt(base + OFF_OPERANDS + 4),
+            buffer.getInt(base + OFF_OPERANDS + 8)
+        };
+        int immediateMask = (flags >> FLAG_IMMEDIATE_SHIFT) & 0x7;
+        String[] operandNames = new String[operands.length];
+        for (int i = 0; i < operands.length; i++) {
+            if ((immediateMask & (1 << i)) == 0) {
+                operandNames[i] = registerName(operands[i]);
+            }
+        }
+        int regId = buffer.getInt(base + OFF_REG_ID);
+        return new ExecutionTraceRecord(
+                sequence,
+                buffer.getInt(base + OFF_PC),
+                opcode,
+                (opcode >= 0 && opcode < mnemonics.length) ? mnemonics[opcode] : null,
+                flags & FLAG_OPERAND_COUNT_MASK,
+                operands,
+                immediateMask,
+                operandNames,
+                regId,
+                registerName(regId),
+                buffer.getInt(base + OFF_REG_VALUE),
+                (flags & FLAG_MEM_READ) != 0,
+                (flags & FLAG_MEM_WRITE) != 0,
+                buffer.getInt(base + OFF_MEM_ADDR),
+                buffer.getInt(base + OFF_MEM_VALUE),
+                (flags & FLAG_HALTED) != 0);
+    }
+
+    /** @return el nombre del registro con el id dado, o null si no se conoce. */
+    public String registerName(int id) {
+        return (id >= 0 && id < registerNames.length) ? registerNames[id] : null;
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+}
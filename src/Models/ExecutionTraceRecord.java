@@ -0,0 +1,80 @@
+package Models;
+
+/**
+ * Una instrucción retirada, tal como se guarda en la traza binaria de ejecución.
+ * Los operandos son ids de registro o valores inmediatos según {@link #isImmediate(int)}.
+ */
+public final class ExecutionTraceRecord {
+    public final long sequence;
+    public final int pc;
+    public final int opcode;
+    public final String mnemonic;
+    public final int operandCount;
+    private final int[] operands;
+    private final int immediateMask;
+    private final String[] operandNames; // Nombre del registro de cada operando (null si es inmediato)
+    public final int registerId;      // -1 si la instrucción no escribió ningún registro
+    public final String registerName; // null si no escribió registro o el nombre no se conoce
+    public final int registerValue;
+    public final boolean memoryRead;
+    public final boolean memoryWrite;
+    public final int memoryAddress;   // -1 si no hubo acceso a memoria
+    public final int memoryValue;
+    public final boolean halted;      // true si la CPU se detuvo en esta instrucción
+
+    ExecutionTraceRecord(long sequence, int pc, int opcode, String mnemonic, int operandCount, int[] operands,
+                         int immediateMask, String[] operandNames, int registerId, String registerName, int registerValue,
+                         boolean memoryRead, boolean memoryWrite, int memoryAddress, int memoryValue, boolean halted) {
+        this.sequence = sequence;
+        this.pc = pc;
+        this.opcode = opcode;
+        this.mnemonic = mnemonic;
+        this.operandCount = operandCount;
+        this.operands = operands;
+        this.immediateMask = immediateMask;
+        this.operandNames = operandNames;
+        this.registerId = registerId;
+        this.registerName = registerName;
+        this.registerValue = registerValue;
+        this.memoryRead = memoryRead;
+        this.memoryWrite = memoryWrite;
+        this.memoryAddress = memoryAddress;
+        this.memoryValue = memoryValue;
+        this.halted = halted;
+    }
+
+    /** @return el operando i (id de registro o valor inmediato). */
+    public int operand(int i) {
+        return operands[i];
+    }
+
+    /** @return true si el operando i es un valor inmediato. */
+    public boolean isImmediate(int i) {
+        return (immediateMask & (1 << i)) != 0;
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder();
+        sb.append(String.format("#%d %04d %s", sequence, pc, mnemonic != null ? mnemonic : "op" + opcode));
+        for (int i = 0; i < operandCount; i++) {
+            if (isImmediate(i)) {
+                sb.append(" #").append(operands[i]);
+            } else {
+                sb.append(' ').append(operandNames[i] != null ? operandNames[i] : "r" + operands[i]);
+            }
+        }
+        if (registerId >= 0) {
+            sb.append(" | ").append(registerName != null ? registerName : "r" + registerId).append(" <- ").append(registerValue);
+        }
+        if (memoryWrite) {
+            sb.append(String.format(" | Mem[0x%04X] <- %d", memoryAddress, memoryValue));
+        } else if (memoryRead) {
+            sb.append(String.format(" | Mem[0x%04X] -> %d", memoryAddress, memoryValue));
+        }
+        if (halted) {
+            sb.append(" | HALT");
+        }
+        return sb.toString();
+    }
+}
@@ -0,0 +1,249 @@
+package Models;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Traza binaria de ejecución: la CPU escribe un registro de tamaño fijo por cada
+ * instrucción retirada en un buffer circular preasignado, y un hilo aparte vuelca
+ * ese buffer al archivo mediante un FileChannel.
+ * Si el disco no da abasto, la CPU espera a que se libere espacio en el buffer;
+ * no se pierde ningún registro.
+ *
+ * Formato del archivo:
+ * cabecera (MAGIC, tamaño de registro, tabla opcode -> mnemonic), registros de
+ * RECORD_SIZE bytes, un registro de fin con secuencia -1, la tabla de nombres de
+ * registro y, en los últimos 8 bytes, la posición donde empieza esa tabla.
+ */
+public class ExecutionTraceRecorder implements AutoCloseable {
+    static final long MAGIC = 0x4350555452433031L; // "CPUTRC01"
+    static final int RECORD_SIZE = 48;
+
+    // Desplazamientos dentro de un registro
+    static final int OFF_SEQUENCE = 0;
+    static final int OFF_PC = 8;
+    static final int OFF_OPCODE = 12;
+    static final int OFF_OPERANDS = 16;   // 3 enteros
+    static final int OFF_REG_ID = 28;
+    static final int OFF_REG_VALUE = 32;
+    static final int OFF_MEM_ADDR = 36;
+    static final int OFF_MEM_VALUE = 40;
+    static final int OFF_FLAGS = 44;
+
+    // Bits del campo de banderas
+    static final int FLAG_OPERAND_COUNT_MASK = 0x3;   // bits 0-1: número de operandos (0..3)
+    static final int FLAG_IMMEDIATE_SHIFT = 2;        // bits 2-4: operando i es inmediato
+    static final int FLAG_MEM_WRITE = 1 << 5;
+    static final int FLAG_MEM_READ = 1 << 6;
+    static final int FLAG_HALTED = 1 << 7;
+
+    private static final int DEFAULT_CAPACITY = 1 << 16; // Registros en el buffer circular
+    private static final int MAX_CAPACITY = 1 << 24;
+
+    private final FileChannel channel;
+    private final ByteBuffer ring;
+    private final int capacity;
+    private final long mask;
+    private final RegisterFile registers;
+    private final AtomicLong head = new AtomicLong(); // Siguiente registro a escribir (CPU)
+    private final AtomicLong tail = new AtomicLong(); // Siguiente registro a volcar (hilo de volcado)
+    private final Thread spiller;
+    private long tailCache = 0;        // Última cola observada por el productor
+    private long sequence = 0;
+    private volatile boolean closing = false;
+    private volatile IOException failure = null;
+
+    /**
+     * Abre un archivo de traza con el buffer por defecto.
+     * @see #ExecutionTraceRecorder(String, int, String[], RegisterFile)
+     */
+    public ExecutionTraceRecorder(String filePath, String[] mnemonics, RegisterFile registers) throws IOException {
+        this(filePath, DEFAULT_CAPACITY, mnemonics, registers);
+    }
+
+    /**
+     * Abre un archivo de traza (se sobrescribe si existe) y arranca el hilo de volcado.
+     * @param filePath  Ruta del archivo.
+     * @param capacity  Registros del buffer circular; se redondea a potencia de dos.
+     * @param mnemonics Tabla opcode -> mnemonic que se guarda en la cabecera.
+     * @param registers Banco de registros cuyos nombres se guardan al cerrar.
+     * @throws IOException si no se puede crear el archivo.
+     */
+    public ExecutionTraceRecorder(String filePath, int capacity, String[] mnemonics, RegisterFile registers) throws IOException {
+        if (capacity <= 0 || capacity > MAX_CAPACITY) {
+            throw new IllegalArgumentException("Capacidad de traza inválida: " + capacity);
+        }
+        int rounded = 1;
+        while (rounded < capacity) {
+            rounded <<= 1;
+        }
+        this.capacity = rounded;
+        this.mask = this.capacity - 1;
+        this.ring = ByteBuffer.allocateDirect(this.capacity * RECORD_SIZE);
+        this.registers = registers;
+        this.channel = FileChannel.open(Path.of(filePath), StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING);
+        writeFully(header(mnemonics));
+
+        this.spiller = new Thread(this::spillLoop, "trace-spiller");
+        this.spiller.setDaemon(true);
+        this.spiller.start();
+    }
+
+    private static ByteBuffer header(String[] mnemonics) {
+        byte[][] names = new byte[mnemonics.length][];
+        int size = 8 + 4 + 4;
+        for (int i = 0; i < mnemonics.length; i++) {
+            names[i] = (mnemonics[i] != null ? mnemonics[i] : "").getBytes(StandardCharsets.UTF_8);
+            size += 2 + names[i].length;
+        }
+        ByteBuffer buf = ByteBuffer.allocate(size);
+        buf.putLong(MAGIC).putInt(RECORD_SIZE).putInt(names.length);
+        for (byte[] name : names) {
+            buf.putShort((short) name.length).put(name);
+        }
+        return buf.flip();
+    }
+
+    /**
+     * Registra una instrucción retirada. No crea objetos; solo espera si el buffer está lleno.
+     * @param flags Banderas FLAG_* y número de operandos, ya combinados.
+     */
+    public void record(int pc, int opcode, int op0, int op1, int op2, int regId, int regValue,
+                       int memAddr, int memValue, int flags) {
+        long h = head.get();
+        if (h - tailCache >= capacity) {
+            waitForSpace(h);
+        }
+        int base = (int) (h & mask) * RECORD_SIZE;
+        ring.putLong(base + OFF_SEQUENCE, sequence++);
+        ring.putInt(base + OFF_PC, pc);
+        ring.putInt(base + OFF_OPCODE, opcode);
+        ring.putInt(base + OFF_OPERANDS, op0);
+        ring.putInt(base + OFF_OPERANDS + 4, op1);
+        ring.putInt(base + OFF_OPERANDS + 8, op2);
+        ring.putInt(base + OFF_REG_ID, regId);
+        ring.putInt(base + OFF_REG_VALUE, regValue);
+        ring.putInt(base + OFF_MEM_ADDR, memAddr);
+        ring.putInt(base + OFF_MEM_VALUE, memValue);
+        ring.putInt(base + OFF_FLAGS, flags);
+        head.lazySet(h + 1); // Publica el registro al hilo de volcado
+    }
+
+    private void waitForSpace(long h) {
+        tailCache = tail.get();
+        while (h - tailCache >= capacity) {
+            if (failure != null) {
+                throw new UncheckedIOException("Error escribiendo la traza de ejecución", failure);
+            }
+            LockSupport.unpark(spiller);
+            Thread.onSpinWait();
+            tailCache = tail.get();
+        }
+    }
+
+    /** @return número de registros escritos hasta ahora. */
+    public long getRecordCount() {
+        return sequence;
+    }
+
+    private void spillLoop() {
+        ByteBuffer view = ring.duplicate();
+        try {
+            while (true) {
+                long t = tail.get();
+                long h = head.get();
+                if (h == t) {
+                    if (closing && head.get() == t) {
+                        return;
+                    }
+                    LockSupport.parkNanos(100_000L);
+                    continue;
+                }
+                // Volcar [t, h), en dos tramos si da la vuelta al buffer.
+                int from = (int) (t & mask);
+                int count = (int) (h - t);
+                int firstRun = Math.min(count, capacity - from);
+                spill(view, from, firstRun);
+                if (count > firstRun) {
+                    spill(view, 0, count - firstRun);
+                }
+                tail.lazySet(h);
+            }
+        } catch (IOException e) {
+            failure = e;
+        }
+    }
+
+    private void spill(ByteBuffer view, int fromRecord, int records) throws IOException {
+        view.limit((fromRecord + records) * RECORD_SIZE).position(fromRecord * RECORD_SIZE);
+        while (view.hasRemaining()) {
+            channel.write(view);
+        }
+    }
+
+    private void writeFully(ByteBuffer buf) throws IOException {
+        while (buf.hasRemaining()) {
+            channel.write(buf);
+        }
+    }
+
+    /**
+     * Vuelca todos los registros pendientes, escribe la tabla de nombres de registro y cierra el archivo.
+     * @throws UncheckedIOException si falló alguna escritura.
+     */
+    @Override
+    public void close() {
+        if (closing) {
+            return;
+        }
+        closing = true;
+        LockSupport.unpark(spiller);
+        try {
+            spiller.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        try {
+            if (failure != null) {
+                throw failure;
+            }
+            ByteBuffer end = ByteBuffer.allocate(RECORD_SIZE);
+            end.putLong(OFF_SEQUENCE, -1L);
+            writeFully(end);
+
+            long namesOffset = channel.position();
+            writeFully(registerNames());
+            writeFully(ByteBuffer.allocate(8).putLong(0, namesOffset));
+            channel.close();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Error cerrando la traza de ejecución", e);
+        }
+    }
+
+    private ByteBuffer registerNames() {
+        int count = 0;
+        while (registers != null && registers.nameOf(count) != null) {
+            count++;
+        }
+        byte[][] names = new byte[count][];
+        int size = 4;
+        for (int id = 0; id < count; id++) {
+            names[id] = registers.nameOf(id).getBytes(StandardCharsets.UTF_8);
+            size += 2 + names[id].length;
+        }
+        ByteBuffer buf = ByteBuffer.allocate(size);
+        buf.putInt(count);
+        for (byte[] name : names) {
+            buf.putShort((short) name.length).put(name);
+        }
+        return buf.flip();
+    }
+}
@@ -0,0 +1,54 @@
+package Models;
+
+/**
+ * Reparte los marcos de una memoria física entre las tablas de páginas de varios procesos.
+ * Entrega siempre el marco libre de número más bajo, para que las ejecuciones sean reproducibles.
+ */
+public class FrameAllocator {
+    private final boolean[] used;
+    private int free;
+    private int hint = 0; // Ningún marco por debajo de hint está libre
+
+    /**
+     * @param frames Marcos de la memoria física.
+     */
+    public FrameAllocator(int frames) {
+        if (frames <= 0) {
+            throw new IllegalArgumentException("Número de marcos inválido: " + frames);
+        }
+        this.used = new boolean[frames];
+        this.free = frames;
+    }
+
+    /**
+     * @return un marco libre, que pasa a estar en uso, o -1 si la memoria física está llena.
+     */
+    public int allocate() {
+        if (free == 0) {
+            return -1;
+        }
+        while (used[hint]) {
+            hint++;
+        }
+        used[hint] = true;
+        free--;
+        return hint;
+    }
+
+    /**
+     * Devuelve un marco al asignador.
+     * @throws IllegalArgumentException si el marco no estaba en uso.
+     */
+    public void free(int frame) {
+        if (frame < 0 || frame >= used.length || !used[frame]) {
+            throw new IllegalArgumentException("El marco " + frame + " no está asignado.");
+        }
+        used[frame] = false;
+        free++;
+        hint = Math.min(hint, frame);
+    }
+
+    public int getFrameCount() { return used.length; }
+    public int getFreeCount() { return free; }
+    public int getUsedCount() { return used.length - free; }
+}
@@ -1,57 +1,173 @@
 package Models;
 
-import Controller.SimulatorController; // Make sure this import is correct
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
 
+/**
+ * Dispositivo de entrada de la interfaz gráfica: una cola acotada de caracteres que la vista
+ * llena cuando el usuario envía texto (una línea o un bloque pegado de muchas) y que la CPU
+ * consume con INPUT_CHAR.
+ *
+ * La vista nunca se bloquea: {@link #offer(CharSequence)} acepta lo que cabe. Quien ejecuta
+ * la CPU espera con {@link #awaitInput()} antes de una lectura si la cola está vacía; el hilo
+ * queda aparcado en una condición y despierta cuando llegan datos, sin sondeo.
+ */
 public class GuiTextInputDevice extends IODevice {
-    private SimulatorController controller;
-    private String buffer = "";
-    private int bufferPos = 0;
-    private boolean waitingForInput = false;
+    public static final int DEFAULT_CAPACITY = 1 << 16; // Caracteres
 
-    public GuiTextInputDevice(String id, SimulatorController controller) {
+    private final char[] queue;
+    private int head = 0;               // Próximo carácter a leer
+    private int count = 0;              // Caracteres en la cola
+    private boolean endOfInput = false; // Tras vaciar la cola, read() devuelve -1
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition notEmpty = lock.newCondition();
+    private volatile boolean waitingForInput = false;
+
+    public GuiTextInputDevice(String id) {
+        this(id, DEFAULT_CAPACITY);
+    }
+
+    /**
+     * @param id       Identificador del dispositivo.
+     * @param capacity Caracteres que caben en la cola.
+     * @throws IllegalArgumentException si la capacidad no es positiva.
+     */
+    public GuiTextInputDevice(String id, int capacity) {
         super(id);
-        this.controller = controller;
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("Capacidad de entrada inválida: " + capacity);
+        }
+        this.queue = new char[capacity];
         this.status = "IDLE";
     }
 
-    @Override
-    public int read() {
-        if (controller == null) {
-            System.err.println("GuiTextInputDevice: Controller no configurado.");
-            this.status = "ERROR";
-            return -1;
+    /**
+     * Añade texto al final de la cola, sin bloquear.
+     * @param text Caracteres a añadir.
+     * @return cuántos se aceptaron (menos que text.length() si la cola se llenó).
+     */
+    public int offer(CharSequence text) {
+        lock.lock();
+        try {
+            int accepted = Math.min(text.length(), queue.length - count);
+            for (int i = 0; i < accepted; i++) {
+                queue[(head + count + i) % queue.length] = text.charAt(i);
+            }
+            count += accepted;
+            if (accepted > 0) {
+                notEmpty.signalAll();
+            }
+            return accepted;
+        } finally {
+            lock.unlock();
         }
+    }
 
-        // Si el buffer está vacío o se ha consumido, pedir nueva entrada
-        if (bufferPos >= buffer.length()) {
-            this.status = "WAITING";
-            waitingForInput = true; // Señal para el controlador/vista
-            // En una implementación más avanzada, la CPU pausaría aquí.
-            // Por ahora, el JOptionPane en promptForInput es bloqueante.
-            String inputLine = controller.requestInputFromView("Ingrese entrada para " + getId() + ":");
-            waitingForInput = false;
+    /**
+     * Marca el fin de la entrada: cuando se vacíe la cola, read() devolverá -1.
+     */
+    public void endInput() {
+        lock.lock();
+        try {
+            endOfInput = true;
+            notEmpty.signalAll();
+        } finally {
+            lock.unlock();
+        }
+    }
 
-            if (inputLine == null) { // Usuario canceló o cerró el diálogo
-                this.status = "EOF"; // O un error, dependiendo de cómo quieras manejarlo
-                buffer = "";
-                bufferPos = 0;
-                return -1;
+    /**
+     * Descarta la entrada pendiente y el fin de entrada (p.ej. al recargar el programa).
+     */
+    public void clear() {
+        lock.lock();
+        try {
+            head = 0;
+            count = 0;
+            endOfInput = false;
+            status = "IDLE";
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /** @return true si read() no tiene que esperar: hay caracteres o se marcó el fin de entrada. */
+    public boolean isReady() {
+        lock.lock();
+        try {
+            return count > 0 || endOfInput;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /** @return caracteres en la cola. */
+    public int available() {
+        lock.lock();
+        try {
+            return count;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Aparca el hilo que llama hasta que read() pueda devolver algo sin esperar.
+     * @throws InterruptedException si se interrumpe el hilo mientras espera.
+     */
+    public void awaitInput() throws InterruptedException {
+        lock.lock();
+        try {
+            waitUntilReady();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /** Con el cerrojo tomado: espera en la condición mientras no haya nada que leer. */
+    private void waitUntilReady() throws InterruptedException {
+        if (count > 0 || endOfInput) {
+            return;
+        }
+        status = "WAITING";
+        waitingForInput = true;
+        try {
+            while (count == 0 && !endOfInput) {
+                notEmpty.await();
             }
-            buffer = inputLine + "\n"; // Añadir newline para simular entrada de línea
-            bufferPos = 0;
-            this.status = "BUSY"; // Procesando nueva entrada
+        } finally {
+            waitingForInput = false;
         }
+    }
 
-        if (bufferPos < buffer.length()) {
-            this.status = "BUSY";
-            return buffer.charAt(bufferPos++);
-        } else {
-            // Esto no debería ocurrir si la lógica anterior es correcta
-            this.status = "EOF"; // O IDLE si se espera más entrada después
+    /**
+     * Lee el siguiente carácter de la cola. Si está vacía, espera como {@link #awaitInput()}.
+     * @return el carácter, o -1 al final de la entrada o si el hilo se interrumpe esperando.
+     */
+    @Override
+    public int read() {
+        lock.lock();
+        try {
+            waitUntilReady();
+            if (count == 0) {
+                status = "EOF";
+                return -1;
+            }
+            char c = queue[head];
+            head = (head + 1) % queue.length;
+            count--;
+            status = "BUSY";
+            return c;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            status = "EOF";
             return -1;
+        } finally {
+            lock.unlock();
         }
     }
 
+    /** @return true mientras un hilo está aparcado esperando entrada. */
     public boolean isWaitingForInput() {
         return waitingForInput;
     }
@@ -61,4 +177,3 @@ public class GuiTextInputDevice extends IODevice {
         throw new UnsupportedOperationException("GuiTextInputDevice no soporta escritura.");
     }
 }
-
@@ -45,6 +45,13 @@ public abstract class IODevice {
      */
     public abstract void write(int data);
 
+    /**
+     * Entrega al destino los datos que el dispositivo tenga retenidos.
+     * Por defecto no hace nada: la mayoría de dispositivos no retienen datos.
+     */
+    public void flush() {
+    }
+
     @Override
     public String toString() {
         return "IODevice[id=" + id + ", status=" + status + "]";
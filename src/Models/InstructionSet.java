@@ -0,0 +1,58 @@
+package Models;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Códigos fijos de las instrucciones que la CPU sabe ejecutar directamente (modo WIRED).
+ * A diferencia del opcode, que depende del microprograma cargado, estos códigos son
+ * constantes y se asignan a cada instrucción al decodificarla.
+ */
+public final class InstructionSet {
+    public static final int UNKNOWN = -1;
+    public static final int ADD = 0;
+    public static final int SUB = 1;
+    public static final int MUL = 2;
+    public static final int MOV_IMM = 3;
+    public static final int MOV_REG = 4;
+    public static final int OUTPUT_CHAR = 5;
+    public static final int INPUT_CHAR = 6;
+    public static final int JMP = 7;
+    public static final int CMP = 8;
+    public static final int JE = 9;
+    public static final int JNE = 10;
+    public static final int HLT = 11;
+    public static final int STORE = 12;
+    public static final int LOAD_REG_IMM = 13;
+
+    private static final String[] MNEMONICS = {
+        "ADD", "SUB", "MUL", "MOV_IMM", "MOV_REG", "OUTPUT_CHAR", "INPUT_CHAR",
+        "JMP", "CMP", "JE", "JNE", "HLT", "STORE", "LOAD_REG_IMM"
+    };
+
+    private static final Map<String, Integer> BY_MNEMONIC = new HashMap<>();
+    static {
+        for (int i = 0; i < MNEMONICS.length; i++) {
+            BY_MNEMONIC.put(MNEMONICS[i], i);
+        }
+    }
+
+    private InstructionSet() {
+    }
+
+    /**
+     * @param mnemonic mnemonic de la instrucción (p.ej. "ADD").
+     * @return el código de la instrucción, o UNKNOWN si no se ejecuta en modo WIRED.
+     */
+    public static int kindOf(String mnemonic) {
+        Integer kind = BY_MNEMONIC.get(mnemonic);
+        return (kind != null) ? kind : UNKNOWN;
+    }
+
+    /**
+     * @return el mnemonic del código de instrucción, o "?" si no existe.
+     */
+    public static String mnemonic(int kind) {
+        return (kind >= 0 && kind < MNEMONICS.length) ? MNEMONICS[kind] : "?";
+    }
+}
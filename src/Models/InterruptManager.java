@@ -5,9 +5,29 @@ import java.util.Queue;
 
 /**
  * Administrador de interrupciones: cola FIFO de códigos de interrupción.
+ * Las excepciones síncronas (p.ej. un fallo de página) no pasan por la cola: se atienden
+ * en el momento con {@link #raise(int, int)}, porque la instrucción que las causa no
+ * puede continuar hasta que se resuelvan.
  */
 public class InterruptManager {
+    /** Código de la excepción de fallo de página (acceso a una página virtual sin marco). */
+    public static final int PAGE_FAULT = 14;
+
+    /**
+     * Rutina de servicio de una excepción síncrona.
+     */
+    public interface FaultHandler {
+        /**
+         * @param code    Código de la excepción.
+         * @param address Dirección que la causó.
+         * @return true si la causa quedó resuelta y el acceso puede reintentarse.
+         */
+        boolean handle(int code, int address);
+    }
+
     final Queue<Integer> queue = new ArrayDeque<>();
+    private FaultHandler faultHandler = null;
+    private long faults = 0;
 
     /**
      * Solicita una interrupción identificada por su código.
@@ -37,6 +57,30 @@ public class InterruptManager {
         return !queue.isEmpty();
     }
 
+    /**
+     * Define la rutina que atiende las excepciones síncronas.
+     * @param handler Rutina de servicio; null para que ninguna excepción se resuelva.
+     */
+    public void setFaultHandler(FaultHandler handler) {
+        this.faultHandler = handler;
+    }
+
+    /**
+     * Lanza una excepción síncrona y la atiende de inmediato.
+     * @param code    Código de la excepción (p.ej. {@link #PAGE_FAULT}).
+     * @param address Dirección que la causó.
+     * @return true si la rutina de servicio la resolvió.
+     */
+    public boolean raise(int code, int address) {
+        faults++;
+        return faultHandler != null && faultHandler.handle(code, address);
+    }
+
+    /** @return excepciones síncronas lanzadas con {@link #raise(int, int)}. */
+    public long getFaultCount() {
+        return faults;
+    }
+
     @Override
     public String toString() {
         return "InterruptManager" + queue.toString();
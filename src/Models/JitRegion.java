@@ -0,0 +1,57 @@
+package Models;
+
+/**
+ * Región compilada de un bloque básico: instrucciones consecutivas sin efectos fuera de
+ * registros y memoria, más todo lo que la CPU necesita para dejar su estado exactamente
+ * como lo dejaría el intérprete (procedencia de registros, MBR, MAR, IR, PC y operandos).
+ */
+final class JitRegion {
+    final int first;           // Índice de la primera instrucción de la región dentro del bloque
+    final int count;           // Instrucciones de la región
+    final int cycles;          // Micro-pasos equivalentes
+    final CompiledCode code;
+
+    // Estado final, conocido al compilar
+    final DecodedInstruction last;
+    final int lastPc;
+    final int mbrRegister;     // El MBR termina con el valor de este registro
+    final int mar;
+
+    // Procedencia: el último escritor de cada registro destino
+    final int[] writtenRegisters;
+    final DecodedInstruction[] writers;
+    final int[] loadAddresses; // Dirección de origen si el último escritor es un LOAD, -1 si no
+
+    // Operandos que deja enlazados la última instrucción que los tocó (null/-1 si la región no los toca)
+    final DecodedInstruction operand1Source;
+    final int operand1Index;
+    final DecodedInstruction operand2Source;
+    final int operand2Index;
+    final boolean destinationSet;
+    final int destination;
+
+    JitRegion(int first, int count, int cycles, CompiledCode code,
+              DecodedInstruction last, int lastPc, int mbrRegister, int mar,
+              int[] writtenRegisters, DecodedInstruction[] writers, int[] loadAddresses,
+              DecodedInstruction operand1Source, int operand1Index,
+              DecodedInstruction operand2Source, int operand2Index,
+              boolean destinationSet, int destination) {
+        this.first = first;
+        this.count = count;
+        this.cycles = cycles;
+        this.code = code;
+        this.last = last;
+        this.lastPc = lastPc;
+        this.mbrRegister = mbrRegister;
+        this.mar = mar;
+        this.writtenRegisters = writtenRegisters;
+        this.writers = writers;
+        this.loadAddresses = loadAddresses;
+        this.operand1Source = operand1Source;
+        this.operand1Index = operand1Index;
+        this.operand2Source = operand2Source;
+        this.operand2Index = operand2Index;
+        this.destinationSet = destinationSet;
+        this.destination = destination;
+    }
+}
@@ -0,0 +1,143 @@
+package Models;
+
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Dispositivo de entrada que sirve los bytes de un archivo directamente desde una proyección
+ * en memoria ({@link FileChannel#map}), sin copiarlos al heap ni decodificarlos.
+ * Cada llamada a read() devuelve el siguiente byte (0-255) o -1 al final; para texto ASCII
+ * coincide con {@link TextInputDevice}, y un carácter UTF-8 de varios bytes llega byte a byte.
+ *
+ * El archivo se proyecta por ventanas de {@link #WINDOW_SIZE} bytes, así que su tamaño no está
+ * limitado a 2 GB y el consumo de memoria no crece con él. Al llegar al final no se cierra:
+ * {@link #rewind()} y {@link #seek(long)} permiten volver a leerlo.
+ */
+public class MappedInputDevice extends IODevice {
+    public static final int WINDOW_SIZE = 64 << 20; // 64 MB por proyección
+
+    private final FileChannel channel;
+    private final long size;
+    private MappedByteBuffer window;
+    private long windowStart = 0;     // Posición en el archivo del primer byte de la ventana
+    private long consumed = 0;        // Bytes entregados por read(), incluidas relecturas
+
+    /**
+     * Abre el archivo y proyecta su primera ventana.
+     * @param id       identificador del dispositivo.
+     * @param filePath ruta del archivo de entrada.
+     * @throws IOException si no se puede abrir o proyectar el archivo.
+     */
+    public MappedInputDevice(String id, String filePath) throws IOException {
+        super(id);
+        this.channel = FileChannel.open(Path.of(filePath), StandardOpenOption.READ);
+        try {
+            this.size = channel.size();
+            map(0);
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+        this.status = "OPEN";
+    }
+
+    /** Proyecta la ventana que empieza en la posición dada. */
+    private void map(long start) throws IOException {
+        window = channel.map(FileChannel.MapMode.READ_ONLY, start, Math.min(WINDOW_SIZE, size - start));
+        windowStart = start;
+    }
+
+    /**
+     * Lee el siguiente byte del archivo.
+     * @return el byte (0-255), o -1 si fin de archivo.
+     */
+    @Override
+    public int read() {
+        if (!window.hasRemaining()) {
+            long next = windowStart + window.limit();
+            if (next >= size) {
+                status = "EOF";
+                return -1;
+            }
+            try {
+                map(next);
+            } catch (IOException e) {
+                status = "ERROR";
+                throw new RuntimeException("Error leyendo archivo: " + e.getMessage(), e);
+            }
+        }
+        status = "BUSY";
+        consumed++;
+        return window.get() & 0xFF;
+    }
+
+    /**
+     * Vuelve al principio del archivo.
+     */
+    public void rewind() {
+        seek(0);
+    }
+
+    /**
+     * Sitúa la próxima lectura en la posición dada.
+     * @param position Byte del archivo, entre 0 y su tamaño (el tamaño deja el dispositivo al final).
+     * @throws IndexOutOfBoundsException si la posición está fuera del archivo.
+     */
+    public void seek(long position) {
+        if (position < 0 || position > size) {
+            throw new IndexOutOfBoundsException("Posición fuera del archivo de entrada: " + position + " (tamaño " + size + ")");
+        }
+        if (position >= windowStart && position <= windowStart + window.limit()) {
+            window.position((int) (position - windowStart));
+        } else {
+            try {
+                map(position);
+            } catch (IOException e) {
+                status = "ERROR";
+                throw new RuntimeException("Error leyendo archivo: " + e.getMessage(), e);
+            }
+        }
+        status = "OPEN";
+    }
+
+    /** @return posición de la próxima lectura en el archivo. */
+    public long getPosition() {
+        return windowStart + window.position();
+    }
+
+    /** @return tamaño del archivo en bytes. */
+    public long getSize() {
+        return size;
+    }
+
+    /** @return bytes entregados por read() desde que se abrió el dispositivo. */
+    public long getBytesConsumed() {
+        return consumed;
+    }
+
+    /**
+     * Cierra el archivo. La proyección se libera cuando el recolector la descarta.
+     */
+    public void close() {
+        try {
+            channel.close();
+            this.status = "CLOSED";
+        } catch (IOException e) {
+            this.status = "ERROR";
+            throw new RuntimeException("Error cerrando archivo: " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * MappedInputDevice no soporta escritura.
+     * @param data dato a escribir (no utilizado).
+     * @throws UnsupportedOperationException siempre.
+     */
+    @Override
+    public void write(int data) {
+        throw new UnsupportedOperationException("MappedInputDevice no soporta write().");
+    }
+}
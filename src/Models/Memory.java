@@ -1,24 +1,36 @@
 package Models;
 
-import java.util.Collections;
-import java.util.List;
-import java.util.ArrayList;
+import java.util.Arrays;
 
 /**
  * Memoria principal con particiones lógicas y validación de direcciones.
  * Implementa AddressingMode para resolver direcciones (directo por defecto).
+ * Las celdas se guardan en un arreglo primitivo, sin objetos Integer por celda,
+ * lo que permite memorias de millones de posiciones.
+ * Es el {@link MemoryPort} por defecto de la CPU.
  */
-public class Memory implements AddressingMode {
+public class Memory implements AddressingMode, MemoryPort {
     private final int size;
-    private final List<Integer> partitions;
+    private final int[] partitions;
 
     /**
      * Crea una memoria de tamaño dado, inicializando todas las posiciones a 0.
      * @param size tamaño (número de celdas) de la memoria.
+     * @throws IllegalArgumentException si el tamaño es negativo.
      */
     public Memory(int size) {
+        if (size < 0) {
+            throw new IllegalArgumentException("Tamaño de memoria inválido: " + size);
+        }
         this.size = size;
-        this.partitions = new ArrayList<>(Collections.nCopies(size, 0));
+        this.partitions = new int[size];
+    }
+
+    /**
+     * Acceso directo a las celdas, para el código compilado por {@link BlockCompiler}.
+     */
+    int[] cells() {
+        return partitions;
     }
 
     /**
@@ -29,7 +41,7 @@ public class Memory implements AddressingMode {
      */
     public int read(int addr) {
         validateAddress(addr);
-        return partitions.get(addr);
+        return partitions[addr];
     }
 
     /**
@@ -40,7 +52,58 @@ public class Memory implements AddressingMode {
      */
     public void write(int addr, int val) {
         validateAddress(addr);
-        partitions.set(addr, val);
+        partitions[addr] = val;
+    }
+
+    /**
+     * Copia un bloque de celdas de memoria a un arreglo.
+     * @param addr dirección inicial.
+     * @param dst arreglo destino.
+     * @param offset posición inicial en el arreglo destino.
+     * @param length número de celdas a copiar.
+     * @throws IndexOutOfBoundsException si el rango de memoria o del arreglo no es válido.
+     */
+    public void readBlock(int addr, int[] dst, int offset, int length) {
+        validateRange(addr, length);
+        System.arraycopy(partitions, addr, dst, offset, length);
+    }
+
+    /**
+     * Escribe un bloque de valores en memoria a partir de una dirección.
+     * @param addr dirección inicial.
+     * @param src arreglo con los valores.
+     * @param offset posición inicial en el arreglo origen.
+     * @param length número de celdas a escribir.
+     * @throws IndexOutOfBoundsException si el rango de memoria o del arreglo no es válido.
+     */
+    public void writeBlock(int addr, int[] src, int offset, int length) {
+        validateRange(addr, length);
+        System.arraycopy(src, offset, partitions, addr, length);
+    }
+
+    /**
+     * Asigna el mismo valor a un rango de celdas.
+     * @param addr dirección inicial.
+     * @param length número de celdas.
+     * @param val valor a escribir.
+     * @throws IndexOutOfBoundsException si el rango no es válido.
+     */
+    public void fill(int addr, int length, int val) {
+        validateRange(addr, length);
+        Arrays.fill(partitions, addr, addr + length, val);
+    }
+
+    /**
+     * Copia un rango de celdas dentro de la memoria (los rangos pueden solaparse).
+     * @param srcAddr dirección origen.
+     * @param dstAddr dirección destino.
+     * @param length número de celdas.
+     * @throws IndexOutOfBoundsException si alguno de los rangos no es válido.
+     */
+    public void copy(int srcAddr, int dstAddr, int length) {
+        validateRange(srcAddr, length);
+        validateRange(dstAddr, length);
+        System.arraycopy(partitions, srcAddr, partitions, dstAddr, length);
     }
 
     private void validateAddress(int addr) {
@@ -49,6 +112,12 @@ public class Memory implements AddressingMode {
         }
     }
 
+    private void validateRange(int addr, int length) {
+        if (length < 0 || addr < 0 || addr > size - length) {
+            throw new IndexOutOfBoundsException("Rango fuera de memoria: [" + addr + ", " + ((long) addr + length) + ")");
+        }
+    }
+
     /**
      * Devuelve el tamaño de la memoria.
      * @return tamaño en celdas.
@@ -67,4 +136,4 @@ public class Memory implements AddressingMode {
     public int resolve(int addr, CPU cpu) {
         return read(addr);
     }
-}
\ No newline at end of file
+}
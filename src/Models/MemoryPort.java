@@ -0,0 +1,47 @@
+package Models;
+
+/**
+ * Puerto de la CPU hacia la memoria de datos. {@link Memory} es el acceso directo;
+ * una caché u otro intermediario se coloca entre la CPU y la memoria implementándolo.
+ */
+public interface MemoryPort {
+    /**
+     * @throws IndexOutOfBoundsException si la dirección no es válida.
+     */
+    int read(int addr);
+
+    /**
+     * @throws IndexOutOfBoundsException si la dirección no es válida.
+     */
+    void write(int addr, int val);
+
+    /** @return tamaño en celdas de la memoria accesible por el puerto. */
+    int getSize();
+
+    /**
+     * Copia un bloque de celdas a un arreglo (p.ej. para llenar una línea de caché).
+     * @throws IndexOutOfBoundsException si el rango no es válido.
+     */
+    default void readBlock(int addr, int[] dst, int offset, int length) {
+        for (int i = 0; i < length; i++) {
+            dst[offset + i] = read(addr + i);
+        }
+    }
+
+    /**
+     * Escribe un bloque de celdas desde un arreglo (p.ej. para volcar una línea de caché).
+     * @throws IndexOutOfBoundsException si el rango no es válido.
+     */
+    default void writeBlock(int addr, int[] src, int offset, int length) {
+        for (int i = 0; i < length; i++) {
+            write(addr + i, src[offset + i]);
+        }
+    }
+
+    /**
+     * @return ciclos de espera que causó el último acceso (0 si el puerto no modela latencia).
+     */
+    default int lastAccessStall() {
+        return 0;
+    }
+}
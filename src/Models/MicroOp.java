@@ -0,0 +1,110 @@
+package Models;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Códigos enteros de las micro-operaciones que entiende la CPU.
+ * El microprograma se sigue escribiendo con los nombres de señal legibles
+ * ("PC_out,MAR_in", ...) y se compila a estos códigos al cargarlo, de modo que
+ * la CPU despacha con un switch sobre enteros consecutivos.
+ */
+public final class MicroOp {
+    // --- FETCH ---
+    public static final int PC_OUT_MAR_IN = 0;
+    public static final int MEM_READ_PC_INC = 1;
+    public static final int MBR_OUT_IR_IN = 2;
+    public static final int DECODE = 3;
+    // --- Decodificación de operandos ---
+    public static final int DECODE_OPERANDS_R_R_R = 4;
+    public static final int DECODE_OPERANDS_R_R = 5;
+    public static final int DECODE_OPERANDS_R_IMM = 6;
+    public static final int DECODE_OPERAND_ADDR = 7;
+    // --- Ejecución ---
+    public static final int REGS_TO_ALU = 8;
+    public static final int ALU_ADD_MBR_IN = 9;
+    public static final int ALU_SUB_MBR_IN = 10;
+    public static final int ALU_CMP_FLAGS_IN = 11;
+    public static final int ALU_MUL_MBR_IN = 12;
+    public static final int MBR_OUT_REG_DEST_IN = 13;
+    public static final int DECODE_STORE_OPERANDS = 14;
+    public static final int REG_OPERAND1_TO_MBR = 15;
+    public static final int IMMEDIATE_OPERAND2_TO_MAR = 16;
+    public static final int MBR_TO_MEM_AT_MAR = 17;
+    public static final int IMMEDIATE_TO_MBR = 18;
+    public static final int REG1_TO_MBR = 19;
+    public static final int ACC_TO_DEVICE_1 = 20;
+    public static final int DEVICE_0_TO_ACC = 21;
+    public static final int ADDRESS_TO_PC = 22;
+    public static final int COND_JUMP_IF_ZERO = 23;
+    public static final int COND_JUMP_IF_NOT_ZERO = 24;
+    public static final int HALT_CPU = 25;
+    public static final int DECODE_LOAD_OPERANDS = 26;
+    public static final int LOAD_ADDR_TO_MAR = 27;
+    public static final int MEM_READ_MAR_TO_MBR = 28;
+    public static final int MBR_TO_REG_DESTINATION = 29;
+
+    // Nombres de señal tal como aparecen en el microprograma, indexados por código.
+    private static final String[] NAMES = {
+        "PC_out,MAR_in",
+        "Mem_read,PC_inc",
+        "MBR_out,IR_in",
+        "Decode",
+        "Decode_Operands_R_R_R",
+        "Decode_Operands_R_R",
+        "Decode_Operands_R_IMM",
+        "Decode_Operand_Addr",
+        "Reg1_to_ALU_A,Reg2_to_ALU_B",
+        "ALU_ADD,MBR_in",
+        "ALU_SUB,MBR_in",
+        "ALU_CMP,Flags_in",
+        "ALU_MUL,MBR_in",
+        "MBR_out,Reg_Dest_in",
+        "Decode_Store_Operands_Rsrc_AddrImm",
+        "Reg_Operand1_to_MBR",
+        "Immediate_Operand2_to_MAR",
+        "MBR_to_Mem_at_MAR",
+        "Immediate_to_MBR",
+        "Reg1_to_MBR",
+        "ACC_to_Bus,Write_to_Device_1",
+        "Read_from_Device_0,Bus_to_ACC",
+        "Address_to_PC",
+        "Cond_Jump_if_Zero",
+        "Cond_Jump_if_Not_Zero",
+        "HALT_CPU",
+        "Decode_Load_Rdest_AddrImm",
+        "LoadAddr_Operand1_to_MAR",
+        "MemRead_MAR_to_MBR",
+        "WriteMBR_to_Reg_Destination"
+    };
+
+    private static final Map<String, Integer> CODES = new HashMap<>();
+
+    static {
+        for (int code = 0; code < NAMES.length; code++) {
+            CODES.put(NAMES[code], code);
+        }
+    }
+
+    private MicroOp() {
+    }
+
+    /**
+     * Traduce un nombre de señal a su código.
+     * @param signal nombre de la señal (p.ej. "PC_out,MAR_in").
+     * @return el código de la micro-operación, o -1 si la señal no existe.
+     */
+    public static int fromName(String signal) {
+        Integer code = CODES.get(signal);
+        return (code != null) ? code : -1;
+    }
+
+    /**
+     * Devuelve el nombre legible de una micro-operación.
+     * @param code código de la micro-operación.
+     * @return el nombre de la señal, o "?" si el código no es válido.
+     */
+    public static String name(int code) {
+        return (code >= 0 && code < NAMES.length) ? NAMES[code] : "?";
+    }
+}
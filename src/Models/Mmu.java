@@ -0,0 +1,195 @@
+package Models;
+
+/**
+ * Unidad de gestión de memoria entre la CPU y la memoria física (o la jerarquía de cachés,
+ * que queda indexada por direcciones físicas). Traduce cada dirección virtual del MAR con la
+ * {@link Tlb}; en un fallo de TLB recorre la {@link PageTable} del proceso actual, y si la
+ * página no tiene marco lanza {@link InterruptManager#PAGE_FAULT} por el administrador de
+ * interrupciones de la CPU. Si la rutina de servicio no resuelve el fallo, el acceso termina
+ * con {@link PageFaultException}.
+ *
+ * La tabla de páginas se guarda fuera de la memoria simulada: el recorrido cuesta una
+ * latencia fija en lugar de accesos a memoria. Recorrido y fallo de página se suman a
+ * {@link #lastAccessStall()} junto con la latencia del siguiente nivel.
+ */
+public class Mmu implements MemoryPort {
+    public static final int DEFAULT_PAGE_SIZE = 64;
+    public static final int DEFAULT_WALK_LATENCY = 20;   // Ciclos de un recorrido de la tabla de páginas
+    public static final int DEFAULT_FAULT_LATENCY = 200; // Ciclos de la rutina de servicio de un fallo de página
+
+    private final MemoryPort next;
+    private final InterruptManager interrupts;
+    private final Tlb tlb;
+    private final int pageSize;
+    private final int pageShift;
+    private final int offsetMask;
+    private PageTable pageTable;
+    private int asid;
+    private FrameAllocator allocator = null; // Paginación bajo demanda si no es null
+    private int[] zeroPage = null;
+    private int walkLatency = DEFAULT_WALK_LATENCY;
+    private int faultLatency = DEFAULT_FAULT_LATENCY;
+
+    private int lastStall = 0;
+    private long translations = 0;
+    private long walks = 0;
+    private long pageFaults = 0;
+    private long stallCycles = 0;
+
+    /**
+     * @param next       Memoria física o primer nivel de caché.
+     * @param interrupts Administrador de interrupciones que recibe los fallos de página.
+     * @param tlb        TLB de la CPU (puede compartirse entre procesos con ASID distinto).
+     * @param pageSize   Celdas por página (potencia de dos).
+     * @param pageTable  Tabla de páginas del proceso inicial.
+     * @param asid       Identificador del espacio de direcciones del proceso inicial.
+     */
+    public Mmu(MemoryPort next, InterruptManager interrupts, Tlb tlb, int pageSize, PageTable pageTable, int asid) {
+        if (pageSize <= 0 || (pageSize & (pageSize - 1)) != 0) {
+            throw new IllegalArgumentException("El tamaño de página debe ser potencia de dos: " + pageSize);
+        }
+        this.next = next;
+        this.interrupts = interrupts;
+        this.tlb = tlb;
+        this.pageSize = pageSize;
+        this.pageShift = Integer.numberOfTrailingZeros(pageSize);
+        this.offsetMask = pageSize - 1;
+        switchTo(pageTable, asid);
+    }
+
+    /**
+     * Cambio de contexto: las próximas traducciones usan la tabla y el ASID indicados.
+     * La TLB no se vacía; sus entradas están etiquetadas con el ASID.
+     */
+    public void switchTo(PageTable pageTable, int asid) {
+        this.pageTable = pageTable;
+        this.asid = asid;
+    }
+
+    /**
+     * Activa la paginación bajo demanda: cada fallo de página toma un marco libre del
+     * asignador, lo pone a cero y lo asocia a la página. El fallo no se resuelve si no
+     * quedan marcos libres.
+     * @param allocator Marcos de la memoria física; null desactiva la paginación bajo demanda.
+     * @throws IllegalArgumentException si el asignador tiene más marcos de los que caben en la memoria física.
+     */
+    public void setDemandPaging(FrameAllocator allocator) {
+        if (allocator != null && (long) allocator.getFrameCount() * pageSize > next.getSize()) {
+            throw new IllegalArgumentException("El asignador tiene más marcos que la memoria física.");
+        }
+        this.allocator = allocator;
+        this.zeroPage = (allocator != null) ? new int[pageSize] : null;
+        interrupts.setFaultHandler((allocator != null) ? this::serviceFault : null);
+    }
+
+    /** Define la latencia de un recorrido de la tabla de páginas y la de un fallo de página. */
+    public void setLatencies(int walkLatency, int faultLatency) {
+        if (walkLatency < 0 || faultLatency < 0) {
+            throw new IllegalArgumentException("Las latencias no pueden ser negativas.");
+        }
+        this.walkLatency = walkLatency;
+        this.faultLatency = faultLatency;
+    }
+
+    @Override
+    public int read(int addr) {
+        int physical = translate(addr);
+        int value = next.read(physical);
+        finish();
+        return value;
+    }
+
+    @Override
+    public void write(int addr, int val) {
+        int physical = translate(addr);
+        next.write(physical, val);
+        finish();
+    }
+
+    /** @return tamaño del espacio virtual del proceso actual. */
+    @Override
+    public int getSize() {
+        return pageTable.getPageCount() << pageShift;
+    }
+
+    @Override
+    public int lastAccessStall() {
+        return lastStall;
+    }
+
+    /**
+     * Traduce una dirección virtual, resolviendo fallos de TLB y de página.
+     * Deja en lastStall los ciclos de la traducción.
+     * @throws PageFaultException si la página no tiene marco y el fallo no se resolvió.
+     */
+    private int translate(int addr) {
+        if (addr < 0 || addr >= getSize()) {
+            throw new IndexOutOfBoundsException("Dirección virtual fuera de rango: " + addr);
+        }
+        translations++;
+        lastStall = 0;
+        int page = addr >>> pageShift;
+        int frame = tlb.lookup(asid, page);
+        if (frame < 0) {
+            walks++;
+            lastStall += walkLatency;
+            frame = pageTable.frameOf(page);
+            if (frame < 0) {
+                pageFaults++;
+                lastStall += faultLatency;
+                if (!interrupts.raise(InterruptManager.PAGE_FAULT, addr) || (frame = pageTable.frameOf(page)) < 0) {
+                    throw new PageFaultException(addr);
+                }
+            }
+            tlb.insert(asid, page, frame);
+        }
+        return (frame << pageShift) | (addr & offsetMask);
+    }
+
+    /** Suma la latencia del siguiente nivel a la de la traducción. */
+    private void finish() {
+        lastStall += next.lastAccessStall();
+        stallCycles += lastStall;
+    }
+
+    /** Rutina de servicio de fallo de página de la paginación bajo demanda. */
+    private boolean serviceFault(int code, int address) {
+        if (code != InterruptManager.PAGE_FAULT) {
+            return false;
+        }
+        int frame = allocator.allocate();
+        if (frame < 0) {
+            return false;
+        }
+        next.writeBlock(frame << pageShift, zeroPage, 0, pageSize); // Un marco reutilizado no debe filtrar datos
+        lastStall += next.lastAccessStall();
+        pageTable.map(address >>> pageShift, frame);
+        return true;
+    }
+
+    /**
+     * Traduce sin efectos: no consulta la TLB, no cuenta ni lanza fallos de página.
+     * @return la dirección física, o -1 si la página no tiene marco o la dirección no es válida.
+     */
+    public int physicalAddress(int addr) {
+        if (addr < 0 || addr >= getSize()) {
+            return -1;
+        }
+        int frame = pageTable.frameOf(addr >>> pageShift);
+        return (frame < 0) ? -1 : (frame << pageShift) | (addr & offsetMask);
+    }
+
+    public MemoryPort getNext() { return next; }
+    public Tlb getTlb() { return tlb; }
+    public PageTable getPageTable() { return pageTable; }
+    public int getAsid() { return asid; }
+    public int getPageSize() { return pageSize; }
+    public FrameAllocator getFrameAllocator() { return allocator; }
+    /** @return direcciones traducidas por esta MMU. */
+    public long getTranslations() { return translations; }
+    /** @return fallos de TLB de esta MMU, cada uno con un recorrido de la tabla de páginas. */
+    public long getTableWalks() { return walks; }
+    public long getPageFaults() { return pageFaults; }
+    /** @return ciclos de espera de traducción y fallos de página, más los del siguiente nivel. */
+    public long getStallCycles() { return stallCycles; }
+}
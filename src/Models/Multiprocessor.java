@@ -0,0 +1,252 @@
+package Models;
+
+import Enums.SmpModel;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * Multiprocesador simétrico: N núcleos ({@link CPU}) con caché privada coherente por MESI,
+ * conectados por un {@link CoherenceBus} a una única memoria compartida.
+ * La búsqueda de instrucciones no pasa por las cachés: cada núcleo tiene su propio programa.
+ * El id de cada núcleo queda en su registro CORE, para que un mismo programa reparta el trabajo.
+ *
+ * Dos modelos de temporización ({@link SmpModel}), ambos deterministas:
+ * <ul>
+ *   <li>{@link #run(long)} ({@link SmpModel#INTERLEAVED}): turnos round-robin de
+ *       {@link #setQuantum(int) quantum} ciclos por núcleo. Es el modelo de referencia.</li>
+ *   <li>{@link #runEpochs(long, int)} ({@link SmpModel#EPOCH}): por épocas, con cada núcleo en un
+ *       hilo mientras sus accesos se resuelvan en su propia caché; las instrucciones que necesitan
+ *       el bus o la E/S compartida se ejecutan al final de la época, en orden de id de núcleo.
+ *       La intercalación es mucho más gruesa, así que el tráfico de coherencia no es comparable
+ *       con el del modelo intercalado: un núcleo puede acertar cientos de veces en una línea que
+ *       con turnos finos le habrían invalidado. El resultado no depende del número de hilos.</li>
+ * </ul>
+ */
+public class Multiprocessor {
+    public static final int DEFAULT_CACHE_LINES = 64;
+    public static final int DEFAULT_LINE_SIZE = 4;
+    public static final int DEFAULT_EPOCH = 1024; // Instrucciones por núcleo y época en runEpochs
+
+    private final Memory memory;
+    private final CoherenceBus bus;
+    private final CPU[] cores;
+    private final CoherentCache[] caches;
+    private int quantum = 1;
+    private int epoch = DEFAULT_EPOCH;
+    private SmpModel model = SmpModel.INTERLEAVED; // Modelo de la última ejecución
+
+    /**
+     * @param memory     Memoria principal compartida.
+     * @param programs   Programa de cada núcleo (uno por núcleo).
+     * @param devices    Dispositivos de E/S, compartidos por todos los núcleos.
+     * @param cacheLines Líneas de la caché de cada núcleo.
+     * @param lineSize   Celdas por línea de caché.
+     */
+    public Multiprocessor(Memory memory, List<List<String>> programs, List<IODevice> devices,
+                          int cacheLines, int lineSize) {
+        if (programs.isEmpty()) {
+            throw new IllegalArgumentException("El multiprocesador necesita al menos un núcleo.");
+        }
+        this.memory = memory;
+        this.bus = new CoherenceBus(memory, lineSize);
+        this.cores = new CPU[programs.size()];
+        this.caches = new CoherentCache[programs.size()];
+        for (int i = 0; i < cores.length; i++) {
+            cores[i] = new CPU(memory, memory, devices, programs.get(i));
+            caches[i] = bus.attach(cacheLines);
+            cores[i].setMemoryPort(caches[i]);
+            cores[i].getRegisterFile().write("CORE", i, "(Id de núcleo)");
+        }
+    }
+
+    /**
+     * @param cycles Ciclos que ejecuta cada núcleo en su turno de {@link #run(long)} (mínimo 1).
+     */
+    public void setQuantum(int cycles) {
+        if (cycles < 1) {
+            throw new IllegalArgumentException("El quantum debe ser positivo: " + cycles);
+        }
+        this.quantum = cycles;
+    }
+
+    /**
+     * @param instructions Instrucciones que puede ejecutar cada núcleo por época en {@link #runEpochs}.
+     */
+    public void setEpoch(int instructions) {
+        if (instructions < 1) {
+            throw new IllegalArgumentException("La época debe ser positiva: " + instructions);
+        }
+        this.epoch = instructions;
+    }
+
+    /**
+     * Un turno de cada núcleo no detenido, en orden de id.
+     */
+    public void step() {
+        for (CPU core : cores) {
+            for (int q = 0; q < quantum && !core.isHalted(); q++) {
+                core.executeCycle();
+            }
+        }
+    }
+
+    /**
+     * Intercalación round-robin hasta que todos los núcleos se detengan.
+     * @param maxCycles Límite de ciclos, sumando todos los núcleos.
+     * @return ciclos ejecutados.
+     */
+    public long run(long maxCycles) {
+        model = SmpModel.INTERLEAVED;
+        long start = getTotalCycles();
+        while (!isHalted() && getTotalCycles() - start < maxCycles) {
+            step();
+        }
+        return getTotalCycles() - start;
+    }
+
+    /**
+     * Ejecución con el modelo {@link SmpModel#EPOCH}, con los núcleos en hilos del anfitrión.
+     * En cada época, cada núcleo avanza en paralelo mientras su próxima instrucción no necesite
+     * el bus: un acceso que acierta en su caché con el permiso necesario solo toca estado privado.
+     * El primer acceso que requiere una transacción de bus, o una E/S, detiene al núcleo; al cerrar
+     * la época esas instrucciones se ejecutan en serie, en orden de id. El resultado es determinista
+     * y no depende del número de hilos, pero no coincide con el de {@link #run(long)}: ver {@link SmpModel}.
+     * La última época se recorta para no pasar de maxCycles (como mucho una instrucción por núcleo).
+     * Requiere modo WIRED en todos los núcleos (una instrucción por ciclo); si no, se usa {@link #run(long)}.
+     * @param maxCycles Límite de ciclos, sumando todos los núcleos.
+     * @param threads   Hilos del anfitrión.
+     * @return ciclos ejecutados.
+     */
+    public long runEpochs(long maxCycles, int threads) {
+        if (threads < 1) {
+            throw new IllegalArgumentException("Número de hilos inválido: " + threads);
+        }
+        for (CPU core : cores) {
+            if (!core.getControlType().isWired()) {
+                return run(maxCycles);
+            }
+        }
+        model = SmpModel.EPOCH;
+        long start = getTotalCycles();
+        boolean[] blocked = new boolean[cores.length];
+        long[] budget = new long[cores.length]; // Ciclos que puede gastar cada núcleo en la época
+        List<Callable<Void>> tasks = new ArrayList<>(cores.length);
+        for (int i = 0; i < cores.length; i++) {
+            int id = i;
+            tasks.add(() -> {
+                blocked[id] = runLocal(cores[id], caches[id], budget[id]);
+                return null;
+            });
+        }
+        ForkJoinPool pool = new ForkJoinPool(threads);
+        try {
+            while (!isHalted() && getTotalCycles() - start < maxCycles) {
+                shareBudget(maxCycles - (getTotalCycles() - start), budget);
+                pool.invokeAll(tasks);
+                for (int i = 0; i < cores.length; i++) {
+                    if (blocked[i] && !cores[i].isHalted()) {
+                        cores[i].executeCycle(); // Instrucción con transacción de bus o E/S, en serie
+                    }
+                }
+            }
+        } finally {
+            pool.shutdown();
+        }
+        return getTotalCycles() - start;
+    }
+
+    /**
+     * Reparte los ciclos que quedan entre los núcleos activos, a partes iguales (el resto, a los
+     * de menor id). Solo limita la época final: antes cada parte supera lo que cabe en una época.
+     */
+    private void shareBudget(long remaining, long[] budget) {
+        int active = 0;
+        for (CPU core : cores) {
+            if (!core.isHalted()) {
+                active++;
+            }
+        }
+        long share = remaining / active;
+        long extra = remaining % active;
+        for (int i = 0; i < cores.length; i++) {
+            budget[i] = cores[i].isHalted() ? 0 : share + (extra-- > 0 ? 1 : 0);
+        }
+    }
+
+    /**
+     * Avanza un núcleo hasta una época completa, hasta agotar su parte del presupuesto o hasta
+     * una instrucción que necesite el bus.
+     * @return true si se detuvo ante una instrucción que debe ejecutarse en serie.
+     */
+    private boolean runLocal(CPU core, CoherentCache cache, long budget) {
+        long start = core.getCycleCount();
+        for (int n = 0; n < epoch && !core.isHalted(); n++) {
+            if (core.getCycleCount() - start >= budget) {
+                return false;
+            }
+            if (!isLocal(core.nextInstruction(), cache)) {
+                return true;
+            }
+            core.executeCycle();
+        }
+        return false;
+    }
+
+    private static boolean isLocal(DecodedInstruction next, CoherentCache cache) {
+        if (next == null) {
+            return true; // Fin del programa: el núcleo se detiene sin acceder a nada compartido
+        }
+        switch (next.getKind()) {
+            case InstructionSet.STORE:
+                return next.operandCount() <= 1 || !next.isNumeric(1) || cache.canServeLocally(next.value(1), true);
+            case InstructionSet.LOAD_REG_IMM:
+                return next.operandCount() <= 1 || !next.isNumeric(1) || cache.canServeLocally(next.value(1), false);
+            case InstructionSet.INPUT_CHAR:
+            case InstructionSet.OUTPUT_CHAR:
+                return false; // Dispositivos compartidos
+            default:
+                return true;
+        }
+    }
+
+    /**
+     * Vuelca a memoria las líneas modificadas de todas las cachés, para inspeccionar
+     * la memoria principal con el resultado de todos los núcleos.
+     */
+    public void flushCaches() {
+        for (CoherentCache cache : caches) {
+            cache.flush();
+        }
+    }
+
+    /** @return true si todos los núcleos se han detenido. */
+    public boolean isHalted() {
+        for (CPU core : cores) {
+            if (!core.isHalted()) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    public long getTotalCycles() {
+        long total = 0;
+        for (CPU core : cores) {
+            total += core.getCycleCount();
+        }
+        return total;
+    }
+
+    /** @return modelo de temporización de la última ejecución. */
+    public SmpModel getModel() { return model; }
+    public int getEpoch() { return epoch; }
+    public int getQuantum() { return quantum; }
+    public int getCoreCount() { return cores.length; }
+    public CPU getCore(int i) { return cores[i]; }
+    public CoherentCache getCache(int i) { return caches[i]; }
+    public CoherenceBus getBus() { return bus; }
+    public Memory getMemory() { return memory; }
+}
@@ -0,0 +1,136 @@
+package Models;
+
+import Enums.FunctionalUnit;
+import Enums.OpCode;
+
+/**
+ * Parámetros del núcleo fuera de orden: anchos, tamaños del ROB y de la LSQ, y para cada
+ * {@link FunctionalUnit} el número de unidades, su latencia y sus estaciones de reserva.
+ * Se puede construir con los valores por defecto y ajustar desde una especificación de
+ * texto con {@link #parse(String)}.
+ */
+public final class OutOfOrderConfig {
+    private static final int UNITS = FunctionalUnit.values().length;
+
+    public final int width;        // Instrucciones buscadas y despachadas por ciclo
+    public final int commitWidth;  // Instrucciones retiradas por ciclo
+    public final int robSize;
+    public final int lsqSize;
+    public final int frontEndDepth; // Ciclos entre la búsqueda y el despacho
+    private final int[] units;
+    private final int[] latencies;
+    private final int[] stations;
+
+    /**
+     * @param units     Unidades de cada tipo, indexadas por {@link FunctionalUnit#ordinal()}.
+     * @param latencies Latencia en ciclos de cada tipo (en LOAD_STORE, sin contar las esperas del puerto de datos).
+     * @param stations  Estaciones de reserva de cada tipo.
+     * @throws IllegalArgumentException si algún valor no es positivo.
+     */
+    public OutOfOrderConfig(int width, int commitWidth, int robSize, int lsqSize, int frontEndDepth,
+                            int[] units, int[] latencies, int[] stations) {
+        if (width <= 0 || commitWidth <= 0 || robSize <= 0 || lsqSize <= 0 || frontEndDepth <= 0) {
+            throw new IllegalArgumentException("Anchos, ROB, LSQ y profundidad deben ser positivos.");
+        }
+        if (units.length != UNITS || latencies.length != UNITS || stations.length != UNITS) {
+            throw new IllegalArgumentException("Se esperan " + UNITS + " tipos de unidad funcional.");
+        }
+        for (int u = 0; u < UNITS; u++) {
+            if (units[u] <= 0 || latencies[u] <= 0 || stations[u] <= 0) {
+                throw new IllegalArgumentException("Unidad " + FunctionalUnit.values()[u]
+                        + ": número, latencia y estaciones deben ser positivos.");
+            }
+        }
+        this.width = width;
+        this.commitWidth = commitWidth;
+        this.robSize = robSize;
+        this.lsqSize = lsqSize;
+        this.frontEndDepth = frontEndDepth;
+        this.units = units.clone();
+        this.latencies = latencies.clone();
+        this.stations = stations.clone();
+    }
+
+    /** @return configuración por defecto: 4 de ancho, ROB de 64, LSQ de 32. */
+    public static OutOfOrderConfig defaults() {
+        //                        ALU MUL DIV BR  L/S
+        int[] units =     new int[]{4,  1,  1,  1,  2};
+        int[] latencies = new int[]{1,  3, 12,  1,  1};
+        int[] stations =  new int[]{16, 8,  4,  8, 16};
+        return new OutOfOrderConfig(4, 4, 64, 32, 3, units, latencies, stations);
+    }
+
+    /**
+     * Lee una especificación "clave=valor,...", p.ej. "width=2,rob=32,mul=2:4:8".
+     * Claves: width, commit, rob, lsq, depth, y por unidad alu, mul, div, branch, mem con
+     * el valor "unidades[:latencia[:estaciones]]". Las claves omitidas toman los valores de
+     * {@link #defaults()}.
+     * @throws IllegalArgumentException si la especificación no es válida.
+     */
+    public static OutOfOrderConfig parse(String spec) {
+        OutOfOrderConfig base = defaults();
+        int width = base.width, commit = base.commitWidth, rob = base.robSize, lsq = base.lsqSize, depth = base.frontEndDepth;
+        int[] units = base.units.clone();
+        int[] latencies = base.latencies.clone();
+        int[] stations = base.stations.clone();
+        for (String entry : spec.split(",")) {
+            if (entry.isBlank()) {
+                continue;
+            }
+            String[] kv = entry.split("=", 2);
+            if (kv.length != 2) {
+                throw new IllegalArgumentException("Parámetro del núcleo fuera de orden inválido: " + entry);
+            }
+            String value = kv[1].trim();
+            switch (kv[0].trim()) {
+                case "width":  width = Integer.parseInt(value); break;
+                case "commit": commit = Integer.parseInt(value); break;
+                case "rob":    rob = Integer.parseInt(value); break;
+                case "lsq":    lsq = Integer.parseInt(value); break;
+                case "depth":  depth = Integer.parseInt(value); break;
+                case "alu":    parseUnit(FunctionalUnit.INT_ALU, value, units, latencies, stations); break;
+                case "mul":    parseUnit(FunctionalUnit.MULTIPLIER, value, units, latencies, stations); break;
+                case "div":    parseUnit(FunctionalUnit.DIVIDER, value, units, latencies, stations); break;
+                case "branch": parseUnit(FunctionalUnit.BRANCH, value, units, latencies, stations); break;
+                case "mem":    parseUnit(FunctionalUnit.LOAD_STORE, value, units, latencies, stations); break;
+                default:
+                    throw new IllegalArgumentException("Parámetro del núcleo fuera de orden desconocido: " + kv[0]);
+            }
+        }
+        return new OutOfOrderConfig(width, commit, rob, lsq, depth, units, latencies, stations);
+    }
+
+    private static void parseUnit(FunctionalUnit unit, String value, int[] units, int[] latencies, int[] stations) {
+        String[] parts = value.split(":");
+        units[unit.ordinal()] = Integer.parseInt(parts[0]);
+        if (parts.length > 1) {
+            latencies[unit.ordinal()] = Integer.parseInt(parts[1]);
+        }
+        if (parts.length > 2) {
+            stations[unit.ordinal()] = Integer.parseInt(parts[2]);
+        }
+    }
+
+    /** @return la unidad funcional que ejecuta una operación de la ALU. */
+    public static FunctionalUnit unitFor(OpCode op) {
+        switch (op) {
+            case MUL: return FunctionalUnit.MULTIPLIER;
+            case DIV: return FunctionalUnit.DIVIDER;
+            default:  return FunctionalUnit.INT_ALU;
+        }
+    }
+
+    public int units(FunctionalUnit unit) { return units[unit.ordinal()]; }
+    public int latency(FunctionalUnit unit) { return latencies[unit.ordinal()]; }
+    public int stations(FunctionalUnit unit) { return stations[unit.ordinal()]; }
+
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder(String.format("ancho %d, retiro %d, ROB %d, LSQ %d, profundidad %d",
+                width, commitWidth, robSize, lsqSize, frontEndDepth));
+        for (FunctionalUnit unit : FunctionalUnit.values()) {
+            sb.append(String.format("; %s %dx lat %d RS %d", unit, units(unit), latency(unit), stations(unit)));
+        }
+        return sb.toString();
+    }
+}
@@ -0,0 +1,474 @@
+package Models;
+
+import Enums.FunctionalUnit;
+import Enums.OpCode;
+import Enums.PredictorType;
+
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Núcleo superescalar fuera de orden al estilo de Tomasulo, sobre el mismo repertorio que {@link CPU}.
+ *
+ * Como {@link PipelinedCpu}, ejecuta cada instrucción con la lógica cableada de una CPU interna
+ * al buscarla, así que el estado arquitectónico es el del núcleo secuencial; este modelo
+ * calcula el tiempo ciclo a ciclo:
+ * <ul>
+ *   <li>Búsqueda de hasta {@link OutOfOrderConfig#width} instrucciones por ciclo guiada por un
+ *       {@link BranchPredictor}; un salto mal predicho detiene la búsqueda hasta que se ejecuta.</li>
+ *   <li>Despacho en orden con renombrado de registros (cada registro apunta a la entrada del ROB
+ *       que lo producirá) a las estaciones de reserva de su {@link FunctionalUnit}, al ROB y,
+ *       si accede a memoria, a la LSQ.</li>
+ *   <li>Emisión fuera de orden, de la más antigua a la más nueva, cuando los operandos están
+ *       listos y hay una unidad libre (unidades segmentadas: una operación nueva por ciclo).
+ *       Una carga toma el dato de un almacenamiento anterior a la misma dirección que siga en la
+ *       LSQ (las direcciones son inmediatas, así que siempre se conocen al despachar).</li>
+ *   <li>Retiro en orden de hasta {@link OutOfOrderConfig#commitWidth} instrucciones por ciclo.
+ *       La E/S solo se ejecuta en la cabeza del ROB, sin especulación.</li>
+ * </ul>
+ */
+public class OutOfOrderCpu {
+    // Causas de los ciclos en que el despacho no llena su ancho
+    public static final int STALL_ROB_FULL = 0;
+    public static final int STALL_RS_FULL = 1;
+    public static final int STALL_LSQ_FULL = 2;
+    public static final int STALL_BRANCH = 3;     // Búsqueda detenida por un salto mal predicho
+    public static final int STALL_FRONT_END = 4;  // Instrucciones aún en las etapas de búsqueda
+    public static final int STALL_CAUSES = 5;
+
+    private static final String[] STALL_NAMES = {"ROB lleno", "RS llena", "LSQ llena", "salto mal predicho", "búsqueda"};
+    private static final int NO_UNIT = -1;
+
+    /** Instrucción en vuelo, desde la búsqueda hasta el retiro. */
+    private static final class Op {
+        long seq;
+        int pc;
+        int unit;            // Ordinal de FunctionalUnit, o NO_UNIT si se completa al despacharse
+        int src1, src2;      // Registros leídos (-1 ninguno)
+        boolean readsFlags;
+        int dest;            // Registro escrito (-1 ninguno)
+        boolean writesFlags;
+        long producer1, producer2, producer3; // Entradas del ROB de las que depende (-1 ninguna)
+        long frontEndReady;  // Ciclo desde el que puede despacharse
+        long fetchCycle;
+        int latency;
+        boolean load, store, atHead;
+        int address;
+        boolean mispredicted;
+        boolean issued;
+        long done;           // Ciclo en que el resultado está disponible
+    }
+
+    private final CPU cpu;
+    private final OutOfOrderConfig config;
+    private BranchPredictor predictor = new BranchPredictor(PredictorType.TWO_BIT, BranchPredictor.DEFAULT_TABLE_BITS, 64);
+    private final int accId;
+    private final int[] unitCounts;
+    private final int[] unitStations;
+
+    private final Op[] rob;
+    private long head = 0;           // Secuencia de la instrucción más antigua del ROB
+    private long tail = 0;           // Secuencia de la próxima instrucción a despachar
+    private final ArrayDeque<Op> fetchQueue = new ArrayDeque<>();
+    private final ArrayDeque<Op> freeOps = new ArrayDeque<>();
+    private final int fetchQueueSize;
+    private long[] renameMap = new long[16];   // Registro -> secuencia de su productor en vuelo (-1 ninguno)
+    private long flagsProducer = -1;
+    private final Map<Integer, Long> lastStore = new HashMap<>(); // Dirección -> último almacenamiento despachado
+    private final int[] stationsUsed;
+    private final int[] unitsBusy;   // Emisiones a cada tipo de unidad en el ciclo actual
+    private int lsqUsed = 0;
+    private boolean fetchEnded = false;
+    private boolean fetchBlocked = false; // Esperando a que se ejecute un salto mal predicho
+    private long fetchResume = 0;
+
+    private long cycles = 0;
+    private long committed = 0;
+    private long robOccupancy = 0;   // Suma de la ocupación del ROB en cada ciclo
+    private int robPeak = 0;
+    private final long[] stallCycles = new long[STALL_CAUSES];
+
+    /**
+     * Mismos parámetros que {@link CPU}, más la configuración del núcleo.
+     */
+    public OutOfOrderCpu(Memory mem, AddressingMode addrMode, List<IODevice> devices, List<String> instructions,
+                         OutOfOrderConfig config) {
+        this.cpu = new CPU(mem, addrMode, devices, instructions);
+        cpu.getControlType().switchMode("WIRED");
+        cpu.setBlockTranslation(false);
+        this.config = config;
+        this.accId = cpu.getRegisterFile().idOf("ACC");
+        this.rob = new Op[config.robSize];
+        this.fetchQueueSize = config.width * config.frontEndDepth;
+        FunctionalUnit[] kinds = FunctionalUnit.values();
+        this.unitCounts = new int[kinds.length];
+        this.unitStations = new int[kinds.length];
+        for (FunctionalUnit unit : kinds) {
+            unitCounts[unit.ordinal()] = config.units(unit);
+            unitStations[unit.ordinal()] = config.stations(unit);
+        }
+        this.stationsUsed = new int[kinds.length];
+        this.unitsBusy = new int[kinds.length];
+        Arrays.fill(renameMap, -1);
+    }
+
+    /**
+     * Define el predictor de saltos (por defecto, dos bits con BTB de 64 entradas). Se fija antes de ejecutar.
+     * @throws IllegalArgumentException si es null.
+     */
+    public void setBranchPredictor(BranchPredictor predictor) {
+        if (predictor == null) {
+            throw new IllegalArgumentException("El núcleo fuera de orden necesita un predictor de saltos.");
+        }
+        this.predictor = predictor;
+    }
+
+    /**
+     * Avanza un ciclo: retiro, emisión, despacho y búsqueda.
+     */
+    public void tick() {
+        commit();
+        issue();
+        dispatch();
+        fetch();
+        int occupancy = (int) (tail - head);
+        robOccupancy += occupancy;
+        robPeak = Math.max(robPeak, occupancy);
+        cycles++;
+    }
+
+    /**
+     * Ejecuta hasta vaciar el núcleo tras el fin del programa o hasta consumir maxCycles ciclos.
+     * @return ciclos ejecutados.
+     */
+    public long run(long maxCycles) {
+        long start = cycles;
+        while (!isDrained() && cycles - start < maxCycles) {
+            tick();
+        }
+        return cycles - start;
+    }
+
+    /** @return true si el programa terminó y no queda ninguna instrucción en vuelo. */
+    public boolean isDrained() {
+        return fetchEnded && fetchQueue.isEmpty() && head == tail;
+    }
+
+    // --- Etapas ---
+
+    private void commit() {
+        for (int n = 0; n < config.commitWidth && head < tail; n++) {
+            Op op = rob[slot(head)];
+            if (!op.issued || op.done > cycles) {
+                return;
+            }
+            if (op.load || op.store) {
+                lsqUsed--;
+            }
+            if (op.dest >= 0 && renameMap[op.dest] == op.seq) {
+                renameMap[op.dest] = -1; // El valor ya está en el banco de registros
+            }
+            if (op.writesFlags && flagsProducer == op.seq) {
+                flagsProducer = -1;
+            }
+            if (op.store) {
+                Long last = lastStore.get(op.address);
+                if (last != null && last == op.seq) {
+                    lastStore.remove(op.address);
+                }
+            }
+            rob[slot(head)] = null;
+            freeOps.add(op);
+            head++;
+            committed++;
+        }
+    }
+
+    private void issue() {
+        Arrays.fill(unitsBusy, 0);
+        for (long seq = head; seq < tail; seq++) {
+            Op op = rob[slot(seq)];
+            if (op.issued || unitsBusy[op.unit] >= unitCounts[op.unit]) {
+                continue;
+            }
+            if ((op.atHead && seq != head) || !ready(op.producer1) || !ready(op.producer2) || !ready(op.producer3)) {
+                continue;
+            }
+            unitsBusy[op.unit]++;
+            stationsUsed[op.unit]--;
+            op.issued = true;
+            op.done = cycles + op.latency;
+            if (op.mispredicted) {
+                // La búsqueda sigue por el camino correcto cuando el salto se resuelve
+                fetchBlocked = false;
+                fetchResume = op.done + 1;
+                predictor.record(op.pc, true, (int) (fetchResume - op.fetchCycle - 1));
+            }
+        }
+    }
+
+    /** @return true si el resultado del productor está disponible en este ciclo. */
+    private boolean ready(long producer) {
+        if (producer < head) {
+            return true; // Ninguno o ya retirado
+        }
+        Op op = rob[slot(producer)];
+        return op.issued && op.done <= cycles;
+    }
+
+    private void dispatch() {
+        int cause = -1;
+        int n = 0;
+        for (; n < config.width; n++) {
+            Op op = fetchQueue.peek();
+            if (op == null) {
+                cause = fetchBlocked ? STALL_BRANCH : (fetchEnded ? -1 : STALL_FRONT_END);
+                break;
+            }
+            if (op.frontEndReady > cycles) {
+                cause = STALL_FRONT_END;
+                break;
+            }
+            if (tail - head >= rob.length) {
+                cause = STALL_ROB_FULL;
+                break;
+            }
+            if (op.unit != NO_UNIT && stationsUsed[op.unit] >= unitStations[op.unit]) {
+                cause = STALL_RS_FULL;
+                break;
+            }
+            if ((op.load || op.store) && lsqUsed >= config.lsqSize) {
+                cause = STALL_LSQ_FULL;
+                break;
+            }
+            fetchQueue.poll();
+            rename(op);
+        }
+        if (cause >= 0 && n < config.width) {
+            stallCycles[cause]++;
+        }
+    }
+
+    /** Renombra los operandos, reserva los recursos y coloca la instrucción en el ROB. */
+    private void rename(Op op) {
+        op.seq = tail++;
+        op.producer1 = producerOf(op.src1);
+        op.producer2 = producerOf(op.src2);
+        op.producer3 = op.readsFlags ? flagsProducer : -1;
+        if (op.load) {
+            Long store = lastStore.get(op.address);
+            if (store != null && store >= head) {
+                op.producer3 = store;  // El dato llega desde la LSQ, sin acceder a memoria
+                op.latency = config.latency(FunctionalUnit.LOAD_STORE);
+            }
+        }
+        if (op.store) {
+            lastStore.put(op.address, op.seq);
+        }
+        if (op.dest >= 0) {
+            ensureRegister(op.dest);
+            renameMap[op.dest] = op.seq;
+        }
+        if (op.writesFlags) {
+            flagsProducer = op.seq;
+        }
+        if (op.load || op.store) {
+            lsqUsed++;
+        }
+        if (op.unit == NO_UNIT) {
+            op.issued = true; // HLT: nada que ejecutar
+            op.done = cycles;
+        } else {
+            stationsUsed[op.unit]++;
+        }
+        rob[slot(op.seq)] = op;
+    }
+
+    private long producerOf(int reg) {
+        return (reg >= 0 && reg < renameMap.length) ? renameMap[reg] : -1;
+    }
+
+    private void fetch() {
+        if (fetchEnded || fetchBlocked || cycles < fetchResume) {
+            return;
+        }
+        for (int n = 0; n < config.width && fetchQueue.size() < fetchQueueSize; n++) {
+            DecodedInstruction instruction = cpu.nextInstruction();
+            int pc = cpu.getPCValue();
+            long executed = cpu.getInstructionCount();
+            long memoryStall = cpu.getMemoryStallCycles();
+            cpu.executeCycle();
+            if (instruction == null || cpu.getInstructionCount() == executed) {
+                fetchEnded = true; // Fin del programa o instrucción no reconocida
+                return;
+            }
+            Op op = decode(instruction, pc, (int) (cpu.getMemoryStallCycles() - memoryStall));
+            fetchQueue.add(op);
+            if (cpu.isHalted()) {
+                fetchEnded = true;
+                return;
+            }
+            if (isBranch(instruction.getKind()) && predictBranch(op, instruction)) {
+                return; // Salto tomado o mal predicho: termina el grupo de búsqueda
+            }
+        }
+    }
+
+    /**
+     * Compara la predicción con el resultado (ya conocido por la CPU interna).
+     * @return true si la búsqueda no puede seguir en este ciclo.
+     */
+    private boolean predictBranch(Op op, DecodedInstruction instruction) {
+        boolean conditional = instruction.getKind() != InstructionSet.JMP;
+        int target = instruction.value(0);
+        boolean taken = cpu.getPCValue() != op.pc + 1;
+        boolean predictedTaken = !conditional || predictor.predict(op.pc, target);
+        int predictedTarget = predictor.predictTarget(op.pc);
+        predictor.update(op.pc, conditional, taken, target);
+        if (predictedTaken != taken) {
+            op.mispredicted = true;   // Se registra al ejecutarse, cuando se conoce la penalización
+            fetchBlocked = true;
+            return true;
+        }
+        if (taken && predictedTarget != target) {
+            fetchResume = cycles + 2; // El destino se conoce al decodificar
+            predictor.record(op.pc, false, 1);
+            return true;
+        }
+        predictor.record(op.pc, false, 0);
+        return taken;
+    }
+
+    private static boolean isBranch(int kind) {
+        return kind == InstructionSet.JMP || kind == InstructionSet.JE || kind == InstructionSet.JNE;
+    }
+
+    /** Crea la instrucción en vuelo con sus registros, unidad y latencia. */
+    private Op decode(DecodedInstruction instruction, int pc, int memoryStall) {
+        Op op = freeOps.isEmpty() ? new Op() : freeOps.poll();
+        op.pc = pc;
+        op.src1 = -1;
+        op.src2 = -1;
+        op.readsFlags = false;
+        op.dest = cpu.retiredRegister();
+        op.writesFlags = false;
+        op.load = false;
+        op.store = false;
+        op.atHead = false;
+        op.mispredicted = false;
+        op.issued = false;
+        op.fetchCycle = cycles;
+        op.frontEndReady = cycles + config.frontEndDepth;
+        FunctionalUnit unit;
+        switch (instruction.getKind()) {
+            case InstructionSet.ADD:
+                unit = OutOfOrderConfig.unitFor(OpCode.ADD);
+                op.src1 = cpu.boundRegister1();
+                op.src2 = cpu.boundRegister2();
+                break;
+            case InstructionSet.SUB:
+                unit = OutOfOrderConfig.unitFor(OpCode.SUB);
+                op.src1 = cpu.boundRegister1();
+                op.src2 = cpu.boundRegister2();
+                break;
+            case InstructionSet.MUL:
+                unit = OutOfOrderConfig.unitFor(OpCode.MUL);
+                op.src1 = cpu.boundRegister1();
+                op.src2 = cpu.boundRegister2();
+                break;
+            case InstructionSet.CMP:
+                unit = OutOfOrderConfig.unitFor(OpCode.SUB);
+                op.src1 = cpu.boundRegister1();
+                op.src2 = cpu.boundRegister2();
+                op.writesFlags = true;
+                break;
+            case InstructionSet.MOV_REG:
+                unit = FunctionalUnit.INT_ALU;
+                op.src1 = instruction.register(0);
+                break;
+            case InstructionSet.JE:
+            case InstructionSet.JNE:
+                unit = FunctionalUnit.BRANCH;
+                op.readsFlags = true;
+                break;
+            case InstructionSet.JMP:
+                unit = FunctionalUnit.BRANCH;
+                break;
+            case InstructionSet.LOAD_REG_IMM:
+                unit = FunctionalUnit.LOAD_STORE;
+                op.load = true;
+                op.address = instruction.value(1);
+                break;
+            case InstructionSet.STORE:
+                unit = FunctionalUnit.LOAD_STORE;
+                op.store = true;
+                op.src1 = cpu.boundRegister1();
+                op.address = instruction.value(1);
+                break;
+            case InstructionSet.OUTPUT_CHAR:
+                unit = FunctionalUnit.LOAD_STORE;
+                op.src1 = accId;
+                op.atHead = true;
+                break;
+            case InstructionSet.INPUT_CHAR:
+                unit = FunctionalUnit.LOAD_STORE;
+                op.atHead = true;
+                break;
+            case InstructionSet.HLT:
+                unit = null;
+                break;
+            default:
+                unit = FunctionalUnit.INT_ALU; // MOV_IMM y las instrucciones sin lógica cableada
+                break;
+        }
+        op.unit = (unit != null) ? unit.ordinal() : NO_UNIT;
+        op.latency = (unit != null) ? config.latency(unit) + (op.load || op.store ? memoryStall : 0) : 0;
+        return op;
+    }
+
+    private int slot(long seq) {
+        return (int) (seq % rob.length);
+    }
+
+    private void ensureRegister(int reg) {
+        if (reg >= renameMap.length) {
+            int size = Math.max(reg + 1, renameMap.length * 2);
+            int old = renameMap.length;
+            renameMap = Arrays.copyOf(renameMap, size);
+            Arrays.fill(renameMap, old, size, -1);
+        }
+    }
+
+    // --- Estadísticas ---
+
+    /** @return la CPU con el estado arquitectónico (registros, memoria, motivo de parada...). */
+    public CPU getCpu() { return cpu; }
+    public OutOfOrderConfig getConfig() { return config; }
+    public BranchPredictor getBranchPredictor() { return predictor; }
+    public long getCycleCount() { return cycles; }
+    /** @return instrucciones retiradas. */
+    public long getCommittedCount() { return committed; }
+
+    /** @return instrucciones retiradas por ciclo (0 si no hubo ciclos). */
+    public double getIpc() {
+        return (cycles > 0) ? (double) committed / cycles : 0.0;
+    }
+
+    /** @return ocupación media del ROB por ciclo. */
+    public double getAverageRobOccupancy() {
+        return (cycles > 0) ? (double) robOccupancy / cycles : 0.0;
+    }
+
+    public int getPeakRobOccupancy() { return robPeak; }
+
+    /** @return ciclos en que el despacho no llenó su ancho por la causa indicada (STALL_*). */
+    public long getStallCycles(int cause) { return stallCycles[cause]; }
+
+    /** @return nombre de una causa de parada, o "?" si no existe. */
+    public static String stallCauseName(int cause) {
+        return (cause >= 0 && cause < STALL_CAUSES) ? STALL_NAMES[cause] : "?";
+    }
+}
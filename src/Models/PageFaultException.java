@@ -0,0 +1,21 @@
+package Models;
+
+/**
+ * Acceso a una página virtual sin marco físico que la rutina de servicio del fallo de
+ * página no pudo resolver. Es un {@link IndexOutOfBoundsException} para que la CPU lo
+ * trate como cualquier otro acceso inválido a memoria.
+ */
+public class PageFaultException extends IndexOutOfBoundsException {
+    private static final long serialVersionUID = 1L;
+
+    private final int virtualAddress;
+
+    public PageFaultException(int virtualAddress) {
+        super("Fallo de página no resuelto en la dirección virtual " + virtualAddress);
+        this.virtualAddress = virtualAddress;
+    }
+
+    public int getVirtualAddress() {
+        return virtualAddress;
+    }
+}
@@ -0,0 +1,46 @@
+package Models;
+
+import java.util.Arrays;
+
+/**
+ * Tabla de páginas de un proceso: para cada página virtual, el marco físico que la
+ * contiene o -1 si no está en memoria. Se guarda en un arreglo plano (tabla de un nivel).
+ */
+public class PageTable {
+    private final int[] frames;
+    private int mapped = 0;
+
+    /**
+     * @param pages Páginas del espacio virtual del proceso.
+     */
+    public PageTable(int pages) {
+        if (pages <= 0) {
+            throw new IllegalArgumentException("Número de páginas inválido: " + pages);
+        }
+        this.frames = new int[pages];
+        Arrays.fill(frames, -1);
+    }
+
+    /** @return marco de la página, o -1 si no está en memoria. */
+    public int frameOf(int page) {
+        return frames[page];
+    }
+
+    /**
+     * Asocia una página virtual a un marco físico.
+     * @throws IndexOutOfBoundsException si la página no existe.
+     */
+    public void map(int page, int frame) {
+        if (frame < 0) {
+            throw new IllegalArgumentException("Marco inválido: " + frame);
+        }
+        if (frames[page] < 0) {
+            mapped++;
+        }
+        frames[page] = frame;
+    }
+
+    public int getPageCount() { return frames.length; }
+    /** @return páginas con marco asignado. */
+    public int getMappedCount() { return mapped; }
+}
@@ -0,0 +1,274 @@
+package Models;
+
+import Enums.PredictorType;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Núcleo segmentado en cinco etapas (IF, ID, EX, MEM, WB) sobre el mismo repertorio que {@link CPU}.
+ *
+ * Cada instrucción se ejecuta con la lógica cableada de una {@link CPU} interna en el momento
+ * en que entra al cauce, así que el estado arquitectónico (registros, memoria, PC, E/S,
+ * motivo de parada) es exactamente el del núcleo secuencial. Lo que cambia es el tiempo:
+ * para cada instrucción se calcula el ciclo en que entra a cada etapa, con las reglas de un
+ * cauce en orden de una instrucción por etapa:
+ * <ul>
+ *   <li>Una instrucción solo entra a una etapa cuando la anterior la ha dejado.</li>
+ *   <li>Riesgos de datos (RAW): con anticipación, el resultado de la ALU llega a EX al ciclo
+ *       siguiente y el de una carga (LOAD, INPUT_CHAR) desde MEM/WB, con una burbuja si la
+ *       instrucción siguiente lo usa. Sin anticipación, el consumidor espera en ID hasta el WB
+ *       del productor (escritura en la primera mitad del ciclo, lectura en la segunda).
+ *       CMP deja su resultado en EX y JE/JNE lo consumen en EX.</li>
+ *   <li>Control: al buscar un salto se consulta el {@link BranchPredictor} (por defecto,
+ *       "nunca salta" sin BTB). Si predice que salta y la BTB da el destino, la búsqueda sigue
+ *       por él sin perder ciclos; si el destino solo se conoce al decodificar, se pierde IF.
+ *       JMP se resuelve en ID; un JE/JNE mal predicho se resuelve en EX y descarta IF e ID.</li>
+ *   <li>MEM dura 1 ciclo más los ciclos de espera del puerto de datos (caché, TLB...).</li>
+ * </ul>
+ * {@link #getCycleCount()} da los ciclos del cauce; {@link CPU#getCycleCount()} de {@link #getCpu()},
+ * los del núcleo secuencial para el mismo programa.
+ */
+public class PipelinedCpu {
+    // Causas de los ciclos de parada
+    public static final int STALL_RAW = 0;       // Operando aún no disponible (sin anticipación posible)
+    public static final int STALL_LOAD_USE = 1;  // Uso inmediato del resultado de una carga
+    public static final int STALL_MEMORY = 2;    // Espera del puerto de datos en MEM
+    public static final int STALL_CAUSES = 3;
+
+    private static final String[] STALL_NAMES = {"RAW", "carga-uso", "memoria"};
+
+    private final CPU cpu;
+    private boolean forwarding = true;
+    private BranchPredictor predictor = new BranchPredictor(PredictorType.NOT_TAKEN, 1, 0);
+
+    // Ciclo de entrada a cada etapa de la última instrucción que entró al cauce
+    private long lastIf = -1;
+    private long lastId = -1;
+    private long lastEx = -1;
+    private long lastMem = -1;
+    private long lastWb = -1;
+    private long redirect = 0;       // Primer ciclo en que IF puede buscar tras un salto
+    private long cycles = 0;         // Ciclos del cauce hasta el último WB
+    private long instructions = 0;
+
+    // Para cada registro, primer ciclo en que un consumidor puede entrar a EX, y si lo produjo una carga
+    private long[] readyEx = new long[16];
+    private boolean[] fromLoad = new boolean[16];
+    private long flagsReadyEx = 0;   // Resultado de CMP
+    private final int accId;
+    private int stallCause = STALL_RAW; // Causa del operando que más retrasa a la instrucción en curso
+
+    private final long[] stallCycles = new long[STALL_CAUSES];
+    private long flushes = 0;             // Saltos tomados que vaciaron parte del cauce
+    private long flushedInstructions = 0; // Instrucciones del camino equivocado descartadas
+
+    /**
+     * Mismos parámetros que {@link CPU}; la CPU interna trabaja en modo WIRED.
+     */
+    public PipelinedCpu(Memory mem, AddressingMode addrMode, List<IODevice> devices, List<String> instructions) {
+        this.cpu = new CPU(mem, addrMode, devices, instructions);
+        cpu.getControlType().switchMode("WIRED");
+        cpu.setBlockTranslation(false);
+        this.accId = cpu.getRegisterFile().idOf("ACC");
+    }
+
+    /**
+     * Activa o desactiva la anticipación de operandos (forwarding). Se fija antes de ejecutar.
+     */
+    public void setForwarding(boolean enabled) {
+        this.forwarding = enabled;
+    }
+
+    public boolean isForwarding() { return forwarding; }
+
+    /**
+     * Define el predictor de saltos. Se fija antes de ejecutar.
+     * @throws IllegalArgumentException si es null.
+     */
+    public void setBranchPredictor(BranchPredictor predictor) {
+        if (predictor == null) {
+            throw new IllegalArgumentException("El núcleo segmentado necesita un predictor de saltos.");
+        }
+        this.predictor = predictor;
+    }
+
+    public BranchPredictor getBranchPredictor() { return predictor; }
+
+    /**
+     * Hace entrar la próxima instrucción al cauce y calcula sus ciclos de cada etapa.
+     */
+    public void step() {
+        if (cpu.isHalted()) {
+            return;
+        }
+        DecodedInstruction instruction = cpu.nextInstruction();
+        int pc = cpu.getPCValue();
+        long executed = cpu.getInstructionCount();
+        long memoryStall = cpu.getMemoryStallCycles();
+        cpu.executeCycle();
+        if (instruction == null) {
+            return; // Fin del programa: no hay nada que buscar
+        }
+        long fetch = Math.max(Math.max(lastIf + 1, lastId), redirect);
+        if (cpu.getInstructionCount() == executed) {
+            // Instrucción no reconocida: la CPU se detiene al decodificarla
+            cycles = Math.max(cycles, fetch + 2);
+            return;
+        }
+        instructions++;
+        int kind = instruction.getKind();
+        int stall = (int) (cpu.getMemoryStallCycles() - memoryStall);
+
+        long id = Math.max(fetch + 1, lastEx);
+        long structural = Math.max(id + 1, lastMem);
+        long operands = operandsReady(kind, instruction);
+        long ex = Math.max(structural, operands);
+        if (operands > structural) {
+            stallCycles[stallCause] += operands - structural;
+        }
+        long mem = Math.max(ex + 1, lastWb);
+        long wb = Math.max(mem + 1 + stall, lastWb + 1);
+        stallCycles[STALL_MEMORY] += stall;
+
+        // Resultados para los consumidores
+        int dest = cpu.retiredRegister();
+        if (dest >= 0) {
+            boolean load = kind == InstructionSet.LOAD_REG_IMM || kind == InstructionSet.INPUT_CHAR;
+            ensureRegister(dest);
+            readyEx[dest] = !forwarding ? wb + 1 : (load ? wb : ex + 1);
+            fromLoad[dest] = load;
+        }
+        if (kind == InstructionSet.CMP) {
+            flagsReadyEx = forwarding ? ex + 1 : wb + 1;
+        }
+
+        if (kind == InstructionSet.JMP || kind == InstructionSet.JE || kind == InstructionSet.JNE) {
+            resolveBranch(pc, kind, instruction, fetch, id, ex);
+        }
+
+        lastIf = fetch;
+        lastId = id;
+        lastEx = ex;
+        lastMem = mem;
+        lastWb = wb;
+        cycles = wb + 1;
+    }
+
+    /**
+     * @return primer ciclo en que la instrucción tiene sus operandos para entrar a EX;
+     *         deja en stallCause la causa del operando que más la retrasa.
+     */
+    private long operandsReady(int kind, DecodedInstruction instruction) {
+        stallCause = STALL_RAW;
+        switch (kind) {
+            case InstructionSet.ADD:
+            case InstructionSet.SUB:
+            case InstructionSet.MUL:
+            case InstructionSet.CMP:
+                return later(later(0, cpu.boundRegister1()), cpu.boundRegister2());
+            case InstructionSet.MOV_REG:
+                return later(0, instruction.register(0));
+            case InstructionSet.STORE:
+                // El dato se usa en MEM: con anticipación no hay espera por él
+                return forwarding ? 0 : later(0, cpu.boundRegister1());
+            case InstructionSet.OUTPUT_CHAR:
+                return forwarding ? 0 : later(0, accId);
+            case InstructionSet.JE:
+            case InstructionSet.JNE:
+                return flagsReadyEx;
+            default:
+                return 0;
+        }
+    }
+
+    /** @return el mayor entre at y el ciclo en que el registro está disponible para EX. */
+    private long later(long at, int reg) {
+        if (reg < 0 || reg >= readyEx.length || readyEx[reg] <= at) {
+            return at;
+        }
+        stallCause = (forwarding && fromLoad[reg]) ? STALL_LOAD_USE : STALL_RAW;
+        return readyEx[reg];
+    }
+
+    /**
+     * Predicción (en IF) y resolución de un salto: si la búsqueda siguió por el camino
+     * equivocado, se descartan las instrucciones buscadas y IF se redirige.
+     */
+    private void resolveBranch(int pc, int kind, DecodedInstruction instruction, long fetch, long id, long ex) {
+        if (cpu.isHalted()) {
+            return; // Salto a una dirección inválida: no se busca nada más
+        }
+        boolean conditional = kind != InstructionSet.JMP;
+        int target = instruction.value(0);
+        boolean taken = cpu.getPCValue() != pc + 1;
+        boolean predictedTaken = !conditional || predictor.predict(pc, target);
+        int predictedTarget = predictor.predictTarget(pc);
+        int penalty = 0;
+        if (predictedTaken != taken) {
+            penalty = 2;                       // Dirección mal predicha: se resuelve en EX
+            redirect = ex + 1;
+        } else if (taken && predictedTarget != target) {
+            penalty = 1;                       // Sin destino en la BTB: se conoce en ID
+            redirect = id + 1;
+        }
+        if (penalty > 0) {
+            flushes++;
+            flushedInstructions += penalty;
+        }
+        predictor.record(pc, predictedTaken != taken, penalty);
+        predictor.update(pc, conditional, taken, target);
+    }
+
+    private void ensureRegister(int reg) {
+        if (reg >= readyEx.length) {
+            int size = Math.max(reg + 1, readyEx.length * 2);
+            readyEx = Arrays.copyOf(readyEx, size);
+            fromLoad = Arrays.copyOf(fromLoad, size);
+        }
+    }
+
+    /**
+     * Ejecuta hasta que la CPU se detenga o el cauce consuma maxCycles ciclos.
+     * @return ciclos del cauce ejecutados.
+     */
+    public long run(long maxCycles) {
+        long start = cycles;
+        while (!cpu.isHalted() && cycles - start < maxCycles) {
+            step();
+        }
+        return cycles - start;
+    }
+
+    /** @return la CPU con el estado arquitectónico (registros, memoria, motivo de parada...). */
+    public CPU getCpu() { return cpu; }
+    public boolean isHalted() { return cpu.isHalted(); }
+    /** @return ciclos del cauce, desde el primer IF hasta el último WB. */
+    public long getCycleCount() { return cycles; }
+    /** @return instrucciones que pasaron por el cauce. */
+    public long getInstructionCount() { return instructions; }
+
+    /** @return ciclos por instrucción (0 si no se ejecutó ninguna). */
+    public double getCpi() {
+        return (instructions > 0) ? (double) cycles / instructions : 0.0;
+    }
+
+    /** @return ciclos de parada por la causa indicada (STALL_RAW, STALL_LOAD_USE, STALL_MEMORY). */
+    public long getStallCycles(int cause) { return stallCycles[cause]; }
+
+    public long getTotalStallCycles() {
+        long total = 0;
+        for (long c : stallCycles) {
+            total += c;
+        }
+        return total;
+    }
+
+    public long getFlushCount() { return flushes; }
+    public long getFlushedInstructions() { return flushedInstructions; }
+
+    /** @return nombre de una causa de parada, o "?" si no existe. */
+    public static String stallCauseName(int cause) {
+        return (cause >= 0 && cause < STALL_CAUSES) ? STALL_NAMES[cause] : "?";
+    }
+}
@@ -0,0 +1,106 @@
+package Models;
+
+import java.util.List;
+
+/**
+ * Varios programas aislados en una única memoria física, como procesos de un solo núcleo
+ * con memoria virtual. Cada proceso tiene su CPU (su contexto), su {@link PageTable} y una
+ * {@link Mmu} con paginación bajo demanda; los marcos salen de un {@link FrameAllocator}
+ * común y todas las MMU comparten una {@link Tlb} etiquetada por ASID (el índice del proceso).
+ * Los procesos se turnan en round-robin de {@link #setQuantum(int) quantum} ciclos, así
+ * que la TLB refleja el coste de los cambios de contexto.
+ * Un proceso solo ve los marcos de su tabla: no puede leer ni escribir los de otro.
+ */
+public class ProcessHost {
+    public static final int DEFAULT_QUANTUM = 1000;
+
+    private final Memory memory;
+    private final FrameAllocator allocator;
+    private final Tlb tlb;
+    private final CPU[] processes;
+    private final Mmu[] mmus;
+    private int quantum = DEFAULT_QUANTUM;
+
+    /**
+     * @param memory       Memoria física compartida.
+     * @param programs     Programa de cada proceso.
+     * @param devices      Dispositivos de E/S, compartidos por todos los procesos.
+     * @param pageSize     Celdas por página (potencia de dos, divisor del tamaño de la memoria).
+     * @param virtualPages Páginas del espacio virtual de cada proceso.
+     * @param tlb          TLB compartida.
+     */
+    public ProcessHost(Memory memory, List<List<String>> programs, List<IODevice> devices,
+                       int pageSize, int virtualPages, Tlb tlb) {
+        if (programs.isEmpty()) {
+            throw new IllegalArgumentException("Se necesita al menos un proceso.");
+        }
+        if (pageSize <= 0 || memory.getSize() % pageSize != 0) {
+            throw new IllegalArgumentException("El tamaño de página " + pageSize
+                    + " debe dividir el tamaño de la memoria (" + memory.getSize() + ").");
+        }
+        this.memory = memory;
+        this.allocator = new FrameAllocator(memory.getSize() / pageSize);
+        this.tlb = tlb;
+        this.processes = new CPU[programs.size()];
+        this.mmus = new Mmu[programs.size()];
+        for (int i = 0; i < processes.length; i++) {
+            processes[i] = new CPU(memory, memory, devices, programs.get(i));
+            mmus[i] = new Mmu(memory, processes[i].getInterruptManager(), tlb, pageSize, new PageTable(virtualPages), i);
+            mmus[i].setDemandPaging(allocator);
+            processes[i].setMemoryPort(mmus[i]);
+        }
+    }
+
+    /**
+     * @param cycles Ciclos de cada turno de un proceso (mínimo 1).
+     */
+    public void setQuantum(int cycles) {
+        if (cycles < 1) {
+            throw new IllegalArgumentException("El quantum debe ser positivo: " + cycles);
+        }
+        this.quantum = cycles;
+    }
+
+    /**
+     * Turnos round-robin hasta que todos los procesos se detengan.
+     * @param maxCycles Límite de ciclos, sumando todos los procesos.
+     * @return ciclos ejecutados.
+     */
+    public long run(long maxCycles) {
+        long start = getTotalCycles();
+        while (!isHalted() && getTotalCycles() - start < maxCycles) {
+            for (CPU process : processes) {
+                long turnEnd = process.getCycleCount() + quantum;
+                while (!process.isHalted() && process.getCycleCount() < turnEnd) {
+                    process.executeCycle();
+                }
+            }
+        }
+        return getTotalCycles() - start;
+    }
+
+    /** @return true si todos los procesos se han detenido. */
+    public boolean isHalted() {
+        for (CPU process : processes) {
+            if (!process.isHalted()) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    public long getTotalCycles() {
+        long total = 0;
+        for (CPU process : processes) {
+            total += process.getCycleCount();
+        }
+        return total;
+    }
+
+    public int getProcessCount() { return processes.length; }
+    public CPU getProcess(int i) { return processes[i]; }
+    public Mmu getMmu(int i) { return mmus[i]; }
+    public Tlb getTlb() { return tlb; }
+    public FrameAllocator getFrameAllocator() { return allocator; }
+    public Memory getMemory() { return memory; }
+}
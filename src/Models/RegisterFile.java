@@ -1,10 +1,21 @@
 package Models;
 
+import java.util.Arrays;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.Map;
 import java.util.Collections;
 import java.util.Set;
 
+/**
+ * Banco de registros direccionado por índices enteros.
+ * Los nombres ("ACC", "R1", ...) se traducen a un id una sola vez, al decodificar
+ * el programa; las lecturas y escrituras del ciclo de ejecución usan ese id sobre
+ * un arreglo primitivo y no crean objetos.
+ * La procedencia de cada valor se guarda como una referencia (instrucción, dirección
+ * de memoria o texto fijo) y solo se convierte a texto cuando la vista la pide.
+ */
 public class RegisterFile {
 
     // --- Clase interna para almacenar el valor y su procedencia ---
@@ -18,40 +29,187 @@ public class RegisterFile {
         }
     }
 
-    private final Map<String, RegisterInfo> regs = new HashMap<>();
+    // Tipos de procedencia de un valor
+    private static final byte SOURCE_TEXT = 0;        // Descripción ya construida
+    private static final byte SOURCE_INSTRUCTION = 1; // Resultado de una instrucción (ADD, MOV_IMM, ...)
+    private static final byte SOURCE_MEMORY = 2;      // Cargado desde una dirección de memoria
+
+    private final Map<String, Integer> ids = new HashMap<>();
+    private String[] names = new String[8];
+    private int[] values = new int[8];
+    private boolean[] written = new boolean[8];
+    private byte[] sourceKinds = new byte[8];
+    private Object[] sources = new Object[8];  // String o DecodedInstruction, según sourceKinds
+    private int[] sourceAddresses = new int[8];
+    private int count = 0;
+
+    /**
+     * Devuelve el id de un registro, asignándole uno nuevo si aún no existe.
+     * Pensado para usarse al decodificar, no en el ciclo de ejecución.
+     * @param name nombre del registro.
+     * @return id del registro, o -1 si el nombre es nulo.
+     */
+    public int idOf(String name) {
+        if (name == null) {
+            return -1;
+        }
+        Integer id = ids.get(name);
+        if (id != null) {
+            return id;
+        }
+        if (count == names.length) {
+            int capacity = names.length * 2;
+            names = Arrays.copyOf(names, capacity);
+            values = Arrays.copyOf(values, capacity);
+            written = Arrays.copyOf(written, capacity);
+            sourceKinds = Arrays.copyOf(sourceKinds, capacity);
+            sources = Arrays.copyOf(sources, capacity);
+            sourceAddresses = Arrays.copyOf(sourceAddresses, capacity);
+        }
+        names[count] = name;
+        ids.put(name, count);
+        return count++;
+    }
+
+    /**
+     * @return el nombre del registro con el id dado, o null si no existe.
+     */
+    public String nameOf(int id) {
+        return (id >= 0 && id < count) ? names[id] : null;
+    }
+
+    /**
+     * Acceso directo a los valores, indexados por id, para el código compilado por
+     * {@link BlockCompiler}. El arreglo cambia si se asignan ids nuevos.
+     */
+    int[] valueArray() {
+        return values;
+    }
+
+    /**
+     * Lee el valor de un registro por id.
+     * @return el valor, o 0 si el id no es válido o el registro no se ha escrito.
+     */
+    public int read(int id) {
+        return (id >= 0 && id < count) ? values[id] : 0;
+    }
 
     /**
      * Lee solo el valor numérico de un registro.
      */
     public int read(String name) {
-        RegisterInfo info = regs.get(name);
-        return (info != null) ? info.value : 0;
+        Integer id = (name != null) ? ids.get(name) : null;
+        return (id != null) ? values[id] : 0;
     }
 
     /**
      * Obtiene el objeto completo con valor y descripción.
+     * La descripción se construye en este momento a partir de la procedencia guardada.
      */
     public RegisterInfo getRegisterInfo(String name) {
-        return regs.get(name);
+        Integer id = (name != null) ? ids.get(name) : null;
+        if (id == null || !written[id]) {
+            return null;
+        }
+        return new RegisterInfo(values[id], describe(id));
     }
 
     /**
      * Escribe un valor y su descripción en un registro.
      */
     public void write(String name, int val, String description) {
-        regs.put(name, new RegisterInfo(val, description));
+        write(idOf(name), val, description);
+    }
+
+    /**
+     * Escribe un valor con una descripción fija en el registro con el id dado.
+     * Las escrituras a un id inválido se ignoran.
+     */
+    public void write(int id, int val, String description) {
+        if (store(id, val)) {
+            sourceKinds[id] = SOURCE_TEXT;
+            sources[id] = description;
+        }
     }
 
+    /**
+     * Escribe el resultado de una instrucción; la descripción se genera al consultarla.
+     */
+    public void writeFromInstruction(int id, int val, DecodedInstruction source) {
+        if (store(id, val)) {
+            sourceKinds[id] = SOURCE_INSTRUCTION;
+            sources[id] = source;
+        }
+    }
+
+    /**
+     * Escribe un valor cargado desde memoria, recordando la dirección de origen.
+     */
+    public void writeFromMemory(int id, int val, int addr) {
+        if (store(id, val)) {
+            sourceKinds[id] = SOURCE_MEMORY;
+            sources[id] = null;
+            sourceAddresses[id] = addr;
+        }
+    }
+
+    private boolean store(int id, int val) {
+        if (id < 0 || id >= count) {
+            return false;
+        }
+        values[id] = val;
+        written[id] = true;
+        return true;
+    }
+
+    /**
+     * Construye la descripción de procedencia del valor actual de un registro.
+     * @return la descripción, o null si el registro no se ha escrito.
+     */
+    public String describe(int id) {
+        if (id < 0 || id >= count || !written[id]) {
+            return null;
+        }
+        switch (sourceKinds[id]) {
+            case SOURCE_INSTRUCTION:
+                return ((DecodedInstruction) sources[id]).describeResult();
+            case SOURCE_MEMORY:
+                return String.format("(Cargado desde Mem[0x%04X])", sourceAddresses[id]);
+            default:
+                return (String) sources[id];
+        }
+    }
+
+    /**
+     * Borra los valores de todos los registros. Los ids ya asignados se conservan.
+     */
     public void clear() {
-        regs.clear();
+        Arrays.fill(values, 0, count, 0);
+        Arrays.fill(written, 0, count, false);
+        Arrays.fill(sources, 0, count, null);
     }
 
+    /**
+     * @return los nombres de los registros que tienen un valor escrito.
+     */
     public Set<String> getRegisterNames() {
-        return Collections.unmodifiableSet(regs.keySet());
+        Set<String> result = new LinkedHashSet<>();
+        for (int id = 0; id < count; id++) {
+            if (written[id]) {
+                result.add(names[id]);
+            }
+        }
+        return Collections.unmodifiableSet(result);
     }
 
     @Override
     public String toString() {
-        return "RegisterFile" + regs.toString();
+        Map<String, Integer> snapshot = new LinkedHashMap<>();
+        for (int id = 0; id < count; id++) {
+            if (written[id]) {
+                snapshot.put(names[id], values[id]);
+            }
+        }
+        return "RegisterFile" + snapshot;
     }
-}
\ No newline at end of file
+}
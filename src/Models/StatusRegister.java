@@ -0,0 +1,51 @@
+package Models;
+
+/**
+ * Registro de estado (banderas de condición) que consultan los saltos condicionales.
+ * Solo lo escribe CMP, copiando las banderas que deja la {@link ALU} al restar sus operandos;
+ * JE y JNE lo leen sin modificarlo, así que varios saltos pueden usar la misma comparación.
+ */
+public class StatusRegister {
+    private boolean zero;
+    private boolean sign;
+    private boolean carry;
+    private boolean overflow;
+
+    /**
+     * Copia las banderas de la última operación de la ALU.
+     * @param alu ALU que acaba de operar.
+     */
+    public void latch(ALU alu) {
+        this.zero = alu.isZero();
+        this.sign = alu.isSign();
+        this.carry = alu.isCarry();
+        this.overflow = alu.isOverflow();
+    }
+
+    /** @return true si los operandos de la última comparación eran iguales. */
+    public boolean isZero()     { return zero; }
+    public boolean isSign()     { return sign; }
+    public boolean isCarry()    { return carry; }
+    public boolean isOverflow() { return overflow; }
+
+    /** @return true si en la última comparación el primer operando era menor (con signo). */
+    public boolean isLess() {
+        return sign != overflow;
+    }
+
+    /**
+     * Pone todas las banderas a false.
+     */
+    public void clear() {
+        zero = false;
+        sign = false;
+        carry = false;
+        overflow = false;
+    }
+
+    @Override
+    public String toString() {
+        return "Flags[Z=" + (zero ? 1 : 0) + ", S=" + (sign ? 1 : 0)
+                + ", C=" + (carry ? 1 : 0) + ", O=" + (overflow ? 1 : 0) + "]";
+    }
+}
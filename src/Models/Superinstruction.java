@@ -0,0 +1,74 @@
+package Models;
+
+/**
+ * Superinstrucciones: pares de instrucciones adyacentes que la ejecución por bloques
+ * traducidos despacha con un único manejador. El análisis se hace al cargar el programa
+ * sobre la caché de instrucciones decodificadas; la ejecución paso a paso y el modo MICRO
+ * siguen viendo las instrucciones originales.
+ */
+public final class Superinstruction {
+    public static final int NONE = 0;
+    public static final int MOV_IMM_ACC_OUTPUT = 1; // MOV_IMM ACC n + OUTPUT_CHAR
+    public static final int INPUT_OUTPUT = 2;       // INPUT_CHAR + OUTPUT_CHAR (eco)
+    public static final int CMP_JE = 3;             // CMP a b + JE dir
+    public static final int CMP_JNE = 4;            // CMP a b + JNE dir
+    public static final int COUNT = 5;
+
+    private static final String[] NAMES = {
+        "-", "MOV_IMM ACC+OUTPUT_CHAR", "INPUT_CHAR+OUTPUT_CHAR", "CMP+JE", "CMP+JNE"
+    };
+
+    private Superinstruction() {
+    }
+
+    /** @return nombre legible de la superinstrucción. */
+    public static String name(int kind) {
+        return (kind >= 0 && kind < COUNT) ? NAMES[kind] : "?";
+    }
+
+    /**
+     * Recorre el programa y marca dónde empieza cada superinstrucción. Las fusiones no se
+     * solapan: una instrucción pertenece como mucho a una. Solo se fusionan instrucciones
+     * con microprograma y cuyo primer elemento no puede detener la CPU.
+     * @param program Programa decodificado.
+     * @param accId   Id del registro ACC.
+     * @return tabla dirección -> superinstrucción que empieza en ella (NONE si ninguna).
+     */
+    static int[] scan(DecodedInstruction[] program, int accId) {
+        int[] fusions = new int[program.length];
+        for (int addr = 0; addr + 1 < program.length; addr++) {
+            int kind = match(program[addr], program[addr + 1], accId);
+            if (kind != NONE) {
+                fusions[addr] = kind;
+                addr++; // La segunda instrucción ya pertenece a esta fusión
+            }
+        }
+        return fusions;
+    }
+
+    private static int match(DecodedInstruction first, DecodedInstruction second, int accId) {
+        if (first == null || second == null || first.getOpcode() < 0 || second.getOpcode() < 0) {
+            return NONE;
+        }
+        switch (first.getKind()) {
+            case InstructionSet.MOV_IMM:
+                if (second.getKind() == InstructionSet.OUTPUT_CHAR && first.operandCount() > 1
+                        && first.register(0) == accId && first.isNumeric(1)) {
+                    return MOV_IMM_ACC_OUTPUT;
+                }
+                return NONE;
+            case InstructionSet.INPUT_CHAR:
+                return (second.getKind() == InstructionSet.OUTPUT_CHAR) ? INPUT_OUTPUT : NONE;
+            case InstructionSet.CMP:
+                if (first.operandCount() <= 1) {
+                    return NONE;
+                }
+                if (second.getKind() == InstructionSet.JE) {
+                    return CMP_JE;
+                }
+                return (second.getKind() == InstructionSet.JNE) ? CMP_JNE : NONE;
+            default:
+                return NONE;
+        }
+    }
+}
@@ -3,6 +3,7 @@ package Models;
 import java.io.BufferedReader;
 import java.io.FileReader;
 import java.io.IOException;
+import java.io.Reader;
 
 /**
  * Dispositivo de entrada que lee un archivo de texto carácter a carácter.
@@ -23,6 +24,17 @@ public class TextInputDevice extends IODevice {
         this.status = "OPEN";
     }
 
+    /**
+     * Crea un TextInputDevice que lee de una fuente ya abierta (p.ej. la entrada estándar).
+     * @param id identificador del dispositivo.
+     * @param source fuente de caracteres.
+     */
+    public TextInputDevice(String id, Reader source) {
+        super(id);
+        this.reader = (source instanceof BufferedReader) ? (BufferedReader) source : new BufferedReader(source);
+        this.status = "OPEN";
+    }
+
     /**
      * Lee el siguiente carácter del archivo.
      * @return el código ASCII del carácter, o -1 si fin de archivo.
@@ -3,12 +3,29 @@ package Models;
 import java.io.BufferedWriter;
 import java.io.FileWriter;
 import java.io.IOException;
+import java.io.Writer;
 
 /**
  * Dispositivo de salida que escribe caracteres en un archivo de texto.
+ *
+ * Por defecto acumula los caracteres en un búfer acotado y los vuelca al destino en lote:
+ * al llenarse el búfer, cuando ha pasado el intervalo de volcado desde el último (se comprueba
+ * en cada escritura), al ejecutar HLT y al llamar a {@link #flush()} o {@link #close()}.
+ * En modo estricto (búfer de 0 caracteres) cada carácter se vuelca al escribirlo, como
+ * conviene a una consola interactiva.
+ * Los métodos que tocan el búfer son synchronized: los núcleos de un {@link Multiprocessor}
+ * comparten el dispositivo y pueden ejecutarse en hilos distintos.
  */
 public class TextOutputDevice extends IODevice {
+    public static final int DEFAULT_BUFFER_SIZE = 8192;      // Caracteres
+    public static final long DEFAULT_FLUSH_INTERVAL_MS = 100;
+
     private BufferedWriter writer;
+    private char[] buffer = new char[DEFAULT_BUFFER_SIZE];
+    private int pending = 0;          // Caracteres del búfer aún no volcados
+    private long flushIntervalNanos = DEFAULT_FLUSH_INTERVAL_MS * 1_000_000L;
+    private long lastFlush = System.nanoTime();
+    private long flushes = 0;
 
     /**
      * Crea un TextOutputDevice con un identificador y archivo destino.
@@ -23,22 +40,95 @@ public class TextOutputDevice extends IODevice {
         this.status = "OPEN";
     }
 
+    /**
+     * Crea un TextOutputDevice que escribe en un destino ya abierto (p.ej. la salida estándar).
+     *
+     * @param target Destino de los caracteres.
+     * @param id     Identificador del dispositivo.
+     */
+    public TextOutputDevice(Writer target, String id) {
+        super(id);
+        this.writer = (target instanceof BufferedWriter) ? (BufferedWriter) target : new BufferedWriter(target);
+        this.status = "OPEN";
+    }
+
+    /**
+     * Configura el volcado de la salida. Vuelca antes lo pendiente.
+     *
+     * @param bufferSize      Caracteres que se acumulan antes de volcar; 0 para el modo estricto.
+     * @param flushIntervalMs Milisegundos máximos entre volcados mientras se escribe; 0 sin límite.
+     * @throws IllegalArgumentException si algún valor es negativo.
+     */
+    public synchronized void setBuffering(int bufferSize, long flushIntervalMs) {
+        if (bufferSize < 0 || flushIntervalMs < 0) {
+            throw new IllegalArgumentException("Búfer de salida inválido: " + bufferSize + " caracteres, " + flushIntervalMs + " ms.");
+        }
+        flush();
+        this.buffer = new char[bufferSize];
+        this.flushIntervalNanos = flushIntervalMs * 1_000_000L;
+    }
+
+    /** @return true si cada carácter se vuelca al escribirlo. */
+    public boolean isStrict() {
+        return buffer.length == 0;
+    }
+
     /**
      * Escribe un carácter en el archivo.
      *
      * @param data Código ASCII del carácter a escribir.
+     * @throws RuntimeException si el dispositivo está cerrado o falla la escritura.
      */
     @Override
-    public void write(int data) {
+    public synchronized void write(int data) {
+        if ("CLOSED".equals(status)) {
+            throw new RuntimeException("Error escribiendo en archivo: el dispositivo " + id + " está cerrado.");
+        }
+        if (buffer.length == 0) {
+            try {
+                writer.write(data);
+                writer.flush();
+                flushes++;
+            } catch (IOException e) {
+                this.status = "ERROR";
+                throw new RuntimeException("Error escribiendo en archivo: " + e.getMessage(), e);
+            }
+            return;
+        }
+        buffer[pending++] = (char) data;
+        if (pending == buffer.length
+                || (flushIntervalNanos > 0 && System.nanoTime() - lastFlush >= flushIntervalNanos)) {
+            flush();
+        }
+    }
+
+    /**
+     * Vuelca al destino los caracteres pendientes.
+     */
+    @Override
+    public synchronized void flush() {
+        if ("CLOSED".equals(status)) {
+            return;
+        }
         try {
-            writer.write(data);
+            if (pending > 0) {
+                writer.write(buffer, 0, pending);
+                pending = 0;
+            }
             writer.flush();
+            flushes++;
+            lastFlush = System.nanoTime();
         } catch (IOException e) {
             this.status = "ERROR";
             throw new RuntimeException("Error escribiendo en archivo: " + e.getMessage(), e);
         }
     }
 
+    /** @return volcados al destino realizados (uno por carácter en modo estricto). */
+    public long getFlushCount() {
+        return flushes;
+    }
+
     /**
      * Dispositivo de salida no soporta lectura.
      *
@@ -50,10 +140,14 @@ public class TextOutputDevice extends IODevice {
     }
 
     /**
-     * Cierra el archivo de salida.
+     * Vuelca lo pendiente y cierra el archivo de salida.
      */
-    public void close() {
+    public synchronized void close() {
         try {
+            if (pending > 0) {
+                writer.write(buffer, 0, pending);
+                pending = 0;
+            }
             writer.close();
             this.status = "CLOSED";
         } catch (IOException e) {
@@ -0,0 +1,121 @@
+package Models;
+
+import java.util.Arrays;
+
+/**
+ * TLB asociativa por conjuntos con reemplazo LRU. Cada entrada guarda la traducción
+ * página virtual → marco de un espacio de direcciones, identificado por su ASID, de modo
+ * que varios procesos pueden compartir la TLB sin vaciarla en cada cambio de contexto.
+ * Las entradas se guardan en arreglos primitivos: una consulta no crea objetos.
+ */
+public class Tlb {
+    public static final int DEFAULT_ENTRIES = 16;
+    public static final int DEFAULT_WAYS = 4;
+
+    private final int ways;
+    private final int setMask;
+    private final int[] pages;    // Página virtual de cada entrada (-1 = vacía), conjunto * ways + vía
+    private final int[] asids;
+    private final int[] frames;
+    private final long[] lastUse;
+    private long clock = 0;
+    private long hits = 0;
+    private long misses = 0;
+    private long evictions = 0;
+
+    /**
+     * @param entries Entradas totales (potencia de dos).
+     * @param ways    Vías por conjunto (potencia de dos, divisor de entries).
+     */
+    public Tlb(int entries, int ways) {
+        if (entries <= 0 || ways <= 0 || (entries & (entries - 1)) != 0 || (ways & (ways - 1)) != 0 || ways > entries) {
+            throw new IllegalArgumentException("TLB inválida: " + entries + " entradas, " + ways
+                    + " vías (deben ser potencias de dos, vías <= entradas).");
+        }
+        this.ways = ways;
+        this.setMask = entries / ways - 1;
+        this.pages = new int[entries];
+        this.asids = new int[entries];
+        this.frames = new int[entries];
+        this.lastUse = new long[entries];
+        Arrays.fill(pages, -1);
+    }
+
+    /**
+     * @return el marco de la página en el espacio asid, o -1 si no está en la TLB (fallo).
+     */
+    public int lookup(int asid, int page) {
+        int base = (page & setMask) * ways;
+        for (int w = 0; w < ways; w++) {
+            int entry = base + w;
+            if (pages[entry] == page && asids[entry] == asid) {
+                hits++;
+                lastUse[entry] = ++clock;
+                return frames[entry];
+            }
+        }
+        misses++;
+        return -1;
+    }
+
+    /**
+     * Guarda una traducción, reemplazando la entrada vacía o la menos usada de su conjunto.
+     */
+    public void insert(int asid, int page, int frame) {
+        int base = (page & setMask) * ways;
+        int victim = base;
+        for (int w = 0; w < ways; w++) {
+            int entry = base + w;
+            if (pages[entry] < 0) {
+                victim = entry;
+                break;
+            }
+            if (lastUse[entry] < lastUse[victim]) {
+                victim = entry;
+            }
+        }
+        if (pages[victim] >= 0) {
+            evictions++;
+        }
+        pages[victim] = page;
+        asids[victim] = asid;
+        frames[victim] = frame;
+        lastUse[victim] = ++clock;
+    }
+
+    /** Invalida la traducción de una página (p.ej. al quitarla de memoria). */
+    public void invalidate(int asid, int page) {
+        int base = (page & setMask) * ways;
+        for (int w = 0; w < ways; w++) {
+            if (pages[base + w] == page && asids[base + w] == asid) {
+                pages[base + w] = -1;
+            }
+        }
+    }
+
+    /** Invalida todas las traducciones de un espacio de direcciones. */
+    public void flush(int asid) {
+        for (int entry = 0; entry < pages.length; entry++) {
+            if (asids[entry] == asid) {
+                pages[entry] = -1;
+            }
+        }
+    }
+
+    /** Invalida todas las entradas. */
+    public void flush() {
+        Arrays.fill(pages, -1);
+    }
+
+    public int getEntryCount() { return pages.length; }
+    public int getWays() { return ways; }
+    public long getHits() { return hits; }
+    public long getMisses() { return misses; }
+    public long getEvictions() { return evictions; }
+
+    /** @return aciertos / consultas (0 si no hubo consultas). */
+    public double getHitRate() {
+        long lookups = hits + misses;
+        return (lookups > 0) ? (double) hits / lookups : 0.0;
+    }
+}
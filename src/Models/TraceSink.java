@@ -0,0 +1,27 @@
+package Models;
+
+import Enums.TraceLevel;
+
+/**
+ * Destino de los registros de traza. El formateo del texto queda a cargo del destino,
+ * de modo que puede hacerse fuera del hilo de simulación.
+ */
+public interface TraceSink {
+    /**
+     * Registra un evento de traza.
+     * @param level  Nivel del evento.
+     * @param format Cadena de formato (como en String.format).
+     * @param args   Argumentos del formato.
+     */
+    void record(TraceLevel level, String format, Object... args);
+
+    /**
+     * Espera a que todos los registros pendientes se hayan escrito.
+     */
+    void flush();
+
+    /**
+     * Escribe lo pendiente y libera el destino.
+     */
+    void close();
+}
@@ -0,0 +1,55 @@
+package Models;
+
+import Enums.TraceLevel;
+
+/**
+ * Filtro de traza por nivel. Los componentes consultan {@link #isEnabled(TraceLevel)}
+ * antes de construir los argumentos, así que con el nivel OFF la traza no cuesta
+ * más que una comparación de enteros.
+ */
+public final class Tracer {
+    /** Traza desactivada; es el valor por defecto de todos los componentes. */
+    public static final Tracer OFF = new Tracer(TraceLevel.OFF, null);
+
+    private final TraceLevel level;
+    private final int maxOrdinal;
+    private final TraceSink sink;
+
+    /**
+     * @param level Nivel máximo que se registra.
+     * @param sink  Destino de los registros (puede ser null si el nivel es OFF).
+     * @throws IllegalArgumentException si el nivel no es OFF y no hay destino.
+     */
+    public Tracer(TraceLevel level, TraceSink sink) {
+        if (level != TraceLevel.OFF && sink == null) {
+            throw new IllegalArgumentException("Se necesita un destino de traza para el nivel " + level);
+        }
+        this.level = level;
+        this.maxOrdinal = (sink != null) ? level.ordinal() : TraceLevel.OFF.ordinal();
+        this.sink = sink;
+    }
+
+    /**
+     * @return true si los eventos del nivel dado deben registrarse.
+     */
+    public boolean isEnabled(TraceLevel l) {
+        return l.ordinal() <= maxOrdinal && l != TraceLevel.OFF;
+    }
+
+    /**
+     * Envía un evento al destino. Llamar solo tras comprobar {@link #isEnabled(TraceLevel)}.
+     */
+    public void trace(TraceLevel l, String format, Object... args) {
+        if (isEnabled(l)) {
+            sink.record(l, format, args);
+        }
+    }
+
+    public TraceLevel getLevel() {
+        return level;
+    }
+
+    public TraceSink getSink() {
+        return sink;
+    }
+}
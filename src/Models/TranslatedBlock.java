@@ -0,0 +1,39 @@
+package Models;
+
+/**
+ * Bloque básico traducido: instrucciones consecutivas sin saltos internos, que termina
+ * en JMP, JE, JNE o HLT (o justo antes de una instrucción no reconocida o del final del
+ * programa). Cada instrucción queda enlazada a su manejador al traducir, así que el
+ * bucle principal despacha una sola vez por bloque. La cadena de despacho reemplaza
+ * además los pares de instrucciones fusionables por un único manejador ({@link Superinstruction}).
+ */
+final class TranslatedBlock {
+    /** Manejador de una instrucción ya enlazada a su lógica cableada. */
+    interface Handler {
+        void execute();
+    }
+
+    static final TranslatedBlock EMPTY = new TranslatedBlock(-1, new DecodedInstruction[0], new Handler[0], new Handler[0], 0);
+
+    final int startPc;
+    final DecodedInstruction[] instructions;
+    final Handler[] handlers;   // Un manejador por instrucción
+    final Handler[] chain;      // Manejadores del bloque completo, con las superinstrucciones fusionadas
+    final int maxCycles; // Micro-pasos equivalentes si todas las instrucciones terminan completas
+
+    // --- JIT ---
+    int executions = 0;  // Veces que se ha ejecutado el bloque completo
+    JitRegion jit;       // Región compilada, o null si aún no está caliente o no tiene región compilable
+
+    TranslatedBlock(int startPc, DecodedInstruction[] instructions, Handler[] handlers, Handler[] chain, int maxCycles) {
+        this.startPc = startPc;
+        this.instructions = instructions;
+        this.handlers = handlers;
+        this.chain = chain;
+        this.maxCycles = maxCycles;
+    }
+
+    boolean isEmpty() {
+        return handlers.length == 0;
+    }
+}
@@ -0,0 +1,102 @@
+package View;
+
+import Controller.CpuSnapshot;
+
+import javax.swing.table.AbstractTableModel;
+
+/**
+ * Modelo de la tabla de memoria: una fila por celda, para toda la memoria. Los valores salen
+ * de la ventana que trae cada {@link CpuSnapshot} (las filas visibles), así que el coste de
+ * pintar no depende del tamaño de la memoria.
+ *
+ * En cada refresco se compara la ventana nueva con la anterior y solo se notifican las filas
+ * que cambiaron (o que acaban de entrar en la ventana); JTable repinta solo esas.
+ */
+public class MemoryTableModel extends AbstractTableModel {
+    private static final long serialVersionUID = 1L;
+
+    private static final String[] COLUMNS = {"Dirección", "Decimal", "Hex"};
+
+    private CpuSnapshot frame = null;     // Último estado recibido
+    private int rows = 0;                 // Tamaño de la memoria
+    private String addressFormat = "%04X";
+    private boolean[] changed = new boolean[0]; // Por celda de la ventana: cambió en el último refresco
+
+    /**
+     * Toma la ventana de memoria de un nuevo estado y notifica las filas que cambiaron.
+     * Debe llamarse desde el hilo de eventos de Swing.
+     */
+    public void update(CpuSnapshot state) {
+        CpuSnapshot previous = frame;
+        boolean[] previousChanged = changed;
+        int size = state.hasMemory() ? state.getMemorySize() : 0;
+        frame = state;
+        changed = new boolean[state.getMemoryCells()];
+        if (size != rows || previous == null) {
+            rows = size;
+            int digits = Math.max(4, Integer.toHexString(Math.max(0, size - 1)).length());
+            addressFormat = "%0" + digits + "X";
+            fireTableDataChanged();
+            return;
+        }
+        // Agrupa las filas a repintar en tramos contiguos: una notificación por tramo
+        int start = state.getMemoryStart();
+        int runStart = -1;
+        for (int i = 0; i < changed.length; i++) {
+            int addr = start + i;
+            boolean repaint;
+            if (previous.hasMemoryAt(addr)) {
+                changed[i] = previous.getMemory(addr) != state.getMemory(addr);
+                // También se repinta si estaba resaltada, para quitarle el resalte
+                repaint = changed[i] || previousChanged[addr - previous.getMemoryStart()];
+            } else {
+                repaint = true; // Antes se mostraba sin valor
+            }
+            if (repaint && runStart < 0) {
+                runStart = addr;
+            } else if (!repaint && runStart >= 0) {
+                fireTableRowsUpdated(runStart, addr - 1);
+                runStart = -1;
+            }
+        }
+        if (runStart >= 0) {
+            fireTableRowsUpdated(runStart, start + changed.length - 1);
+        }
+    }
+
+    /** @return true si la celda de esa fila cambió en el último refresco. */
+    public boolean isChanged(int row) {
+        return frame != null && frame.hasMemoryAt(row) && changed[row - frame.getMemoryStart()];
+    }
+
+    @Override
+    public int getRowCount() {
+        return rows;
+    }
+
+    @Override
+    public int getColumnCount() {
+        return COLUMNS.length;
+    }
+
+    @Override
+    public String getColumnName(int column) {
+        return COLUMNS[column];
+    }
+
+    /**
+     * Formatea la celda al pintarla, así que solo se formatean las filas visibles.
+     * Una fila que aún no está en la ventana muestra solo la dirección hasta el próximo refresco.
+     */
+    @Override
+    public Object getValueAt(int row, int column) {
+        if (column == 0) {
+            return String.format(addressFormat, row);
+        }
+        if (frame == null || !frame.hasMemoryAt(row)) {
+            return "";
+        }
+        int value = frame.getMemory(row);
+        return (column == 1) ? String.valueOf(value) : String.format("%04X", value & 0xFFFF);
+    }
+}
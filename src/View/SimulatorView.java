@@ -1,17 +1,21 @@
 package View;
 
+import Controller.CpuSnapshot;
 import Controller.SimulatorController;
 import Models.RegisterFile;
 import Models.Memory;
 
 import javax.swing.*;
 import javax.swing.border.TitledBorder;
+import javax.swing.table.DefaultTableCellRenderer;
 import java.awt.*;
 // Eliminado ActionEvent ya que usamos lambdas y no se necesita explícitamente
 // Eliminado Map ya que RegisterFile.getRegisterNames() y read() son suficientes para el JTextArea
 import javax.swing.filechooser.FileNameExtensionFilter; // Para filtrar archivos
 
 public class SimulatorView extends JFrame {
+    private static final String IO_TITLE = "Entrada/Salida del Programa";
+
     private SimulatorController controller;
 
     // Componentes de la GUI - Panel de Control
@@ -19,6 +23,12 @@ public class SimulatorView extends JFrame {
     private JButton runButton;
     private JButton loadButton;
     private JButton resetButton;
+    private JComboBox<String> speedBox; // Velocidad de Run: máxima o un ritmo objetivo
+    private JLabel cyclesLabel;
+
+    // Opciones de velocidad y su ritmo en ciclos por segundo (0 = sin límite)
+    private static final String[] SPEED_NAMES = {"Máxima", "100000 ciclos/s", "1000 ciclos/s", "50 ciclos/s", "5 ciclos/s"};
+    private static final long[] SPEED_RATES = {0, 100_000, 1000, 50, 5};
 
     // Componentes de la GUI - Panel de Estado de CPU
     private JTextField pcValueField;
@@ -35,10 +45,14 @@ public class SimulatorView extends JFrame {
 
 
     // Componentes de la GUI - Panel Principal
-    private JTextArea memoryArea;
+    private JTable memoryTable;             // Una fila por celda; solo se pintan las visibles
+    private MemoryTableModel memoryModel;
+    private static final Color CHANGED_CELL = new Color(255, 240, 170); // Celdas que cambiaron en el último refresco
     private JTextArea outputArea;
-    private JTextField inputField; // Para la entrada del usuario (podría ser mejorado)
-    private JButton submitInputButton; // Botón para enviar la entrada del inputField
+    private JPanel ioPanel;
+    private JTextArea inputArea; // Entrada del usuario: una línea o un bloque pegado de varias
+    private JButton submitInputButton; // Botón para enviar la entrada del inputArea
+    private JButton endInputButton;    // Marca el fin de la entrada (INPUT_CHAR recibe -1)
 
     public SimulatorView() {
         setTitle("Simulador CPU Gráfico");
@@ -64,6 +78,11 @@ public class SimulatorView extends JFrame {
         controlPanel.add(stepButton);
         controlPanel.add(runButton);
         controlPanel.add(resetButton);
+        speedBox = new JComboBox<>(SPEED_NAMES);
+        controlPanel.add(new JLabel("Velocidad:"));
+        controlPanel.add(speedBox);
+        cyclesLabel = new JLabel("Ciclos: 0 | Instrucciones: 0");
+        controlPanel.add(cyclesLabel);
         add(controlPanel, BorderLayout.NORTH);
 
         // --- Panel de Estado de la CPU (Registros, PC, IR, etc.) ---
@@ -139,7 +158,7 @@ public class SimulatorView extends JFrame {
 
         // Banderas de la ALU
         flagsPanel = new JPanel(new FlowLayout(FlowLayout.LEFT));
-        flagsPanel.setBorder(BorderFactory.createTitledBorder("Banderas ALU"));
+        flagsPanel.setBorder(BorderFactory.createTitledBorder("Banderas de Estado (CMP)"));
         zeroFlagCheckBox = new JCheckBox("Zero (Z)");
         zeroFlagCheckBox.setEnabled(false); // Solo visualización
         carryFlagCheckBox = new JCheckBox("Carry (C)");
@@ -158,17 +177,33 @@ public class SimulatorView extends JFrame {
         // --- Panel Principal (Memoria, Salida, Entrada) ---
         JPanel mainDisplayPanel = new JPanel(new GridLayout(1, 2, 10, 0)); // 1 fila, 2 columnas, con espaciado
 
-        // Área de Memoria
-        memoryArea = new JTextArea(20, 35);
-        memoryArea.setEditable(false);
-        memoryArea.setFont(new Font("Monospaced", Font.PLAIN, 12));
-        JScrollPane memoryScrollPane = new JScrollPane(memoryArea);
+        // Tabla de Memoria: recorre toda la memoria, pero solo se copian y pintan las filas visibles
+        memoryModel = new MemoryTableModel();
+        memoryTable = new JTable(memoryModel);
+        Font memoryFont = new Font("Monospaced", Font.PLAIN, 12);
+        memoryTable.setFont(memoryFont);
+        memoryTable.setRowHeight(memoryTable.getFontMetrics(memoryFont).getHeight() + 2); // Altura fija: filas virtuales
+        memoryTable.setFillsViewportHeight(true);
+        memoryTable.getTableHeader().setReorderingAllowed(false);
+        memoryTable.setDefaultRenderer(Object.class, new DefaultTableCellRenderer() {
+            @Override
+            public Component getTableCellRendererComponent(JTable table, Object value, boolean isSelected,
+                                                           boolean hasFocus, int row, int column) {
+                super.getTableCellRendererComponent(table, value, isSelected, hasFocus, row, column);
+                if (!isSelected) {
+                    setBackground(memoryModel.isChanged(row) ? CHANGED_CELL : table.getBackground());
+                }
+                return this;
+            }
+        });
+        JScrollPane memoryScrollPane = new JScrollPane(memoryTable);
         memoryScrollPane.setBorder(BorderFactory.createTitledBorder("Memoria de Datos"));
+        memoryScrollPane.getViewport().addChangeListener(e -> publishMemoryWindow());
         mainDisplayPanel.add(memoryScrollPane);
 
         // Panel de I/O (Salida y Entrada)
-        JPanel ioPanel = new JPanel(new BorderLayout(5,5));
-        ioPanel.setBorder(BorderFactory.createTitledBorder("Entrada/Salida del Programa"));
+        ioPanel = new JPanel(new BorderLayout(5,5));
+        ioPanel.setBorder(BorderFactory.createTitledBorder(IO_TITLE));
 
         outputArea = new JTextArea(10, 30);
         outputArea.setEditable(false);
@@ -180,13 +215,16 @@ public class SimulatorView extends JFrame {
         ioPanel.add(outputScrollPane, BorderLayout.CENTER);
 
         JPanel inputAreaPanel = new JPanel(new BorderLayout(5,0));
-        inputField = new JTextField();
-        inputField.setFont(new Font("Monospaced", Font.PLAIN, 12));
-        // inputField.setBorder(BorderFactory.createTitledBorder("Entrada para INPUT_CHAR")); // Título puede ser redundante
+        inputArea = new JTextArea(3, 30);
+        inputArea.setFont(new Font("Monospaced", Font.PLAIN, 12));
         submitInputButton = new JButton("Enviar Entrada");
+        endInputButton = new JButton("Fin de Entrada");
+        JPanel inputButtons = new JPanel(new GridLayout(2, 1, 0, 5));
+        inputButtons.add(submitInputButton);
+        inputButtons.add(endInputButton);
         inputAreaPanel.add(new JLabel("Entrada:"), BorderLayout.WEST);
-        inputAreaPanel.add(inputField, BorderLayout.CENTER);
-        inputAreaPanel.add(submitInputButton, BorderLayout.EAST);
+        inputAreaPanel.add(new JScrollPane(inputArea), BorderLayout.CENTER);
+        inputAreaPanel.add(inputButtons, BorderLayout.EAST);
         ioPanel.add(inputAreaPanel, BorderLayout.SOUTH);
 
         mainDisplayPanel.add(ioPanel);
@@ -207,6 +245,7 @@ public class SimulatorView extends JFrame {
         stepButton.addActionListener(e -> controller.stepExecution());
         runButton.addActionListener(e -> controller.runFullExecution());
         resetButton.addActionListener(e -> controller.resetSimulation());
+        speedBox.addActionListener(e -> controller.setTargetRate(SPEED_RATES[speedBox.getSelectedIndex()]));
 
         loadButton.addActionListener(e -> {
             JFileChooser fileChooser = new JFileChooser(System.getProperty("user.dir") + "/Files");
@@ -220,18 +259,25 @@ public class SimulatorView extends JFrame {
             }
         });
 
-        // Listener para el botón de enviar entrada (ejemplo básico)
-        // La lógica real de cómo esta entrada se consume por la CPU es más compleja
-        // y depende de cómo implementes tu IODevice de GUI.
+        // Todo el texto del campo (una o muchas líneas) se encola de una vez, sin bloquear.
         submitInputButton.addActionListener(e -> {
-            String inputText = inputField.getText();
-            if (this.controller != null && !inputText.isEmpty()) {
-                // Esto es conceptual. El controlador necesitaría un método para manejar esta entrada
-                // y de alguna manera pasarla al IODevice de la CPU cuando esté esperando.
-                // controller.provideInputToCPU(inputText);
-                System.out.println("Entrada enviada (simulado): " + inputText);
-                // outputArea.append("Entrada manual: " + inputText + "\n"); // Para feedback visual
-                // inputField.setText(""); // Limpiar campo
+            String inputText = inputArea.getText();
+            if (this.controller == null || inputText.isEmpty()) {
+                return;
+            }
+            if (!inputText.endsWith("\n")) {
+                inputText += "\n"; // Cada envío termina una línea, como al pulsar Enter en una consola
+            }
+            int accepted = this.controller.provideInput(inputText);
+            inputArea.setText(inputText.substring(accepted));
+            if (accepted < inputText.length()) {
+                showMessage("La cola de entrada está llena: se enviaron " + accepted + " de " + inputText.length()
+                        + " caracteres. El resto queda en el campo para enviarlo más tarde.");
+            }
+        });
+        endInputButton.addActionListener(e -> {
+            if (this.controller != null) {
+                this.controller.endInput();
             }
         });
     }
@@ -243,27 +289,26 @@ public class SimulatorView extends JFrame {
     public void refreshDisplay(int pc, String ir, RegisterFile registers, Memory memory, boolean halted,
                                boolean zeroFlag, boolean carryFlag, boolean signFlag, boolean overflowFlag,
                                int mbrValue, int marValue) { // Añadidos MBR y MAR
-        pcValueField.setText(String.valueOf(pc));
-        irValueField.setText(ir != null ? ir : "---");
+        refreshDisplay(new CpuSnapshot(pc, ir, registers, memory, halted, zeroFlag, carryFlag, signFlag,
+                overflowFlag, mbrValue, marValue, 0, 0));
+    }
+
+    /**
+     * Actualiza todos los componentes de la GUI con una copia del estado de la CPU.
+     * Debe llamarse desde el hilo de eventos de Swing.
+     */
+    public void refreshDisplay(CpuSnapshot state) {
+        pcValueField.setText(String.valueOf(state.getPc()));
+        irValueField.setText(state.getIr() != null ? state.getIr() : "---");
 
-        if (registers != null) {
-            accValueField.setText(String.valueOf(registers.read("ACC")));
-            // Mostrar otros registros generales
+        if (state.hasRegisters()) {
+            accValueField.setText(String.valueOf(state.getAcc()));
+            // Registros generales, ya ordenados por nombre y sin ACC (se muestra por separado)
             StringBuilder regText = new StringBuilder();
-            // Ordenar los nombres de los registros para una visualización consistente
-            java.util.List<String> sortedRegNames = new java.util.ArrayList<>(registers.getRegisterNames());
-            java.util.Collections.sort(sortedRegNames);
-
-            // CÓDIGO MEJORADO
-            for (String regName : sortedRegNames) {
-                if (!regName.equals("ACC")) { // ACC se maneja por separado
-                    Models.RegisterFile.RegisterInfo info = registers.getRegisterInfo(regName);
-                    if (info != null) {
-                        // Formato: "R5  : 25      (SUB R4, R3)"
-                        String description = info.description != null ? info.description : "";
-                        regText.append(String.format("%-4s: %-8d %s\n", regName, info.value, description));
-                    }
-                }
+            for (int i = 0; i < state.getRegisterCount(); i++) {
+                // Formato: "R5  : 25      (SUB R4, R3)"
+                regText.append(String.format("%-4s: %-8d %s\n", state.getRegisterName(i),
+                        state.getRegisterValue(i), state.getRegisterDescription(i)));
             }
             registersArea.setText(regText.toString());
         } else {
@@ -271,40 +316,45 @@ public class SimulatorView extends JFrame {
             registersArea.setText("Registros no disponibles.");
         }
 
-        marValueField.setText(String.valueOf(marValue));
-        mbrValueField.setText(String.valueOf(mbrValue));
+        marValueField.setText(String.valueOf(state.getMar()));
+        mbrValueField.setText(String.valueOf(state.getMbr()));
 
         // Actualizar Banderas
-        zeroFlagCheckBox.setSelected(zeroFlag);
-        carryFlagCheckBox.setSelected(carryFlag);
-        signFlagCheckBox.setSelected(signFlag);
-        overflowFlagCheckBox.setSelected(overflowFlag);
-
-        // Actualizar Memoria (mostrar un rango, por ejemplo, las primeras 64 posiciones)
-        StringBuilder memText = new StringBuilder();
-        if (memory != null) {
-            int displaySize = Math.min(128, memory.getSize()); // Mostrar hasta 64 o el tamaño real
-            for (int i = 0; i < displaySize; i++) {
-                // Formato: [dirección_hex]: valor_decimal (valor_hex)
-                memText.append(String.format("[%04X]: %-5d (%04X)\n", i, memory.read(i), memory.read(i) & 0xFFFF));
-                if ((i + 1) % 4 == 0 && i < displaySize -1) { // Añadir una línea extra cada 4 para agrupar
-                    // memText.append("\n"); // Opcional para más espaciado visual
-                }
-            }
-        } else {
-            memoryArea.setText("Memoria no disponible.");
-        }
-        memoryArea.setText(memText.toString());
-        if (memoryArea.getDocument().getLength() > 0) { // Evitar error si está vacío
-            memoryArea.setCaretPosition(0); // Scroll al inicio
-        }
+        zeroFlagCheckBox.setSelected(state.isZero());
+        carryFlagCheckBox.setSelected(state.isCarry());
+        signFlagCheckBox.setSelected(state.isSign());
+        overflowFlagCheckBox.setSelected(state.isOverflow());
+
+        // Actualizar Memoria: el modelo solo notifica las filas que cambiaron
+        memoryModel.update(state);
 
+        cyclesLabel.setText(String.format("Ciclos: %,d | Instrucciones: %,d", state.getCycles(), state.getInstructions()));
 
         // Habilitar/deshabilitar botones de control
-        setExecutionControlsEnabled(!halted);
+        setExecutionControlsEnabled(!state.isHalted());
     }
 
 
+    /**
+     * Comunica al controlador qué filas de memoria están a la vista, para que las próximas
+     * copias del estado traigan esas celdas.
+     */
+    private void publishMemoryWindow() {
+        if (controller == null || memoryModel.getRowCount() == 0) {
+            return;
+        }
+        Rectangle visible = memoryTable.getVisibleRect();
+        int first = memoryTable.rowAtPoint(visible.getLocation());
+        int last = memoryTable.rowAtPoint(new Point(visible.x, visible.y + visible.height - 1));
+        if (first < 0) {
+            return; // La tabla aún no tiene tamaño
+        }
+        if (last < 0) {
+            last = memoryModel.getRowCount() - 1; // La tabla es más corta que la vista
+        }
+        controller.setMemoryWindow(first, last - first + 1);
+    }
+
     public void appendOutput(String text) {
         // Asegurar que se actualiza en el Event Dispatch Thread
         SwingUtilities.invokeLater(() -> {
@@ -325,6 +375,17 @@ public class SimulatorView extends JFrame {
         return JOptionPane.showInputDialog(this, promptMessage, "Entrada Requerida", JOptionPane.QUESTION_MESSAGE);
     }
 
+    /**
+     * Indica en el panel de E/S si la CPU está aparcada esperando entrada, y lleva el foco al campo.
+     * @param waiting true mientras la ejecución espera.
+     */
+    public void setWaitingForInput(boolean waiting) {
+        ioPanel.setBorder(BorderFactory.createTitledBorder(waiting ? IO_TITLE + " (esperando entrada...)" : IO_TITLE));
+        if (waiting) {
+            inputArea.requestFocusInWindow();
+        }
+    }
+
 
     public void showMessage(String message) {
         // Asegurar que se actualiza en el Event Dispatch Thread